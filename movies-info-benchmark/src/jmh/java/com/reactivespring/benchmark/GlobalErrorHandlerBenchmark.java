@@ -0,0 +1,60 @@
+package com.reactivespring.benchmark;
+
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.exception.MovieInfoDataException;
+import com.reactivespring.exceptionhandler.GlobalErrorHandler;
+import com.reactivespring.validation.MovieInfoValidator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning an invalid {@link MovieInfo} into the 400 response body, including the
+ * creation of the exception itself: the {@link WebExchangeBindException} raised by
+ * {@code @Valid} against the stackless {@link MovieInfoDataException} raised after
+ * {@link MovieInfoValidator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GlobalErrorHandlerBenchmark {
+
+    GlobalErrorHandler globalErrorHandler;
+    MethodParameter methodParameter;
+    MovieInfo invalid;
+
+    @Setup
+    public void setUp() throws Exception {
+        globalErrorHandler = new GlobalErrorHandler();
+        methodParameter = new MethodParameter(
+                GlobalErrorHandlerBenchmark.class.getDeclaredMethod("target", MovieInfo.class), 0);
+        invalid = new MovieInfo(null, "",
+                -2005, List.of(""), LocalDate.parse("2005-06-15"));
+    }
+
+    @SuppressWarnings("unused")
+    void target(MovieInfo movieInfo) {
+    }
+
+    @Benchmark
+    public ResponseEntity<String> handleRequestBodyError() {
+        var bindingResult = new BeanPropertyBindingResult(invalid, "movieInfo");
+        bindingResult.addError(new FieldError("movieInfo", "name", "moiveInfo.name must be present"));
+        bindingResult.addError(new FieldError("movieInfo", "year", "movieInfo.year must be a Positive value"));
+        bindingResult.addError(new FieldError("movieInfo", "cast[0]", "moiveInfo.cast must be present"));
+        return globalErrorHandler.handleRequestBodyError(new WebExchangeBindException(methodParameter, bindingResult));
+    }
+
+    @Benchmark
+    public ResponseEntity<String> handleMovieInfoDataException() {
+        var errors = MovieInfoValidator.validate(invalid);
+        return globalErrorHandler.handleMovieInfoDataException(new MovieInfoDataException(String.join(",", errors)));
+    }
+}
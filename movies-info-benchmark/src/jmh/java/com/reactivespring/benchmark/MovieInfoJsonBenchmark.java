@@ -0,0 +1,49 @@
+package com.reactivespring.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.reactivespring.domain.MovieInfo;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson encode/decode of a single {@link MovieInfo}, configured the way Spring Boot
+ * configures the WebFlux codecs (JavaTimeModule, ISO dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MovieInfoJsonBenchmark {
+
+    ObjectMapper objectMapper;
+    MovieInfo movieInfo;
+    byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = objectMapper();
+        movieInfo = new MovieInfo("abc", "Dark Knight Rises",
+                2012, List.of("Christian Bale", "Tom Hardy", "Anne Hathaway", "Gary Oldman"), LocalDate.parse("2012-07-20"));
+        json = objectMapper.writeValueAsBytes(movieInfo);
+    }
+
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return objectMapper.writeValueAsBytes(movieInfo);
+    }
+
+    @Benchmark
+    public MovieInfo decode() throws Exception {
+        return objectMapper.readValue(json, MovieInfo.class);
+    }
+}
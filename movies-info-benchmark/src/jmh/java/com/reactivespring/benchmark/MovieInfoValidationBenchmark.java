@@ -0,0 +1,64 @@
+package com.reactivespring.benchmark;
+
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.validation.MovieInfoValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation of a {@link MovieInfo} against the precompiled {@link MovieInfoValidator},
+ * for a valid body and for one that breaks every constraint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MovieInfoValidationBenchmark {
+
+    ValidatorFactory validatorFactory;
+    Validator validator;
+    MovieInfo valid;
+    MovieInfo invalid;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        valid = new MovieInfo(null, "Batman Begins",
+                2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+        invalid = new MovieInfo(null, "",
+                -2005, List.of(""), LocalDate.parse("2005-06-15"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MovieInfo>> validateValid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MovieInfo>> validateInvalid() {
+        return validator.validate(invalid);
+    }
+
+    @Benchmark
+    public List<String> precompiledValid() {
+        return MovieInfoValidator.validate(valid);
+    }
+
+    @Benchmark
+    public List<String> precompiledInvalid() {
+        return MovieInfoValidator.validate(invalid);
+    }
+}
@@ -0,0 +1,120 @@
+package com.reactivespring.benchmark;
+
+import com.reactivespring.cache.MovieInfoCache;
+import com.reactivespring.controller.MoviesInfoController;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.exceptionhandler.GlobalErrorHandler;
+import com.reactivespring.metrics.ReactiveMetrics;
+import com.reactivespring.repository.MovieInfoRepository;
+import com.reactivespring.service.MovieInfoChangeFeed;
+import com.reactivespring.service.MoviesInfoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The whole WebFlux handler chain of {@link MoviesInfoController} (routing, codecs, validation,
+ * {@link GlobalErrorHandler}) bound in memory against a stubbed {@link MovieInfoRepository},
+ * so no network or Mongo time is included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoviesInfoControllerBenchmark {
+
+    static String MOVIES_INFO_URL = "/v1/movieinfos";
+
+    WebTestClient webTestClient;
+    MovieInfo valid;
+    MovieInfo invalid;
+
+    @Setup
+    public void setUp() {
+        var movieinfos = List.of(new MovieInfo(null, "Batman Begins",
+                        2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")),
+                new MovieInfo(null, "The Dark Knight",
+                        2008, List.of("Christian Bale", "HeathLedger"), LocalDate.parse("2008-07-18")),
+                new MovieInfo("abc", "Dark Knight Rises",
+                        2012, List.of("Christian Bale", "Tom Hardy"), LocalDate.parse("2012-07-20")));
+
+        var movieInfoRepository = mock(MovieInfoRepository.class);
+        when(movieInfoRepository.findAll()).thenReturn(Flux.fromIterable(movieinfos));
+        when(movieInfoRepository.findById("abc")).thenReturn(Mono.just(movieinfos.get(2)));
+        when(movieInfoRepository.insert(any(MovieInfo.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // a zero TTL makes every lookup go through the repository
+        var moviesInfoService = new MoviesInfoService(movieInfoRepository, mock(ReactiveMongoTemplate.class),
+                new MovieInfoCache(10_000, Duration.ZERO), new MovieInfoChangeFeed(1000, 256, MovieInfoChangeFeed.OverflowPolicy.DROP_OLDEST), 500);
+        var controller = new MoviesInfoController(moviesInfoService, new ReactiveMetrics(0.1, false));
+
+        var objectMapper = MovieInfoJsonBenchmark.objectMapper();
+        webTestClient = WebTestClient.bindToController(controller)
+                .controllerAdvice(new GlobalErrorHandler())
+                .httpMessageCodecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+
+        valid = new MovieInfo(null, "Batman Begins1",
+                2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+        invalid = new MovieInfo(null, "",
+                -2005, List.of(""), LocalDate.parse("2005-06-15"));
+    }
+
+    @Benchmark
+    public List<MovieInfo> getAllMovieInfos() {
+        return webTestClient.get().uri(MOVIES_INFO_URL)
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Benchmark
+    public MovieInfo getMovieInfoById() {
+        return webTestClient.get().uri(MOVIES_INFO_URL + "/{id}", "abc")
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectBody(MovieInfo.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Benchmark
+    public MovieInfo addMovieInfo() {
+        return webTestClient.post().uri(MOVIES_INFO_URL)
+                .bodyValue(valid)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(MovieInfo.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Benchmark
+    public String addMovieInfo_validation() {
+        return webTestClient.post().uri(MOVIES_INFO_URL)
+                .bodyValue(invalid)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
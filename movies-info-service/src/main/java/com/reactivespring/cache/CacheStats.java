@@ -0,0 +1,18 @@
+package com.reactivespring.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+
+    private Integer size;
+    private Integer maxSize;
+    private Long hits;
+    private Long misses;
+    private Long evictions;
+    private Long expirations;
+}
@@ -0,0 +1,155 @@
+package com.reactivespring.cache;
+
+import com.reactivespring.domain.MovieInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Non-blocking read-through cache for {@link MovieInfo} lookups by id.
+ * <p>
+ * Entries expire after a fixed TTL and the oldest entries are evicted once {@code maxSize}
+ * is exceeded. A miss installs a pending future before the load starts, so concurrent
+ * misses on the same id subscribe to that one load instead of each going to Mongo.
+ * Empty and failed loads are not cached.
+ */
+@Component
+public class MovieInfoCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // entries in insertion order; may still hold entries that were invalidated or expired
+    private final ConcurrentLinkedQueue<Map.Entry<String, Entry>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    @Autowired
+    public MovieInfoCache(@Value("${movieinfo.cache.max-size:10000}") int maxSize,
+                          @Value("${movieinfo.cache.ttl:10m}") Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    MovieInfoCache(int maxSize, Duration ttl, LongSupplier ticker) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+    }
+
+    public Mono<MovieInfo> get(String id, Function<String, Mono<MovieInfo>> loader) {
+        return Mono.defer(() -> {
+            var now = ticker.getAsLong();
+            var entry = entries.get(id);
+            if (entry != null && entry.isExpired(now) && entries.remove(id, entry)) {
+                expirations.increment();
+                entry = null;
+            }
+            if (entry != null) {
+                hits.increment();
+                return Mono.fromFuture(entry.value, true);
+            }
+
+            var loading = new Entry(new CompletableFuture<>(), now + ttlNanos);
+            var existing = entries.putIfAbsent(id, loading);
+            if (existing != null) {
+                // another subscriber is already loading (or just loaded) this id
+                hits.increment();
+                return Mono.fromFuture(existing.value, true);
+            }
+            misses.increment();
+            track(id, loading);
+
+            loader.apply(id).subscribe(
+                    movieInfo -> loading.value.complete(movieInfo),
+                    ex -> {
+                        entries.remove(id, loading);
+                        loading.value.completeExceptionally(ex);
+                    },
+                    () -> {
+                        if (!loading.value.isDone()) {
+                            entries.remove(id, loading);
+                            loading.value.complete(null);
+                        }
+                    });
+            return Mono.fromFuture(loading.value, true);
+        });
+    }
+
+    /**
+     * Replaces the cached value, e.g. with the document returned by an update.
+     */
+    public void put(String id, MovieInfo movieInfo) {
+        var entry = new Entry(CompletableFuture.completedFuture(movieInfo), ticker.getAsLong() + ttlNanos);
+        entries.put(id, entry);
+        track(id, entry);
+    }
+
+    public void invalidate(String id) {
+        entries.remove(id);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private void track(String id, Entry entry) {
+        insertionOrder.add(Map.entry(id, entry));
+        queued.incrementAndGet();
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        while (entries.size() > maxSize || queued.get() > 2 * maxSize) {
+            var oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            if (entries.size() <= maxSize) {
+                // only trimming stale queue nodes, keep live entries around
+                if (entries.get(oldest.getKey()) == oldest.getValue()) {
+                    insertionOrder.add(oldest);
+                    queued.incrementAndGet();
+                }
+                continue;
+            }
+            if (entries.remove(oldest.getKey(), oldest.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(entries.size(), maxSize, hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<MovieInfo> value;
+        private final long expiresAt;
+
+        private Entry(CompletableFuture<MovieInfo> value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.reactivespring.controller;
 
+import com.reactivespring.metrics.ReactiveMetrics;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -11,18 +12,24 @@ import java.time.Duration;
 @RestController
 public class FluxAndMonoController {
 
+    private ReactiveMetrics reactiveMetrics;
+
+    public FluxAndMonoController(ReactiveMetrics reactiveMetrics) {
+        this.reactiveMetrics = reactiveMetrics;
+    }
+
     @GetMapping("/flux")
     public Flux<Integer> flux() {
-        return Flux.just(1, 2, 3).log();
+        return Flux.just(1, 2, 3).transform(reactiveMetrics.flux("flux"));
     }
 
     @GetMapping("/mono")
     public Mono<String> helloWorldMono() {
-        return Mono.just("hello-world").log();
+        return Mono.just("hello-world").transform(reactiveMetrics.mono("mono"));
     }
 
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<Long> stream() {
-        return Flux.interval(Duration.ofSeconds(1)).log();
+        return Flux.interval(Duration.ofSeconds(1)).transform(reactiveMetrics.flux("stream"));
     }
 }
\ No newline at end of file
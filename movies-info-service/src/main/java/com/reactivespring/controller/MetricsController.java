@@ -0,0 +1,61 @@
+package com.reactivespring.controller;
+
+import com.reactivespring.cache.CacheStats;
+import com.reactivespring.cache.MovieInfoCache;
+import com.reactivespring.metrics.ReactiveMetrics;
+import com.reactivespring.metrics.RouteMetricsSnapshot;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/v1/metrics")
+public class MetricsController {
+
+    private ReactiveMetrics reactiveMetrics;
+    private MovieInfoCache movieInfoCache;
+
+    public MetricsController(ReactiveMetrics reactiveMetrics, MovieInfoCache movieInfoCache) {
+        this.reactiveMetrics = reactiveMetrics;
+        this.movieInfoCache = movieInfoCache;
+    }
+
+    @GetMapping("/routes")
+    public Flux<RouteMetricsSnapshot> getRouteMetrics() {
+        return Flux.fromIterable(reactiveMetrics.snapshot());
+    }
+
+    @GetMapping("/cache")
+    public Mono<CacheStats> getCacheStats() {
+        return Mono.fromSupplier(movieInfoCache::stats);
+    }
+
+    @GetMapping("/settings")
+    public Mono<Map<String, Object>> getSettings() {
+        return Mono.fromSupplier(this::settings);
+    }
+
+    @PutMapping("/settings")
+    public Mono<ResponseEntity<Map<String, Object>>> updateSettings(
+            @RequestParam(value = "debugLogging", required = false) Boolean debugLogging,
+            @RequestParam(value = "sampleRate", required = false) Double sampleRate) {
+        if (sampleRate != null && (sampleRate < 0.0 || sampleRate > 1.0)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (sampleRate != null) {
+            reactiveMetrics.setSampleRate(sampleRate);
+        }
+        if (debugLogging != null) {
+            reactiveMetrics.setDebugLogging(debugLogging);
+        }
+        return Mono.just(ResponseEntity.ok(settings()));
+    }
+
+    private Map<String, Object> settings() {
+        return Map.of("debugLogging", reactiveMetrics.isDebugLogging(),
+                "sampleRate", reactiveMetrics.getSampleRate());
+    }
+}
@@ -0,0 +1,33 @@
+package com.reactivespring.controller;
+
+import com.reactivespring.domain.BulkResult;
+import com.reactivespring.metrics.ReactiveMetrics;
+import com.reactivespring.service.MovieInfoBulkService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/v1")
+public class MovieInfoBulkController {
+
+    private MovieInfoBulkService movieInfoBulkService;
+    private ReactiveMetrics reactiveMetrics;
+
+    public MovieInfoBulkController(MovieInfoBulkService movieInfoBulkService, ReactiveMetrics reactiveMetrics) {
+        this.movieInfoBulkService = movieInfoBulkService;
+        this.reactiveMetrics = reactiveMetrics;
+    }
+
+    @PostMapping(value = "/movieinfos/bulk",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkResult> bulkAddMovieInfos(@RequestBody Flux<String> lines) {
+        // decoded line by line in the service, so one malformed line does not end the stream
+        return movieInfoBulkService.bulkAddMovieInfos(lines)
+                .transform(reactiveMetrics.flux("bulkAddMovieInfos"));
+    }
+}
@@ -1,34 +1,123 @@
 package com.reactivespring.controller;
 
 import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoEvent;
+import com.reactivespring.exception.MovieInfoDataException;
+import com.reactivespring.metrics.ReactiveMetrics;
+import com.reactivespring.service.MovieInfoProjection;
+import com.reactivespring.service.MovieInfoSearch;
 import com.reactivespring.service.MoviesInfoService;
-import jakarta.validation.Valid;
+import com.reactivespring.validation.MovieInfoValidator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/v1")
 @Slf4j
 public class MoviesInfoController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int MAX_PAGE_SIZE = 1000;
+
     private MoviesInfoService moviesInfoService;
+    private ReactiveMetrics reactiveMetrics;
 
-    public MoviesInfoController(MoviesInfoService moviesInfoService) {
+    public MoviesInfoController(MoviesInfoService moviesInfoService, ReactiveMetrics reactiveMetrics) {
         this.moviesInfoService = moviesInfoService;
+        this.reactiveMetrics = reactiveMetrics;
     }
 
     @GetMapping("/movieinfos")
-    public Flux<MovieInfo> getAllMovieInfos(@RequestParam(value = "year", required = false) Integer year) {
-        log.info("Year is : {}", year);
+    public Flux<MovieInfo> getAllMovieInfos(@RequestParam(value = "year", required = false) Integer year,
+                                            @RequestParam(value = "fromYear", required = false) Integer fromYear,
+                                            @RequestParam(value = "toYear", required = false) Integer toYear,
+                                            @RequestParam(value = "cast", required = false) String cast) {
+        log.debug("Year is : {}", year);
 
-        if (year != null) {
-            return moviesInfoService.getMovieInfoByYear(year).log();
+        var search = new MovieInfoSearch(year, fromYear, toYear, cast);
+        if (search.isFiltered()) {
+            return moviesInfoService.searchMovieInfos(search, null, null)
+                    .transform(reactiveMetrics.flux("searchMovieInfos"));
         }
-        return moviesInfoService.getAllMovieInfos().log();
+        return moviesInfoService.getAllMovieInfos()
+                .transform(reactiveMetrics.flux("getAllMovieInfos"));
+    }
+
+    @GetMapping(value = "/movieinfos", params = {"fields", "!limit"})
+    public Flux<Map<String, Object>> getAllMovieInfos(@RequestParam(value = "year", required = false) Integer year,
+                                                      @RequestParam(value = "fromYear", required = false) Integer fromYear,
+                                                      @RequestParam(value = "toYear", required = false) Integer toYear,
+                                                      @RequestParam(value = "cast", required = false) String cast,
+                                                      @RequestParam("fields") String fields) {
+        var search = new MovieInfoSearch(year, fromYear, toYear, cast);
+        return Mono.fromCallable(() -> MovieInfoProjection.parse(fields))
+                .flatMapMany(projection -> moviesInfoService.getMovieInfos(search, projection))
+                .transform(reactiveMetrics.flux("getMovieInfosProjected"));
+    }
+
+    @GetMapping(value = "/movieinfos", params = "limit")
+    public Mono<ResponseEntity<List<MovieInfo>>> getMovieInfosPage(@RequestParam("limit") Integer limit,
+                                                                   @RequestParam(value = "after", required = false) String after,
+                                                                   @RequestParam(value = "year", required = false) Integer year,
+                                                                   @RequestParam(value = "fromYear", required = false) Integer fromYear,
+                                                                   @RequestParam(value = "toYear", required = false) Integer toYear,
+                                                                   @RequestParam(value = "cast", required = false) String cast,
+                                                                   @RequestParam(value = "fields", required = false) String fields) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        if (fields != null) {
+            // the next cursor is built from fields a projection may leave out
+            return Mono.error(new MovieInfoDataException("movieInfo.fields must not be combined with limit"));
+        }
+        var search = new MovieInfoSearch(year, fromYear, toYear, cast);
+        var pageFlux = search.isFiltered()
+                ? moviesInfoService.searchMovieInfos(search, after, limit)
+                : moviesInfoService.getMovieInfosPage(after, limit);
+        return pageFlux
+                .collectList()
+                .map(page -> {
+                    var response = ResponseEntity.ok();
+                    if (page.size() == limit) {
+                        var last = page.get(page.size() - 1);
+                        response.header(NEXT_CURSOR_HEADER, search.isFiltered() ? search.cursorOf(last) : last.getMovieInfoId());
+                    }
+                    return response.body(page);
+                })
+                .transform(reactiveMetrics.mono("getMovieInfosPage"));
+    }
+
+    @GetMapping(value = "/movieinfos", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MovieInfo> streamAllMovieInfos(@RequestParam(value = "after", required = false) String after,
+                                               @RequestParam(value = "year", required = false) Integer year,
+                                               @RequestParam(value = "fromYear", required = false) Integer fromYear,
+                                               @RequestParam(value = "toYear", required = false) Integer toYear,
+                                               @RequestParam(value = "cast", required = false) String cast) {
+        var search = new MovieInfoSearch(year, fromYear, toYear, cast);
+        var movieInfoFlux = search.isFiltered()
+                ? moviesInfoService.searchMovieInfos(search, after, null)
+                : moviesInfoService.streamAllMovieInfos(after);
+        return movieInfoFlux
+                .transform(reactiveMetrics.flux("streamAllMovieInfos"));
+    }
+
+    @GetMapping(value = "/movieinfos/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<MovieInfoEvent>> getMovieInfoChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return moviesInfoService.getMovieInfoChanges(lastEventId)
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(String.valueOf(event.getSequence()))
+                        .event(event.getType().name())
+                        .build());
     }
 
     @GetMapping("/movieinfos/{id}")
@@ -36,13 +125,29 @@ public class MoviesInfoController {
         return moviesInfoService.getMovieInfoById(id)
                 .map(ResponseEntity.ok()::body)
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()))
-                .log();
+                .transform(reactiveMetrics.mono("getMovieInfoById"));
+    }
+
+    @GetMapping(value = "/movieinfos/{id}", params = "fields")
+    public Mono<ResponseEntity<Map<String, Object>>> getMovieInfoById(@PathVariable String id,
+                                                                      @RequestParam("fields") String fields) {
+        return Mono.fromCallable(() -> MovieInfoProjection.parse(fields))
+                .flatMap(projection -> moviesInfoService.getMovieInfoById(id, projection))
+                .map(ResponseEntity.ok()::body)
+                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()))
+                .transform(reactiveMetrics.mono("getMovieInfoByIdProjected"));
     }
 
     @PostMapping("/movieinfos")
     @ResponseStatus(HttpStatus.CREATED)
-    public Mono<MovieInfo> addMovieInfo(@RequestBody @Valid MovieInfo movieInfo) {
-        return moviesInfoService.addMovieInfo(movieInfo).log();
+    public Mono<MovieInfo> addMovieInfo(@RequestBody MovieInfo movieInfo) {
+        var errors = MovieInfoValidator.validate(movieInfo);
+        if (!errors.isEmpty()) {
+            return Mono.<MovieInfo>error(new MovieInfoDataException(String.join(",", errors)))
+                    .transform(reactiveMetrics.mono("addMovieInfo"));
+        }
+        return moviesInfoService.addMovieInfo(movieInfo)
+                .transform(reactiveMetrics.mono("addMovieInfo"));
     }
 
     @PutMapping("/movieinfos/{id}")
@@ -50,12 +155,21 @@ public class MoviesInfoController {
         return moviesInfoService.updateMovieInfo(updatedMovieInfo, id)
                 .map(ResponseEntity.ok()::body) // method refrenece
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()))
-                .log();
+                .transform(reactiveMetrics.mono("updateMovieInfo"));
+    }
+
+    @PatchMapping("/movieinfos/{id}")
+    public Mono<ResponseEntity<MovieInfo>> patchMovieInfo(@RequestBody MovieInfo patch, @PathVariable String id) {
+        return moviesInfoService.patchMovieInfo(patch, id)
+                .map(ResponseEntity.ok()::body)
+                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()))
+                .transform(reactiveMetrics.mono("patchMovieInfo"));
     }
 
     @DeleteMapping("/movieinfos/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public Mono<Void> deleteMovieInfo(@PathVariable String id) {
-        return moviesInfoService.deleteMovieInfo(id).log();
+        return moviesInfoService.deleteMovieInfo(id)
+                .transform(reactiveMetrics.mono("deleteMovieInfo"));
     }
 }
@@ -0,0 +1,18 @@
+package com.reactivespring.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResult {
+
+    private Long batch;
+    private Integer accepted;
+    private Integer rejected;
+    private List<String> errors;
+}
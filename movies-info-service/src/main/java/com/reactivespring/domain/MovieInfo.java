@@ -7,6 +7,10 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -16,14 +20,28 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document
+@CompoundIndexes({
+        @CompoundIndex(name = "year_name", def = "{'year': 1, 'name': 1}"),
+        @CompoundIndex(name = "year_id", def = "{'year': 1, '_id': 1}"),
+        // multikey, one index entry per cast member
+        @CompoundIndex(name = "cast_year_id", def = "{'cast': 1, 'year': 1, '_id': 1}")
+})
 public class MovieInfo {
     @Id
     private String movieInfoId;
     @NotBlank(message = "moiveInfo.name must be present")
+    @Indexed(name = "name")
     private String name;
     @NotNull
     @Positive(message = "movieInfo.year must be a Positive value")
+    @Indexed(name = "year")
     private Integer year;
     private List<@NotBlank(message = "moiveInfo.cast must be present") String> cast;
     private LocalDate released_date;
+    @Version
+    private Long version;
+
+    public MovieInfo(String movieInfoId, String name, Integer year, List<String> cast, LocalDate released_date) {
+        this(movieInfoId, name, year, cast, released_date, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.reactivespring.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieInfoEvent {
+
+    public enum Type { INSERT, UPDATE, DELETE }
+
+    private Long sequence;
+    private Type type;
+    private String movieInfoId;
+    // null for deletes
+    private MovieInfo movieInfo;
+}
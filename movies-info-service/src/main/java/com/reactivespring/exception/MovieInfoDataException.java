@@ -0,0 +1,14 @@
+package com.reactivespring.exception;
+
+/**
+ * Stackless: it reports bad client input, where a stack trace is never looked at but is
+ * expensive to capture when a client floods invalid requests.
+ */
+public class MovieInfoDataException extends RuntimeException {
+    private String message;
+
+    public MovieInfoDataException(String message) {
+        super(message, null, false, false);
+        this.message = message;
+    }
+}
@@ -1,5 +1,7 @@
 package com.reactivespring.exceptionhandler;
 
+import com.reactivespring.exception.MovieInfoConflictException;
+import com.reactivespring.exception.MovieInfoDataException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpStatus;
@@ -24,4 +26,16 @@ public class GlobalErrorHandler {
         log.error("Error is : {}", error);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
+
+    @ExceptionHandler(MovieInfoDataException.class)
+    public ResponseEntity<String> handleMovieInfoDataException(MovieInfoDataException ex) {
+        log.error("Exception Caught in handleMovieInfoDataException: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(MovieInfoConflictException.class)
+    public ResponseEntity<String> handleMovieInfoConflictException(MovieInfoConflictException ex) {
+        log.error("Exception Caught in handleMovieInfoConflictException: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
 }
@@ -0,0 +1,103 @@
+package com.reactivespring.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+/**
+ * Sampled per-route instrumentation used in place of an unconditional {@code .log()}.
+ * <p>
+ * The sampling decision is taken once per request at assembly time, so unsampled requests
+ * get the original publisher back with no extra operators. Signal-level logging is off by
+ * default and can be switched on at runtime through {@link #setDebugLogging(boolean)}.
+ */
+@Component
+@Slf4j
+public class ReactiveMetrics {
+
+    private final ConcurrentHashMap<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final AtomicBoolean debugLogging;
+    private volatile double sampleRate;
+
+    public ReactiveMetrics(@Value("${movieinfo.metrics.sample-rate:1.0}") double sampleRate,
+                           @Value("${movieinfo.metrics.debug-logging:false}") boolean debugLogging) {
+        this.sampleRate = sampleRate;
+        this.debugLogging = new AtomicBoolean(debugLogging);
+    }
+
+    public <T> Function<Flux<T>, Flux<T>> flux(String route) {
+        return flux -> {
+            var instrumented = sampled() ? timed(flux, metricsFor(route)) : flux;
+            return debugLogging.get() ? instrumented.log(route, Level.INFO) : instrumented;
+        };
+    }
+
+    public <T> Function<Mono<T>, Mono<T>> mono(String route) {
+        return mono -> {
+            var instrumented = sampled() ? timed(mono.flux(), metricsFor(route)).singleOrEmpty() : mono;
+            return debugLogging.get() ? instrumented.log(route, Level.INFO) : instrumented;
+        };
+    }
+
+    private <T> Flux<T> timed(Flux<T> source, RouteMetrics metrics) {
+        return Flux.defer(() -> {
+            var start = System.nanoTime();
+            return source
+                    .doOnNext(t -> metrics.recordElement())
+                    .doOnComplete(() -> metrics.recordComplete(elapsedMs(start)))
+                    .doOnError(ex -> metrics.recordError(elapsedMs(start)))
+                    .doOnCancel(() -> metrics.recordCancel(elapsedMs(start)));
+        });
+    }
+
+    private boolean sampled() {
+        var rate = sampleRate;
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private RouteMetrics metricsFor(String route) {
+        return routes.computeIfAbsent(route, RouteMetrics::new);
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    public List<RouteMetricsSnapshot> snapshot() {
+        return routes.values().stream()
+                .map(RouteMetrics::snapshot)
+                .sorted(Comparator.comparing(RouteMetricsSnapshot::getRoute))
+                .collect(Collectors.toList());
+    }
+
+    public boolean isDebugLogging() {
+        return debugLogging.get();
+    }
+
+    public void setDebugLogging(boolean enabled) {
+        log.info("Signal level logging switched {}", enabled ? "on" : "off");
+        debugLogging.set(enabled);
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        if (sampleRate < 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("sampleRate must be between 0.0 and 1.0");
+        }
+        this.sampleRate = sampleRate;
+    }
+}
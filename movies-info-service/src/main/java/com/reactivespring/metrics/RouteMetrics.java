@@ -0,0 +1,73 @@
+package com.reactivespring.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counters for a single route. Latencies go into fixed millisecond buckets
+ * so recording a sample is one array increment, no matter how many requests we see.
+ */
+public class RouteMetrics {
+
+    static final long[] LATENCY_BUCKETS_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final String route;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder elements = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder cancellations = new LongAdder();
+    private final LongAdder totalLatencyMs = new LongAdder();
+    // one extra slot for everything above the last bucket
+    private final AtomicLongArray latencyHistogram = new AtomicLongArray(LATENCY_BUCKETS_MS.length + 1);
+
+    public RouteMetrics(String route) {
+        this.route = route;
+    }
+
+    void recordElement() {
+        elements.increment();
+    }
+
+    void recordComplete(long latencyMs) {
+        record(latencyMs);
+    }
+
+    void recordError(long latencyMs) {
+        errors.increment();
+        record(latencyMs);
+    }
+
+    void recordCancel(long latencyMs) {
+        cancellations.increment();
+        record(latencyMs);
+    }
+
+    private void record(long latencyMs) {
+        requests.increment();
+        totalLatencyMs.add(latencyMs);
+        latencyHistogram.incrementAndGet(bucketOf(latencyMs));
+    }
+
+    static int bucketOf(long latencyMs) {
+        for (int i = 0; i < LATENCY_BUCKETS_MS.length; i++) {
+            if (latencyMs <= LATENCY_BUCKETS_MS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BUCKETS_MS.length;
+    }
+
+    public RouteMetricsSnapshot snapshot() {
+        var histogram = new LinkedHashMap<String, Long>();
+        for (int i = 0; i < LATENCY_BUCKETS_MS.length; i++) {
+            histogram.put("le_" + LATENCY_BUCKETS_MS[i] + "ms", latencyHistogram.get(i));
+        }
+        histogram.put("gt_" + LATENCY_BUCKETS_MS[LATENCY_BUCKETS_MS.length - 1] + "ms",
+                latencyHistogram.get(LATENCY_BUCKETS_MS.length));
+
+        var sampled = requests.sum();
+        return new RouteMetricsSnapshot(route, sampled, elements.sum(), errors.sum(), cancellations.sum(),
+                sampled == 0 ? 0 : totalLatencyMs.sum() / sampled, histogram);
+    }
+}
@@ -0,0 +1,21 @@
+package com.reactivespring.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteMetricsSnapshot {
+
+    private String route;
+    private Long sampledRequests;
+    private Long elements;
+    private Long errors;
+    private Long cancellations;
+    private Long meanLatencyMs;
+    private Map<String, Long> latencyHistogram;
+}
@@ -0,0 +1,91 @@
+package com.reactivespring.repository;
+
+import com.reactivespring.domain.MovieInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Creates the indexes declared on {@link MovieInfo} once the application is up and checks
+ * that every one of them exists afterwards. Automatic index creation stays off, so this is
+ * the only place where indexes for the collection are managed.
+ */
+@Component
+@Slf4j
+public class MovieInfoIndexes {
+
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+    private MongoMappingContext mongoMappingContext;
+    private boolean uniqueName;
+
+    public MovieInfoIndexes(ReactiveMongoTemplate reactiveMongoTemplate,
+                            MongoMappingContext mongoMappingContext,
+                            @Value("${movieinfo.indexes.unique-name:false}") boolean uniqueName) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.mongoMappingContext = mongoMappingContext;
+        this.uniqueName = uniqueName;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureIndexes().subscribe(
+                names -> log.info("MovieInfo indexes verified : {}", names),
+                ex -> log.error("Exception Caught in ensureIndexes : {}", ex.getMessage(), ex));
+    }
+
+    public Mono<Set<String>> ensureIndexes() {
+        var indexOps = reactiveMongoTemplate.indexOps(MovieInfo.class);
+        var definitions = declaredIndexes();
+        var expected = definitions.stream()
+                .map(definition -> definition.getIndexOptions().getString("name"))
+                .collect(Collectors.toSet());
+
+        return Flux.fromIterable(definitions)
+                .concatMap(indexOps::ensureIndex)
+                .thenMany(indexOps.getIndexInfo())
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet())
+                .flatMap(existing -> existing.containsAll(expected)
+                        ? Mono.just(existing)
+                        : Mono.error(new IllegalStateException("Missing MovieInfo indexes, expected : " + expected + " found : " + existing)));
+    }
+
+    private List<IndexDefinition> declaredIndexes() {
+        var resolver = new MongoPersistentEntityIndexResolver(mongoMappingContext);
+        return StreamSupport.stream(resolver.resolveIndexFor(MovieInfo.class).spliterator(), false)
+                .map(definition -> uniqueName && "name".equals(definition.getIndexOptions().getString("name"))
+                        ? unique(definition)
+                        : (IndexDefinition) definition)
+                .collect(Collectors.toList());
+    }
+
+    private static IndexDefinition unique(IndexDefinition definition) {
+        var options = new Document(definition.getIndexOptions()).append("unique", true);
+        return new IndexDefinition() {
+            @Override
+            public Document getIndexKeys() {
+                return definition.getIndexKeys();
+            }
+
+            @Override
+            public Document getIndexOptions() {
+                return options;
+            }
+        };
+    }
+}
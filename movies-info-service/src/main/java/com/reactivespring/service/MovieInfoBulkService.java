@@ -0,0 +1,159 @@
+package com.reactivespring.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.reactivespring.domain.BulkResult;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.validation.MovieInfoValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams an unbounded sequence of {@link MovieInfo} NDJSON lines into Mongo as unordered bulk inserts.
+ * <p>
+ * Each line is decoded and validated on its own as it arrives, so a malformed or invalid line
+ * is reported as an error of that record while the rest of the stream goes on. Records are grouped into batches of at most {@code batchSize}
+ * records or {@code maxWait}, and at most {@code concurrency} batches are written at a time.
+ * Demand on the request body follows the writes, so the input never has to fit in memory.
+ * Every stored record is published to the {@link MovieInfoChangeFeed}; ids are assigned before
+ * the insert so the published events carry them.
+ */
+@Service
+@Slf4j
+public class MovieInfoBulkService {
+
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+    private MovieInfoChangeFeed movieInfoChangeFeed;
+    private ObjectMapper objectMapper;
+    private int batchSize;
+    private Duration maxWait;
+    private int concurrency;
+
+    public MovieInfoBulkService(ReactiveMongoTemplate reactiveMongoTemplate,
+                                MovieInfoChangeFeed movieInfoChangeFeed,
+                                ObjectMapper objectMapper,
+                                @Value("${movieinfo.bulk.batch-size:500}") int batchSize,
+                                @Value("${movieinfo.bulk.max-wait:1s}") Duration maxWait,
+                                @Value("${movieinfo.bulk.concurrency:4}") int concurrency) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.movieInfoChangeFeed = movieInfoChangeFeed;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxWait = maxWait;
+        this.concurrency = concurrency;
+    }
+
+    public Flux<BulkResult> bulkAddMovieInfos(Flux<String> lines) {
+        var batchNumber = new AtomicLong();
+        return lines
+                .filter(line -> !line.isBlank())
+                .index(this::decode)
+                .bufferTimeout(batchSize, maxWait, true)
+                .flatMapSequential(batch -> writeBatch(batchNumber.incrementAndGet(), batch), concurrency);
+    }
+
+    private BulkRecord decode(long position, String line) {
+        MovieInfo movieInfo;
+        try {
+            movieInfo = objectMapper.readValue(line, MovieInfo.class);
+        } catch (JsonProcessingException e) {
+            return BulkRecord.rejected(position, "malformed JSON : " + e.getOriginalMessage());
+        }
+        if (movieInfo == null) {
+            return BulkRecord.rejected(position, "malformed JSON : not an object");
+        }
+        var violations = MovieInfoValidator.validate(movieInfo);
+        if (!violations.isEmpty()) {
+            return BulkRecord.rejected(position, String.join(",", violations));
+        }
+        if (movieInfo.getMovieInfoId() == null) {
+            movieInfo.setMovieInfoId(new ObjectId().toHexString());
+        }
+        return new BulkRecord(position, movieInfo, null);
+    }
+
+    private Mono<BulkResult> writeBatch(long batch, List<BulkRecord> records) {
+        var valid = new ArrayList<MovieInfo>(records.size());
+        var validPositions = new ArrayList<Long>(records.size());
+        var errors = new ArrayList<String>();
+        for (var record : records) {
+            if (record.error == null) {
+                valid.add(record.movieInfo);
+                validPositions.add(record.position);
+            } else {
+                errors.add("record " + record.position + " : " + record.error);
+            }
+        }
+        var invalid = errors.size();
+
+        if (valid.isEmpty()) {
+            return Mono.just(new BulkResult(batch, 0, invalid, errors));
+        }
+        return reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MovieInfo.class)
+                .insert(valid)
+                .execute()
+                .doOnNext(result -> valid.forEach(movieInfoChangeFeed::publishInsert))
+                .map(result -> new BulkResult(batch, result.getInsertedCount(), invalid, errors))
+                .onErrorResume(ex -> {
+                    log.error("Exception Caught in writeBatch {} : {}", batch, ex.getMessage());
+                    var bulkWriteException = findBulkWriteException(ex);
+                    if (bulkWriteException == null) {
+                        errors.add(ex.getMessage());
+                        return Mono.just(new BulkResult(batch, 0, invalid + valid.size(), errors));
+                    }
+                    var failed = new HashSet<Integer>();
+                    bulkWriteException.getWriteErrors().forEach(error -> {
+                        failed.add(error.getIndex());
+                        errors.add("record " + validPositions.get(error.getIndex()) + " : " + error.getMessage());
+                    });
+                    // unordered: everything without a write error of its own was inserted
+                    for (var i = 0; i < valid.size(); i++) {
+                        if (!failed.contains(i)) {
+                            movieInfoChangeFeed.publishInsert(valid.get(i));
+                        }
+                    }
+                    var inserted = bulkWriteException.getWriteResult().getInsertedCount();
+                    return Mono.just(new BulkResult(batch, inserted, invalid + valid.size() - inserted, errors));
+                });
+    }
+
+    private static MongoBulkWriteException findBulkWriteException(Throwable ex) {
+        for (var cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulkWriteException) {
+                return bulkWriteException;
+            }
+        }
+        return null;
+    }
+
+    // one NDJSON line: the record to insert, or why it was rejected
+    private static class BulkRecord {
+
+        private final long position;
+        private final MovieInfo movieInfo;
+        private final String error;
+
+        BulkRecord(long position, MovieInfo movieInfo, String error) {
+            this.position = position;
+            this.movieInfo = movieInfo;
+            this.error = error;
+        }
+
+        static BulkRecord rejected(long position, String error) {
+            return new BulkRecord(position, null, error);
+        }
+    }
+}
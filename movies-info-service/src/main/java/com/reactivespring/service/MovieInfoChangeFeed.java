@@ -0,0 +1,86 @@
+package com.reactivespring.service;
+
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single shared multicast of {@link MovieInfoEvent}s for every change-feed subscriber.
+ * <p>
+ * The sink keeps the last {@code replaySize} events so a client can resume after a given
+ * sequence number. Every subscriber drains the sink into its own buffer of
+ * {@code subscriberBufferSize} events, and the configured {@link OverflowPolicy} decides what
+ * happens when that buffer is full, so a slow client never holds back the sink or the others.
+ */
+@Component
+@Slf4j
+public class MovieInfoChangeFeed {
+
+    public enum OverflowPolicy { DROP_OLDEST, DROP_LATEST, DISCONNECT }
+
+    private final Sinks.Many<MovieInfoEvent> sink;
+    // seeded from the clock so sequence numbers keep growing across restarts
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final int subscriberBufferSize;
+    private final OverflowPolicy overflowPolicy;
+
+    public MovieInfoChangeFeed(@Value("${movieinfo.changes.replay-size:1000}") int replaySize,
+                               @Value("${movieinfo.changes.subscriber-buffer-size:256}") int subscriberBufferSize,
+                               @Value("${movieinfo.changes.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy) {
+        this.sink = Sinks.many().replay().limit(replaySize);
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void publishInsert(MovieInfo movieInfo) {
+        publish(MovieInfoEvent.Type.INSERT, movieInfo.getMovieInfoId(), movieInfo);
+    }
+
+    public void publishUpdate(MovieInfo movieInfo) {
+        publish(MovieInfoEvent.Type.UPDATE, movieInfo.getMovieInfoId(), movieInfo);
+    }
+
+    public void publishDelete(String movieInfoId) {
+        publish(MovieInfoEvent.Type.DELETE, movieInfoId, null);
+    }
+
+    // serialized so sequence numbers reach the sink in order
+    private synchronized void publish(MovieInfoEvent.Type type, String movieInfoId, MovieInfo movieInfo) {
+        var result = sink.tryEmitNext(new MovieInfoEvent(sequence.incrementAndGet(), type, movieInfoId, movieInfo));
+        if (result.isFailure()) {
+            log.warn("Change event for {} not published : {}", movieInfoId, result);
+        }
+    }
+
+    /**
+     * Live events, preceded by the replayed events after {@code lastSequence} when it is given.
+     */
+    public Flux<MovieInfoEvent> changes(Long lastSequence) {
+        return Flux.defer(() -> {
+            var after = lastSequence != null ? lastSequence : sequence.get();
+            return sink.asFlux()
+                    .filter(event -> event.getSequence() > after)
+                    .onBackpressureBuffer(subscriberBufferSize,
+                            event -> log.debug("Change event {} dropped for a slow subscriber", event.getSequence()),
+                            bufferOverflowStrategy());
+        });
+    }
+
+    private BufferOverflowStrategy bufferOverflowStrategy() {
+        switch (overflowPolicy) {
+            case DROP_LATEST:
+                return BufferOverflowStrategy.DROP_LATEST;
+            case DISCONNECT:
+                return BufferOverflowStrategy.ERROR;
+            default:
+                return BufferOverflowStrategy.DROP_OLDEST;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.reactivespring.service;
+
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.exception.MovieInfoDataException;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A {@code fields=} selection of {@link MovieInfo} properties. It is applied as a Mongo
+ * projection and then used to encode only the selected properties. {@code movieInfoId}
+ * is always included.
+ */
+public class MovieInfoProjection {
+
+    private static final Map<String, Function<MovieInfo, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("movieInfoId", MovieInfo::getMovieInfoId);
+        FIELDS.put("name", MovieInfo::getName);
+        FIELDS.put("year", MovieInfo::getYear);
+        FIELDS.put("cast", MovieInfo::getCast);
+        FIELDS.put("released_date", MovieInfo::getReleased_date);
+        FIELDS.put("version", MovieInfo::getVersion);
+    }
+
+    private final Set<String> fields;
+
+    private MovieInfoProjection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static MovieInfoProjection parse(String fields) {
+        var selected = new LinkedHashSet<String>();
+        selected.add("movieInfoId");
+        Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .forEach(selected::add);
+
+        var unknown = selected.stream()
+                .filter(field -> !FIELDS.containsKey(field))
+                .sorted()
+                .collect(Collectors.toList());
+        if (!unknown.isEmpty()) {
+            throw new MovieInfoDataException("movieInfo.fields unknown : " + String.join(",", unknown));
+        }
+        return new MovieInfoProjection(selected);
+    }
+
+    public Query applyTo(Query query) {
+        fields.forEach(field -> query.fields().include(field));
+        return query;
+    }
+
+    public Map<String, Object> toMap(MovieInfo movieInfo) {
+        var values = new LinkedHashMap<String, Object>();
+        fields.forEach(field -> values.put(field, FIELDS.get(field).apply(movieInfo)));
+        return values;
+    }
+
+    public List<String> getFields() {
+        return List.copyOf(fields);
+    }
+}
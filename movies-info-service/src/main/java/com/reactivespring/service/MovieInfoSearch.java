@@ -0,0 +1,88 @@
+package com.reactivespring.service;
+
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.exception.MovieInfoDataException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+
+/**
+ * Year-range and cast-member filter for {@link MovieInfo} lookups. A single {@code year} is
+ * the range {@code year..year}; it cannot be combined with {@code fromYear}/{@code toYear}.
+ * <p>
+ * Results are ordered by {@code (year, movieInfoId)}, which is the order of the
+ * {@code year_id} and {@code cast_year_id} indexes, so Mongo returns matches straight
+ * from the index without a sort stage. Cursors have the form {@code <year>:<movieInfoId>}.
+ */
+public class MovieInfoSearch {
+
+    private final Integer fromYear;
+    private final Integer toYear;
+    private final String cast;
+
+    public MovieInfoSearch(Integer year, Integer fromYear, Integer toYear, String cast) {
+        if (year != null && (fromYear != null || toYear != null)) {
+            throw new MovieInfoDataException("movieInfo.year must not be combined with fromYear or toYear");
+        }
+        if (year != null) {
+            fromYear = year;
+            toYear = year;
+        }
+        if (fromYear != null && toYear != null && fromYear > toYear) {
+            throw new MovieInfoDataException("movieInfo.fromYear must not be after toYear");
+        }
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.cast = cast;
+    }
+
+    public boolean isFiltered() {
+        return fromYear != null || toYear != null || cast != null;
+    }
+
+    public Query toQuery(String after, Integer limit) {
+        var criteria = new ArrayList<Criteria>();
+        if (cast != null) {
+            criteria.add(Criteria.where("cast").is(cast));
+        }
+        if (fromYear != null || toYear != null) {
+            var year = Criteria.where("year");
+            if (fromYear != null) {
+                year = year.gte(fromYear);
+            }
+            if (toYear != null) {
+                year = year.lte(toYear);
+            }
+            criteria.add(year);
+        }
+        if (after != null) {
+            criteria.add(afterCursor(after));
+        }
+
+        var query = new Query(new Criteria().andOperator(criteria))
+                .with(Sort.by(Sort.Direction.ASC, "year", "movieInfoId"));
+        if (limit != null) {
+            query.limit(limit);
+        }
+        return query;
+    }
+
+    public String cursorOf(MovieInfo movieInfo) {
+        return movieInfo.getYear() + ":" + movieInfo.getMovieInfoId();
+    }
+
+    private static Criteria afterCursor(String after) {
+        var separator = after.indexOf(':');
+        try {
+            var year = Integer.valueOf(after.substring(0, separator));
+            var movieInfoId = after.substring(separator + 1);
+            return new Criteria().orOperator(
+                    Criteria.where("year").gt(year),
+                    new Criteria().andOperator(Criteria.where("year").is(year), Criteria.where("movieInfoId").gt(movieInfoId)));
+        } catch (IndexOutOfBoundsException | NumberFormatException ex) {
+            throw new MovieInfoDataException("movieInfo.after is not a valid cursor : " + after);
+        }
+    }
+}
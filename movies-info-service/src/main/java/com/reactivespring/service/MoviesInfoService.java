@@ -1,48 +1,195 @@
 package com.reactivespring.service;
 
+import com.reactivespring.cache.MovieInfoCache;
 import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoEvent;
+import com.reactivespring.exception.MovieInfoConflictException;
+import com.reactivespring.exception.MovieInfoDataException;
 import com.reactivespring.repository.MovieInfoRepository;
+import com.reactivespring.validation.MovieInfoValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
+
 @Service
 public class MoviesInfoService {
 
     private MovieInfoRepository movieInfoRepository;
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+    private MovieInfoCache movieInfoCache;
+    private MovieInfoChangeFeed movieInfoChangeFeed;
+    private int streamBatchSize;
 
-    public MoviesInfoService(MovieInfoRepository movieInfoRepository) {
+    public MoviesInfoService(MovieInfoRepository movieInfoRepository,
+                             ReactiveMongoTemplate reactiveMongoTemplate,
+                             MovieInfoCache movieInfoCache,
+                             MovieInfoChangeFeed movieInfoChangeFeed,
+                             @Value("${movieinfo.stream.batch-size:500}") int streamBatchSize) {
         this.movieInfoRepository = movieInfoRepository;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.movieInfoCache = movieInfoCache;
+        this.movieInfoChangeFeed = movieInfoChangeFeed;
+        this.streamBatchSize = streamBatchSize;
     }
 
+    /**
+     * Always inserts: a client-supplied {@code movieInfoId} that is already taken is a
+     * {@link MovieInfoConflictException}, and any version sent along is ignored.
+     */
     public Mono<MovieInfo> addMovieInfo(MovieInfo movieInfo) {
-        return movieInfoRepository.save(movieInfo);
+        movieInfo.setVersion(null);
+        return movieInfoRepository.insert(movieInfo)
+                .onErrorMap(DuplicateKeyException.class,
+                        ex -> new MovieInfoConflictException("MovieInfo " + movieInfo.getMovieInfoId() + " already exists"))
+                .doOnNext(movieInfoChangeFeed::publishInsert);
     }
 
     public Flux<MovieInfo> getAllMovieInfos() {
         return movieInfoRepository.findAll();
     }
 
+    /**
+     * Keyset page ordered by {@code movieInfoId}; pass the last id of the previous page as {@code after}.
+     */
+    public Flux<MovieInfo> getMovieInfosPage(String after, int limit) {
+        if (after == null) {
+            return movieInfoRepository.findAllByOrderByMovieInfoIdAsc(Limit.of(limit));
+        }
+        return movieInfoRepository.findByMovieInfoIdGreaterThanOrderByMovieInfoIdAsc(after, Limit.of(limit));
+    }
+
+    /**
+     * Streams the whole catalog in {@code movieInfoId} order. Demand is requested from the
+     * cursor one batch at a time, so only about one cursor batch is held in memory.
+     */
+    public Flux<MovieInfo> streamAllMovieInfos(String after) {
+        var query = after == null ? new Query() : new Query(Criteria.where("movieInfoId").gt(after));
+        query.with(Sort.by(Sort.Direction.ASC, "movieInfoId"))
+                .cursorBatchSize(streamBatchSize);
+        return reactiveMongoTemplate.find(query, MovieInfo.class)
+                .limitRate(streamBatchSize);
+    }
+
+    /**
+     * Year-range / cast-member lookup in index order. Without a {@code limit} the matches are
+     * streamed with the same cursor batching as {@link #streamAllMovieInfos(String)}.
+     */
+    public Flux<MovieInfo> searchMovieInfos(MovieInfoSearch search, String after, Integer limit) {
+        var query = search.toQuery(after, limit).cursorBatchSize(streamBatchSize);
+        return reactiveMongoTemplate.find(query, MovieInfo.class)
+                .limitRate(streamBatchSize);
+    }
+
     public Mono<MovieInfo> getMovieInfoById(String id) {
-        return movieInfoRepository.findById(id);
+        return movieInfoCache.get(id, movieInfoRepository::findById);
     }
 
     public Mono<MovieInfo> updateMovieInfo(MovieInfo updatedMovieInfo, String id) {
-        return movieInfoRepository.findById(id)
-                .flatMap(movieInfo -> {
-                    movieInfo.setCast(updatedMovieInfo.getCast());
-                    movieInfo.setName(updatedMovieInfo.getName());
-                    movieInfo.setReleased_date(updatedMovieInfo.getReleased_date());
-                    movieInfo.setYear(updatedMovieInfo.getYear());
-                    return movieInfoRepository.save(movieInfo);
+        var update = new Update()
+                .set("cast", updatedMovieInfo.getCast())
+                .set("name", updatedMovieInfo.getName())
+                .set("released_date", updatedMovieInfo.getReleased_date())
+                .set("year", updatedMovieInfo.getYear());
+        return modifyMovieInfo(id, updatedMovieInfo.getVersion(), update);
+    }
+
+    /**
+     * Applies only the non-null fields of {@code patch}; each of them is validated on its own.
+     */
+    public Mono<MovieInfo> patchMovieInfo(MovieInfo patch, String id) {
+        var update = new Update();
+        var errors = MovieInfoValidator.validatePatch(patch);
+        if (!errors.isEmpty()) {
+            return Mono.error(new MovieInfoDataException(String.join(",", errors)));
+        }
+        if (patch.getName() != null) {
+            update.set("name", patch.getName());
+        }
+        if (patch.getYear() != null) {
+            update.set("year", patch.getYear());
+        }
+        if (patch.getCast() != null) {
+            update.set("cast", patch.getCast());
+        }
+        if (patch.getReleased_date() != null) {
+            update.set("released_date", patch.getReleased_date());
+        }
+        if (update.getUpdateObject().isEmpty()) {
+            return getMovieInfoById(id);
+        }
+        return modifyMovieInfo(id, patch.getVersion(), update);
+    }
+
+    /**
+     * Single round trip {@code findAndModify} that bumps the version and returns the new document.
+     * When {@code expectedVersion} is given the update only matches that version, and a miss on an
+     * existing document is reported as a {@link MovieInfoConflictException}.
+     */
+    private Mono<MovieInfo> modifyMovieInfo(String id, Long expectedVersion, Update update) {
+        var criteria = Criteria.where("movieInfoId").is(id);
+        if (expectedVersion != null) {
+            criteria = criteria.and("version").is(expectedVersion);
+        }
+        update.inc("version", 1);
+
+        return reactiveMongoTemplate.findAndModify(new Query(criteria), update,
+                        FindAndModifyOptions.options().returnNew(true), MovieInfo.class)
+                .switchIfEmpty(expectedVersion == null
+                        ? Mono.empty()
+                        : movieInfoRepository.existsById(id)
+                        .flatMap(exists -> exists
+                                ? Mono.error(new MovieInfoConflictException("MovieInfo " + id + " was modified, expected version " + expectedVersion))
+                                : Mono.empty()))
+                .doOnNext(movieInfo -> {
+                    movieInfoCache.put(id, movieInfo);
+                    movieInfoChangeFeed.publishUpdate(movieInfo);
                 });
     }
 
+    /**
+     * Publishes the delete only if it removed a document, so deleting a missing id or racing
+     * another delete emits no event.
+     */
     public Mono<Void> deleteMovieInfo(String id) {
-        return movieInfoRepository.deleteById(id);
+        return reactiveMongoTemplate.remove(new Query(Criteria.where("movieInfoId").is(id)), MovieInfo.class)
+                .filter(result -> result.getDeletedCount() > 0)
+                .doOnNext(result -> movieInfoChangeFeed.publishDelete(id))
+                .doFinally(signalType -> movieInfoCache.invalidate(id))
+                .then();
+    }
+
+    public Flux<MovieInfoEvent> getMovieInfoChanges(Long lastEventId) {
+        return movieInfoChangeFeed.changes(lastEventId);
     }
 
     public Flux<MovieInfo> getMovieInfoByYear(Integer year) {
         return movieInfoRepository.findByYear(year);
     }
+
+    /**
+     * Same as {@link #getAllMovieInfos()} / {@link #searchMovieInfos(MovieInfoSearch, String, Integer)},
+     * reading only the projected fields.
+     */
+    public Flux<Map<String, Object>> getMovieInfos(MovieInfoSearch search, MovieInfoProjection projection) {
+        var query = search.isFiltered() ? search.toQuery(null, null) : new Query();
+        return reactiveMongoTemplate.find(projection.applyTo(query), MovieInfo.class)
+                .map(projection::toMap);
+    }
+
+    public Mono<Map<String, Object>> getMovieInfoById(String id, MovieInfoProjection projection) {
+        var query = new Query(Criteria.where("movieInfoId").is(id));
+        return reactiveMongoTemplate.findOne(projection.applyTo(query), MovieInfo.class)
+                .map(projection::toMap);
+    }
 }
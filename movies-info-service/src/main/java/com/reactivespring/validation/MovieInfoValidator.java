@@ -0,0 +1,81 @@
+package com.reactivespring.validation;
+
+import com.reactivespring.domain.MovieInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hand-written equivalent of the Bean Validation constraints declared on {@link MovieInfo}.
+ * <p>
+ * Checks the fields directly instead of walking constraint metadata reflectively, and returns
+ * the messages (sorted, as the annotation path reports them) rather than throwing, so callers
+ * decide how a failure is reported. Keep it in step with the annotations on {@link MovieInfo}.
+ */
+public final class MovieInfoValidator {
+
+    static final String NAME_MESSAGE = "moiveInfo.name must be present";
+    static final String YEAR_NULL_MESSAGE = "must not be null";
+    static final String YEAR_MESSAGE = "movieInfo.year must be a Positive value";
+    static final String CAST_MESSAGE = "moiveInfo.cast must be present";
+
+    private MovieInfoValidator() {
+    }
+
+    public static List<String> validate(MovieInfo movieInfo) {
+        var errors = new ArrayList<String>(3);
+        validateName(movieInfo.getName(), errors);
+        validateYear(movieInfo.getYear(), errors);
+        validateCast(movieInfo.getCast(), errors);
+        return sorted(errors);
+    }
+
+    /**
+     * Validates only the fields a patch sets; absent fields are left alone.
+     */
+    public static List<String> validatePatch(MovieInfo patch) {
+        var errors = new ArrayList<String>(3);
+        if (patch.getName() != null) {
+            validateName(patch.getName(), errors);
+        }
+        if (patch.getYear() != null) {
+            validateYear(patch.getYear(), errors);
+        }
+        validateCast(patch.getCast(), errors);
+        return sorted(errors);
+    }
+
+    private static void validateName(String name, List<String> errors) {
+        if (name == null || name.isBlank()) {
+            errors.add(NAME_MESSAGE);
+        }
+    }
+
+    private static void validateYear(Integer year, List<String> errors) {
+        if (year == null) {
+            errors.add(YEAR_NULL_MESSAGE);
+        } else if (year <= 0) {
+            errors.add(YEAR_MESSAGE);
+        }
+    }
+
+    private static void validateCast(List<String> cast, List<String> errors) {
+        if (cast == null) {
+            return;
+        }
+        for (var member : cast) {
+            if (member == null || member.isBlank()) {
+                errors.add(CAST_MESSAGE);
+            }
+        }
+    }
+
+    private static List<String> sorted(List<String> errors) {
+        if (errors.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Collections.sort(errors);
+        return errors;
+    }
+}
@@ -0,0 +1,95 @@
+package com.reactivespring.controller;
+
+import com.reactivespring.domain.BulkResult;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoEvent;
+import com.reactivespring.repository.MovieInfoRepository;
+import com.reactivespring.service.MovieInfoChangeFeed;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "movieinfo.bulk.batch-size=2")
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+class MovieInfoBulkControllerIntgTest {
+
+    @Autowired
+    MovieInfoRepository movieInfoRepository;
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    MovieInfoChangeFeed movieInfoChangeFeed;
+
+    @AfterEach
+    void tearDown() {
+        movieInfoRepository.deleteAll().block();
+    }
+
+    @Test
+    void bulkAddMovieInfos() throws Exception {
+        //given
+        var movieinfos = Flux.just(new MovieInfo(null, "Batman Begins",
+                        2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")),
+                new MovieInfo(null, "",
+                        2008, List.of("Christian Bale", "HeathLedger"), LocalDate.parse("2008-07-18")),
+                new MovieInfo("abc", "Dark Knight Rises",
+                        2012, List.of("Christian Bale", "Tom Hardy"), LocalDate.parse("2012-07-20")));
+
+        var events = movieInfoChangeFeed.changes(null).take(2).map(MovieInfoEvent::getMovieInfoId).collectList().toFuture();
+
+        //when
+        var resultFlux = webTestClient
+                .post()
+                .uri("/v1/movieinfos/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(movieinfos, MovieInfo.class)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(BulkResult.class)
+                .getResponseBody();
+
+        //then
+        StepVerifier.create(resultFlux)
+                .assertNext(bulkResult -> {
+                    assertEquals(1L, bulkResult.getBatch());
+                    assertEquals(1, bulkResult.getAccepted());
+                    assertEquals(1, bulkResult.getRejected());
+                    assertEquals(List.of("record 1 : moiveInfo.name must be present"), bulkResult.getErrors());
+                })
+                .assertNext(bulkResult -> {
+                    assertEquals(2L, bulkResult.getBatch());
+                    assertEquals(1, bulkResult.getAccepted());
+                    assertEquals(0, bulkResult.getRejected());
+                })
+                .verifyComplete();
+
+        StepVerifier.create(movieInfoRepository.count())
+                .expectNext(2L)
+                .verifyComplete();
+        var published = events.get(5, TimeUnit.SECONDS);
+        assertEquals(2, published.size());
+        assertTrue(published.contains("abc"));
+        assertTrue(published.stream().allMatch(Objects::nonNull));
+    }
+}
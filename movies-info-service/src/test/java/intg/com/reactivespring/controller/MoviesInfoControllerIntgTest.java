@@ -1,7 +1,9 @@
 package com.reactivespring.controller;
 
 import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoEvent;
 import com.reactivespring.repository.MovieInfoRepository;
+import com.reactivespring.service.MovieInfoChangeFeed;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,13 +11,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.test.StepVerifier;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
@@ -28,6 +34,9 @@ class MoviesInfoControllerIntgTest {
     @Autowired
     WebTestClient webTestClient;
 
+    @Autowired
+    MovieInfoChangeFeed movieInfoChangeFeed;
+
     static String MOVIES_INFO_URL = "/v1/movieinfos";
 
     @BeforeEach
@@ -71,6 +80,52 @@ class MoviesInfoControllerIntgTest {
         //then
     }
 
+    @Test
+    void addMovieInfo_clientSuppliedId() {
+        //given
+        var movieInfo = new MovieInfo("def", "Batman Begins1",
+                2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+
+        //when
+        webTestClient
+                .post()
+                .uri(MOVIES_INFO_URL)
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isCreated()
+                .expectBody(MovieInfo.class)
+                .consumeWith(movieInfoEntityExchangeResult -> {
+                    var savedMovieInfo = movieInfoEntityExchangeResult.getResponseBody();
+                    assertNotNull(savedMovieInfo);
+                    assertEquals("def", savedMovieInfo.getMovieInfoId());
+                    assertEquals(0L, savedMovieInfo.getVersion());
+                });
+    }
+
+    @Test
+    void addMovieInfo_existingId() {
+        //given
+        var movieInfo = new MovieInfo("abc", "Batman Begins1",
+                2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+
+        //when
+        webTestClient
+                .post()
+                .uri(MOVIES_INFO_URL)
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(409)
+                .expectBody(String.class)
+                .isEqualTo("MovieInfo abc already exists");
+
+        //then
+        StepVerifier.create(movieInfoRepository.findById("abc"))
+                .assertNext(found -> assertEquals("Dark Knight Rises", found.getName()))
+                .verifyComplete();
+    }
+
     @Test
     void getAllMovieInfos() {
         webTestClient
@@ -83,6 +138,52 @@ class MoviesInfoControllerIntgTest {
                 .hasSize(3);
     }
 
+    @Test
+    void getMovieInfosPage() {
+
+        var firstPage = webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?limit=2")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .hasSize(2)
+                .returnResult();
+
+        var cursor = firstPage.getResponseHeaders().getFirst(MoviesInfoController.NEXT_CURSOR_HEADER);
+        assertNotNull(cursor);
+
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?limit=2&after={after}", cursor)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .doesNotExist(MoviesInfoController.NEXT_CURSOR_HEADER)
+                .expectBodyList(MovieInfo.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void streamAllMovieInfos() {
+
+        var movieInfoFlux = webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(MovieInfo.class)
+                .getResponseBody();
+
+        StepVerifier.create(movieInfoFlux)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
     @Test
     void getMovieInfoByYear() {
 
@@ -100,6 +201,56 @@ class MoviesInfoControllerIntgTest {
                 .hasSize(1);
     }
 
+    @Test
+    void getMovieInfosByYearRange() {
+
+        var uri = UriComponentsBuilder.fromUriString(MOVIES_INFO_URL)
+                .queryParam("fromYear", 2006)
+                .queryParam("toYear", 2012)
+                .buildAndExpand().toUri();
+
+        webTestClient
+                .get()
+                .uri(uri)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .consumeWith(listEntityExchangeResult -> {
+                    var movieInfos = listEntityExchangeResult.getResponseBody();
+                    assert movieInfos != null;
+                    assertEquals(2, movieInfos.size());
+                    assertEquals(2008, movieInfos.get(0).getYear());
+                    assertEquals(2012, movieInfos.get(1).getYear());
+                });
+    }
+
+    @Test
+    void getMovieInfosByCast_paged() {
+
+        var firstPage = webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?cast={cast}&limit=1", "Christian Bale")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .hasSize(1)
+                .returnResult();
+
+        var cursor = firstPage.getResponseHeaders().getFirst(MoviesInfoController.NEXT_CURSOR_HEADER);
+        assertEquals("2005:", cursor.substring(0, 5));
+
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?cast={cast}&limit=5&after={after}", "Christian Bale", cursor)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .hasSize(2);
+    }
+
     @Test
     void getMovieInfoById() {
         var movieInfoId = "abc";
@@ -124,6 +275,24 @@ class MoviesInfoControllerIntgTest {
 //                });
     }
 
+    @Test
+    void getMovieInfoById_fields() {
+        var movieInfoId = "abc";
+
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "/{id}?fields=name,year", movieInfoId)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.movieInfoId").isEqualTo("abc")
+                .jsonPath("$.name").isEqualTo("Dark Knight Rises")
+                .jsonPath("$.year").isEqualTo(2012)
+                .jsonPath("$.cast").doesNotExist()
+                .jsonPath("$.released_date").doesNotExist();
+    }
+
     @Test
     void getMovieInfoById_notfound() {
         var movieInfoId = "def";
@@ -180,6 +349,50 @@ class MoviesInfoControllerIntgTest {
         //then
     }
 
+    @Test
+    void updateMovieInfo_versionConflict() {
+        //given
+        var movieInfoId = "abc";
+        var movieInfo = new MovieInfo(null, "Dark Knight Rises1",
+                2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"), 42L);
+
+        //when
+        webTestClient
+                .put()
+                .uri(MOVIES_INFO_URL + "/{id}", movieInfoId)
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(409);
+        //then
+    }
+
+    @Test
+    void patchMovieInfo() {
+        //given
+        var movieInfoId = "abc";
+        var patch = new MovieInfo();
+        patch.setName("Dark Knight Rises1");
+
+        //when
+        webTestClient
+                .patch()
+                .uri(MOVIES_INFO_URL + "/{id}", movieInfoId)
+                .bodyValue(patch)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody(MovieInfo.class)
+                .consumeWith(movieInfoEntityExchangeResult -> {
+                    var patchedMovieInfo = movieInfoEntityExchangeResult.getResponseBody();
+                    assert patchedMovieInfo != null;
+                    assertEquals("Dark Knight Rises1", patchedMovieInfo.getName());
+                    assertEquals(2012, patchedMovieInfo.getYear());
+                    assertEquals(1L, patchedMovieInfo.getVersion());
+                });
+        //then
+    }
+
     @Test
     void deleteMovieInfo() {
         //given
@@ -194,4 +407,29 @@ class MoviesInfoControllerIntgTest {
                 .isNoContent();
         //then
     }
+
+    @Test
+    void deleteMovieInfo_publishesOnlyRealDeletes() throws Exception {
+        //given
+        var events = movieInfoChangeFeed.changes(null).take(1).collectList().toFuture();
+
+        //when
+        webTestClient
+                .delete()
+                .uri(MOVIES_INFO_URL + "/{id}", "missing")
+                .exchange()
+                .expectStatus()
+                .isNoContent();
+        webTestClient
+                .delete()
+                .uri(MOVIES_INFO_URL + "/{id}", "abc")
+                .exchange()
+                .expectStatus()
+                .isNoContent();
+
+        //then
+        var published = events.get(5, TimeUnit.SECONDS);
+        assertEquals(MovieInfoEvent.Type.DELETE, published.get(0).getType());
+        assertEquals("abc", published.get(0).getMovieInfoId());
+    }
 }
\ No newline at end of file
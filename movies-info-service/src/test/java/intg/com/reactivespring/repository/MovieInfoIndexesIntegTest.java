@@ -0,0 +1,168 @@
+package com.reactivespring.repository;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.reactivespring.cache.MovieInfoCache;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.service.MovieInfoChangeFeed;
+import com.reactivespring.service.MovieInfoProjection;
+import com.reactivespring.service.MovieInfoSearch;
+import com.reactivespring.service.MoviesInfoService;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataMongoTest
+@ActiveProfiles("test")
+@Import({MovieInfoIndexes.class, MoviesInfoService.class, MovieInfoCache.class, MovieInfoChangeFeed.class})
+class MovieInfoIndexesIntegTest {
+
+    static final Deque<BsonDocument> findCommands = new ConcurrentLinkedDeque<>();
+
+    @Autowired
+    MovieInfoRepository movieInfoRepository;
+
+    @Autowired
+    MovieInfoIndexes movieInfoIndexes;
+
+    @Autowired
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    MoviesInfoService moviesInfoService;
+
+    @BeforeEach
+    void setUp() {
+        var movieinfos = List.of(new MovieInfo(null, "Batman Begins",
+                        2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")),
+                new MovieInfo(null, "The Dark Knight",
+                        2008, List.of("Christian Bale", "HeathLedger"), LocalDate.parse("2008-07-18")),
+                new MovieInfo("abc", "Dark Knight Rises",
+                        2012, List.of("Christian Bale", "Tom Hardy"), LocalDate.parse("2012-07-20")));
+
+        movieInfoIndexes.ensureIndexes().block();
+        movieInfoRepository.saveAll(movieinfos).blockLast(); // "blocking function call" only allowed in the test cases
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieInfoRepository.deleteAll().block();
+    }
+
+    @Test
+    void ensureIndexes() {
+        StepVerifier.create(movieInfoIndexes.ensureIndexes())
+                .assertNext(names -> assertTrue(names.containsAll(List.of("year", "name", "year_name", "year_id", "cast_year_id"))))
+                .verifyComplete();
+    }
+
+    @Test
+    void getMovieInfoByYear_usesIndex() {
+        assertNoCollectionScan(moviesInfoService.getMovieInfoByYear(2005));
+    }
+
+    @Test
+    void findByName_usesIndex() {
+        assertNoCollectionScan(movieInfoRepository.findByName("Batman Begins"));
+    }
+
+    @Test
+    void findByYearOrderByName_usesIndex() {
+        // no service query sorts by name yet; this covers the year_name index on its own
+        assertNoCollectionScan(reactiveMongoTemplate.find(new Query(Criteria.where("year").gte(2005))
+                .with(Sort.by(Sort.Direction.ASC, "year", "name")), MovieInfo.class));
+    }
+
+    @Test
+    void searchByYearRange_usesIndex() {
+        assertNoCollectionScan(moviesInfoService.searchMovieInfos(new MovieInfoSearch(null, 2005, 2010, null), null, 2));
+    }
+
+    @Test
+    void searchByCast_usesIndex() {
+        assertNoCollectionScan(moviesInfoService.searchMovieInfos(new MovieInfoSearch(null, null, null, "Christian Bale"), null, 2));
+    }
+
+    @Test
+    void getMovieInfosPage_usesIndex() {
+        assertNoCollectionScan(moviesInfoService.getMovieInfosPage("abc", 2));
+    }
+
+    @Test
+    void streamAllMovieInfos_usesIndex() {
+        assertNoCollectionScan(moviesInfoService.streamAllMovieInfos("abc"));
+    }
+
+    @Test
+    void getMovieInfosProjected_usesIndex() {
+        assertNoCollectionScan(moviesInfoService.getMovieInfos(new MovieInfoSearch(null, 2005, 2010, null), MovieInfoProjection.parse("name")));
+    }
+
+    /**
+     * Runs {@code call}, then explains the find command it actually sent.
+     */
+    private void assertNoCollectionScan(Publisher<?> call) {
+        findCommands.clear();
+        Flux.from(call).blockLast();
+        var find = findCommands.peekLast();
+        assertNotNull(find, "no find command was sent");
+
+        var command = new BsonDocument("find", find.get("find"));
+        Stream.of("filter", "sort", "projection", "limit")
+                .filter(find::containsKey)
+                .forEach(key -> command.put(key, find.get(key)));
+        var explain = reactiveMongoTemplate.getMongoDatabase()
+                .flatMap(database -> Mono.from(database.runCommand(new BsonDocument("explain", command)
+                        .append("verbosity", new BsonString("queryPlanner")))))
+                .block();
+
+        assertNotNull(explain);
+        var winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+        assertFalse(winningPlan.contains("COLLSCAN"), "query plan is a collection scan : " + winningPlan);
+    }
+
+    @TestConfiguration
+    static class FindCommandCapture {
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer findCommandListener() {
+            return builder -> builder.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if ("find".equals(event.getCommandName())) {
+                        // the event's document is only valid while the listener runs
+                        findCommands.add(event.getCommand().clone());
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.reactivespring.cache;
+
+import com.reactivespring.domain.MovieInfo;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieInfoCacheTest {
+
+    AtomicLong clock = new AtomicLong();
+    AtomicInteger loads = new AtomicInteger();
+
+    MovieInfoCache movieInfoCache = new MovieInfoCache(2, Duration.ofSeconds(10), clock::get);
+
+    Mono<MovieInfo> load(String id) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return new MovieInfo(id, "Batman Begins",
+                    2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+        });
+    }
+
+    @Test
+    void get_readThrough() {
+        //when
+        movieInfoCache.get("abc", this::load).block();
+        var movieInfoMono = movieInfoCache.get("abc", this::load);
+
+        //then
+        StepVerifier.create(movieInfoMono)
+                .assertNext(movieInfo -> assertEquals("abc", movieInfo.getMovieInfoId()))
+                .verifyComplete();
+        assertEquals(1, loads.get());
+        assertEquals(1L, movieInfoCache.stats().getHits());
+        assertEquals(1L, movieInfoCache.stats().getMisses());
+    }
+
+    @Test
+    void get_concurrentMissesShareOneLoad() {
+        //given
+        var sink = Sinks.<MovieInfo>one();
+        var movieInfo = new MovieInfo("abc", "Batman Begins",
+                2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+
+        //when
+        var first = movieInfoCache.get("abc", id -> {
+            loads.incrementAndGet();
+            return sink.asMono();
+        });
+        var second = movieInfoCache.get("abc", this::load);
+
+        //then
+        StepVerifier.create(first.zipWith(second))
+                .then(() -> sink.tryEmitValue(movieInfo))
+                .assertNext(tuple -> assertEquals(tuple.getT1(), tuple.getT2()))
+                .verifyComplete();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_emptyIsNotCached() {
+        StepVerifier.create(movieInfoCache.get("def", id -> Mono.empty()))
+                .verifyComplete();
+
+        assertEquals(0, movieInfoCache.stats().getSize());
+    }
+
+    @Test
+    void get_expiresAfterTtl() {
+        //given
+        movieInfoCache.get("abc", this::load).block();
+
+        //when
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        movieInfoCache.get("abc", this::load).block();
+
+        //then
+        assertEquals(2, loads.get());
+        assertEquals(1L, movieInfoCache.stats().getExpirations());
+    }
+
+    @Test
+    void get_evictsOldestWhenFull() {
+        //when
+        movieInfoCache.get("abc", this::load).block();
+        movieInfoCache.get("def", this::load).block();
+        movieInfoCache.get("ghi", this::load).block();
+        movieInfoCache.get("abc", this::load).block();
+
+        //then
+        assertEquals(4, loads.get());
+        assertEquals(2, movieInfoCache.stats().getSize());
+        assertEquals(2L, movieInfoCache.stats().getEvictions());
+    }
+
+    @Test
+    void invalidate() {
+        //given
+        movieInfoCache.get("abc", this::load).block();
+
+        //when
+        movieInfoCache.invalidate("abc");
+        movieInfoCache.get("abc", this::load).block();
+
+        //then
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,86 @@
+package com.reactivespring.controller;
+
+import com.reactivespring.cache.MovieInfoCache;
+import com.reactivespring.metrics.ReactiveMetrics;
+import com.reactivespring.metrics.RouteMetricsSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@WebFluxTest(controllers = {MetricsController.class, FluxAndMonoController.class})
+@Import({ReactiveMetrics.class, MovieInfoCache.class})
+@AutoConfigureWebTestClient
+class MetricsControllerUnitTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    ReactiveMetrics reactiveMetrics;
+
+    @Test
+    void getRouteMetrics() {
+        //given
+        reactiveMetrics.setSampleRate(1.0);
+        webTestClient.get().uri("/flux")
+                .exchange().expectStatus().is2xxSuccessful()
+                .expectBodyList(Integer.class).hasSize(3);
+
+        //when
+        webTestClient.get().uri("/v1/metrics/routes")
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectBodyList(RouteMetricsSnapshot.class)
+                .consumeWith(listEntityExchangeResult -> {
+                    var flux = listEntityExchangeResult.getResponseBody().stream()
+                            .filter(snapshot -> snapshot.getRoute().equals("flux"))
+                            .findFirst()
+                            .orElseThrow();
+                    //then
+                    assertEquals(1L, flux.getSampledRequests());
+                    assertEquals(3L, flux.getElements());
+                    assertEquals(0L, flux.getErrors());
+                });
+    }
+
+    @Test
+    void getCacheStats() {
+        webTestClient.get().uri("/v1/metrics/cache")
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.maxSize").isEqualTo(10000)
+                .jsonPath("$.hits").isNumber()
+                .jsonPath("$.misses").isNumber();
+    }
+
+    @Test
+    void updateSettings() {
+        webTestClient.put().uri("/v1/metrics/settings?debugLogging=true&sampleRate=0.5")
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.debugLogging").isEqualTo(true)
+                .jsonPath("$.sampleRate").isEqualTo(0.5);
+
+        webTestClient.get().uri("/mono")
+                .exchange().expectStatus().is2xxSuccessful()
+                .expectBody(String.class).isEqualTo("hello-world");
+
+        webTestClient.put().uri("/v1/metrics/settings?debugLogging=false&sampleRate=1.0")
+                .exchange()
+                .expectStatus().is2xxSuccessful();
+    }
+
+    @Test
+    void updateSettings_invalidSampleRate() {
+        webTestClient.put().uri("/v1/metrics/settings?sampleRate=2.0")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
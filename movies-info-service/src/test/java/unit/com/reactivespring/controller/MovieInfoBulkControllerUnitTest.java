@@ -0,0 +1,68 @@
+package com.reactivespring.controller;
+
+import com.reactivespring.domain.BulkResult;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.metrics.ReactiveMetrics;
+import com.reactivespring.service.MovieInfoBulkService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(controllers = MovieInfoBulkController.class)
+@Import(ReactiveMetrics.class)
+@AutoConfigureWebTestClient
+class MovieInfoBulkControllerUnitTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @MockBean
+    MovieInfoBulkService movieInfoBulkServiceMock;
+
+    @Test
+    void bulkAddMovieInfos() {
+        //given
+        var movieinfos = Flux.just(new MovieInfo(null, "Batman Begins",
+                        2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")),
+                new MovieInfo(null, "The Dark Knight",
+                        2008, List.of("Christian Bale", "HeathLedger"), LocalDate.parse("2008-07-18")));
+
+        when(movieInfoBulkServiceMock.bulkAddMovieInfos(any()))
+                .thenAnswer(invocation -> {
+                    Flux<String> body = invocation.getArgument(0);
+                    return body.count().map(count -> new BulkResult(1L, count.intValue(), 0, List.of())).flux();
+                });
+
+        //when
+        var resultFlux = webTestClient
+                .post()
+                .uri("/v1/movieinfos/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(movieinfos, MovieInfo.class)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(BulkResult.class)
+                .getResponseBody();
+
+        //then
+        StepVerifier.create(resultFlux)
+                .assertNext(bulkResult -> assertEquals(2, bulkResult.getAccepted()))
+                .verifyComplete();
+    }
+}
@@ -1,24 +1,38 @@
 package com.reactivespring.controller;
 
 import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoEvent;
+import com.reactivespring.exception.MovieInfoConflictException;
+import com.reactivespring.exception.MovieInfoDataException;
+import com.reactivespring.metrics.ReactiveMetrics;
+import com.reactivespring.service.MovieInfoProjection;
+import com.reactivespring.service.MovieInfoSearch;
 import com.reactivespring.service.MoviesInfoService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(controllers = MoviesInfoController.class)
+@Import(ReactiveMetrics.class)
 @AutoConfigureWebTestClient
 public class MoviesInfoControllerUnitTest {
 
@@ -52,6 +66,280 @@ public class MoviesInfoControllerUnitTest {
                 .hasSize(3);
     }
 
+    @Test
+    void getAllMovieInfos_fields() {
+
+        when(moviesInfoServiceMock.getMovieInfos(isA(MovieInfoSearch.class), isA(MovieInfoProjection.class))).thenReturn(
+                Flux.just(Map.of("movieInfoId", "abc", "name", "Batman Begins", "year", 2005)));
+
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?fields=name,year")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("Batman Begins")
+                .jsonPath("$[0].cast").doesNotExist();
+    }
+
+    @Test
+    void getAllMovieInfos_fieldsWithSearch() {
+
+        when(moviesInfoServiceMock.getMovieInfos(argThat(MovieInfoSearch::isFiltered), isA(MovieInfoProjection.class)))
+                .thenReturn(Flux.just(Map.of("movieInfoId", "abc", "name", "Batman Begins")));
+
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?fields=name&fromYear=2000&toYear=2010&cast=Christian Bale")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("Batman Begins");
+    }
+
+    @Test
+    void getMovieInfosPage_fields() {
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?fields=name&limit=2")
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("movieInfo.fields must not be combined with limit");
+    }
+
+    @Test
+    void getAllMovieInfos_unknownField() {
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?fields=name,budget")
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("movieInfo.fields unknown : budget");
+    }
+
+    @Test
+    void getMovieInfosPage() {
+
+        var movieinfos = List.of(new MovieInfo("abc", "Batman Begins",
+                        2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")),
+                new MovieInfo("def", "The Dark Knight",
+                        2008, List.of("Christian Bale", "HeathLedger"), LocalDate.parse("2008-07-18")));
+
+        when(moviesInfoServiceMock.getMovieInfosPage(isNull(), isA(Integer.class))).thenReturn(Flux.fromIterable(movieinfos));
+
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?limit=2")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .valueEquals(MoviesInfoController.NEXT_CURSOR_HEADER, "def")
+                .expectBodyList(MovieInfo.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void getMovieInfosPage_lastPage() {
+
+        var movieinfos = List.of(new MovieInfo("ghi", "Dark Knight Rises",
+                2012, List.of("Christian Bale", "Tom Hardy"), LocalDate.parse("2012-07-20")));
+
+        when(moviesInfoServiceMock.getMovieInfosPage("def", 2)).thenReturn(Flux.fromIterable(movieinfos));
+
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?limit=2&after=def")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .doesNotExist(MoviesInfoController.NEXT_CURSOR_HEADER)
+                .expectBodyList(MovieInfo.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void searchMovieInfosPage() {
+
+        var movieinfos = List.of(new MovieInfo("abc", "Batman Begins",
+                        2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")),
+                new MovieInfo("def", "The Dark Knight",
+                        2008, List.of("Christian Bale", "HeathLedger"), LocalDate.parse("2008-07-18")));
+
+        when(moviesInfoServiceMock.searchMovieInfos(isA(MovieInfoSearch.class), isNull(), eq(2)))
+                .thenReturn(Flux.fromIterable(movieinfos));
+
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?limit=2&fromYear=2000&toYear=2010&cast=Christian Bale")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .valueEquals(MoviesInfoController.NEXT_CURSOR_HEADER, "2008:def")
+                .expectBodyList(MovieInfo.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void searchMovieInfos_invalidYearRange() {
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?fromYear=2010&toYear=2000")
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    @Test
+    void getMovieInfosByYear() {
+
+        var movieinfos = List.of(new MovieInfo("abc", "Batman Begins",
+                2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")));
+
+        when(moviesInfoServiceMock.searchMovieInfos(isA(MovieInfoSearch.class), isNull(), isNull()))
+                .thenReturn(Flux.fromIterable(movieinfos));
+
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?year=2005")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void searchMovieInfos_yearWithYearRange() {
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?year=2005&fromYear=2000")
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("movieInfo.year must not be combined with fromYear or toYear");
+    }
+
+    @Test
+    void getMovieInfosPage_year() {
+
+        var movieinfos = List.of(new MovieInfo("abc", "Batman Begins",
+                2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")));
+
+        when(moviesInfoServiceMock.searchMovieInfos(isA(MovieInfoSearch.class), isNull(), eq(1)))
+                .thenReturn(Flux.fromIterable(movieinfos));
+
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?year=2005&limit=1")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .valueEquals(MoviesInfoController.NEXT_CURSOR_HEADER, "2005:abc")
+                .expectBodyList(MovieInfo.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void streamMovieInfos_year() {
+
+        var movieinfos = List.of(new MovieInfo("abc", "Batman Begins",
+                2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")));
+
+        when(moviesInfoServiceMock.searchMovieInfos(isA(MovieInfoSearch.class), isNull(), isNull()))
+                .thenReturn(Flux.fromIterable(movieinfos));
+
+        var movieInfoFlux = webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?year=2005")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(MovieInfo.class)
+                .getResponseBody();
+
+        StepVerifier.create(movieInfoFlux)
+                .assertNext(movieInfo -> assertEquals(2005, movieInfo.getYear()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getMovieInfosPage_invalidLimit() {
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "?limit=0")
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    @Test
+    void streamAllMovieInfos() {
+
+        var movieinfos = List.of(new MovieInfo("abc", "Batman Begins",
+                        2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")),
+                new MovieInfo("def", "The Dark Knight",
+                        2008, List.of("Christian Bale", "HeathLedger"), LocalDate.parse("2008-07-18")));
+
+        when(moviesInfoServiceMock.streamAllMovieInfos(null)).thenReturn(Flux.fromIterable(movieinfos));
+
+        var movieInfoFlux = webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(MovieInfo.class)
+                .getResponseBody();
+
+        StepVerifier.create(movieInfoFlux)
+                .assertNext(movieInfo -> assertEquals("abc", movieInfo.getMovieInfoId()))
+                .assertNext(movieInfo -> assertEquals("def", movieInfo.getMovieInfoId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getMovieInfoChanges() {
+
+        var movieInfo = new MovieInfo("abc", "Batman Begins",
+                2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+
+        when(moviesInfoServiceMock.getMovieInfoChanges(41L)).thenReturn(
+                Flux.just(new MovieInfoEvent(42L, MovieInfoEvent.Type.INSERT, "abc", movieInfo)));
+
+        var eventFlux = webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "/stream")
+                .header("Last-Event-ID", "41")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(MovieInfoEvent.class)
+                .getResponseBody();
+
+        StepVerifier.create(eventFlux)
+                .assertNext(event -> {
+                    assertEquals(42L, event.getSequence());
+                    assertEquals("abc", event.getMovieInfoId());
+                })
+                .verifyComplete();
+    }
+
     @Test
     void addMovieInfo() {
         //given
@@ -127,6 +415,24 @@ public class MoviesInfoControllerUnitTest {
                 .jsonPath("$.name").isEqualTo("Dark Knight Rises");
     }
 
+    @Test
+    void getMovieInfoById_fields() {
+
+        var movieInfoId = "abc";
+        when(moviesInfoServiceMock.getMovieInfoById(eq(movieInfoId), isA(MovieInfoProjection.class)))
+                .thenReturn(Mono.just(Map.of("movieInfoId", movieInfoId, "name", "Dark Knight Rises")));
+
+        webTestClient
+                .get()
+                .uri(MOVIES_INFO_URL + "/{id}?fields=name", movieInfoId)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Dark Knight Rises")
+                .jsonPath("$.released_date").doesNotExist();
+    }
+
     @Test
     void updateMovieInfo() {
         //given
@@ -157,6 +463,73 @@ public class MoviesInfoControllerUnitTest {
 
         //then
     }
+    @Test
+    void updateMovieInfo_conflict() {
+        //given
+        var movieInfoId = "abc";
+        var movieInfo = new MovieInfo(null, "Dark Knight Rises1",
+                2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"), 1L);
+
+        when(moviesInfoServiceMock.updateMovieInfo(isA(MovieInfo.class), isA(String.class)))
+                .thenReturn(Mono.error(new MovieInfoConflictException("MovieInfo abc was modified, expected version 1")));
+
+        //when
+        webTestClient
+                .put()
+                .uri(MOVIES_INFO_URL + "/{id}", movieInfoId)
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(409);
+    }
+
+    @Test
+    void patchMovieInfo() {
+        //given
+        var movieInfoId = "abc";
+        var patch = new MovieInfo();
+        patch.setName("Dark Knight Rises1");
+
+        when(moviesInfoServiceMock.patchMovieInfo(isA(MovieInfo.class), isA(String.class))).thenReturn(
+                Mono.just(new MovieInfo(movieInfoId, "Dark Knight Rises1",
+                        2012, List.of("Christian Bale", "Tom Hardy"), LocalDate.parse("2012-07-20"), 2L))
+        );
+
+        //when
+        webTestClient
+                .patch()
+                .uri(MOVIES_INFO_URL + "/{id}", movieInfoId)
+                .bodyValue(patch)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Dark Knight Rises1")
+                .jsonPath("$.version").isEqualTo(2);
+    }
+
+    @Test
+    void patchMovieInfo_validation() {
+        //given
+        var movieInfoId = "abc";
+        var patch = new MovieInfo();
+        patch.setName("");
+
+        when(moviesInfoServiceMock.patchMovieInfo(isA(MovieInfo.class), isA(String.class)))
+                .thenReturn(Mono.error(new MovieInfoDataException("moiveInfo.name must be present")));
+
+        //when
+        webTestClient
+                .patch()
+                .uri(MOVIES_INFO_URL + "/{id}", movieInfoId)
+                .bodyValue(patch)
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("moiveInfo.name must be present");
+    }
+
     @Test
     void deleteMovieInfo() {
         //given
@@ -0,0 +1,62 @@
+package com.reactivespring.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import com.reactivespring.domain.MovieInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MovieInfoBulkServiceTest {
+
+    ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+    ReactiveBulkOperations bulkOperations = mock(ReactiveBulkOperations.class);
+    MovieInfoChangeFeed changeFeed = new MovieInfoChangeFeed(10, 10, MovieInfoChangeFeed.OverflowPolicy.DROP_OLDEST);
+    MovieInfoBulkService movieInfoBulkService = new MovieInfoBulkService(reactiveMongoTemplate, changeFeed,
+            new ObjectMapper().findAndRegisterModules(), 3, Duration.ofSeconds(1), 1);
+
+    @Test
+    void bulkAddMovieInfos_malformedLineRejectedOnItsOwn() {
+        //given
+        when(reactiveMongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(MovieInfo.class))).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(Mono.just(BulkWriteResult.acknowledged(2, 0, 0, 0, List.of(), List.of())));
+        var lines = Flux.just(
+                "{\"name\":\"Batman Begins\",\"year\":2005,\"cast\":[\"Christian Bale\"],\"released_date\":\"2005-06-15\"}",
+                "{\"name\":\"The Dark Knight\",\"year\":",
+                "",
+                "{\"name\":\"\",\"year\":2008,\"cast\":[\"Christian Bale\"]}",
+                "{\"name\":\"Dark Knight Rises\",\"year\":2012,\"cast\":[\"Tom Hardy\"]}");
+
+        //when
+        var results = movieInfoBulkService.bulkAddMovieInfos(lines);
+
+        //then
+        StepVerifier.create(results)
+                .assertNext(bulkResult -> {
+                    assertEquals(1L, bulkResult.getBatch());
+                    assertEquals(2, bulkResult.getRejected());
+                    assertTrue(bulkResult.getErrors().get(0).startsWith("record 1 : malformed JSON"));
+                    assertEquals("record 2 : moiveInfo.name must be present", bulkResult.getErrors().get(1));
+                })
+                .assertNext(bulkResult -> {
+                    assertEquals(2L, bulkResult.getBatch());
+                    assertEquals(0, bulkResult.getRejected());
+                })
+                .verifyComplete();
+    }
+}
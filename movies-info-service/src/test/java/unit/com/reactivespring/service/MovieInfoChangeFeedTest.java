@@ -0,0 +1,91 @@
+package com.reactivespring.service;
+
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoEvent;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieInfoChangeFeedTest {
+
+    MovieInfo movieInfo(String id) {
+        return new MovieInfo(id, "Batman Begins",
+                2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+    }
+
+    @Test
+    void changes_onlyLiveEventsForNewSubscribers() {
+        //given
+        var changeFeed = new MovieInfoChangeFeed(10, 10, MovieInfoChangeFeed.OverflowPolicy.DROP_OLDEST);
+        changeFeed.publishInsert(movieInfo("abc"));
+
+        //when
+        StepVerifier.create(changeFeed.changes(null))
+                .then(() -> changeFeed.publishUpdate(movieInfo("abc")))
+                //then
+                .assertNext(event -> assertEquals(MovieInfoEvent.Type.UPDATE, event.getType()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void changes_resumeAfterLastEventId() {
+        //given
+        var changeFeed = new MovieInfoChangeFeed(10, 10, MovieInfoChangeFeed.OverflowPolicy.DROP_OLDEST);
+        changeFeed.publishInsert(movieInfo("abc"));
+        var first = changeFeed.changes(0L).blockFirst();
+        changeFeed.publishUpdate(movieInfo("abc"));
+        changeFeed.publishDelete("abc");
+
+        //when
+        StepVerifier.create(changeFeed.changes(first.getSequence()))
+                //then
+                .assertNext(event -> assertEquals(MovieInfoEvent.Type.UPDATE, event.getType()))
+                .assertNext(event -> assertEquals(MovieInfoEvent.Type.DELETE, event.getType()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void changes_dropOldestForSlowSubscriber() {
+        //given
+        var changeFeed = new MovieInfoChangeFeed(10, 2, MovieInfoChangeFeed.OverflowPolicy.DROP_OLDEST);
+
+        //when
+        StepVerifier.create(changeFeed.changes(null), 0)
+                .then(() -> {
+                    changeFeed.publishInsert(movieInfo("abc"));
+                    changeFeed.publishInsert(movieInfo("def"));
+                    changeFeed.publishInsert(movieInfo("ghi"));
+                })
+                .thenRequest(2)
+                //then
+                .assertNext(event -> assertEquals("def", event.getMovieInfoId()))
+                .assertNext(event -> assertEquals("ghi", event.getMovieInfoId()))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void changes_disconnectSlowSubscriber() {
+        //given
+        var changeFeed = new MovieInfoChangeFeed(10, 2, MovieInfoChangeFeed.OverflowPolicy.DISCONNECT);
+
+        //when
+        StepVerifier.create(changeFeed.changes(null), 0)
+                .then(() -> {
+                    changeFeed.publishInsert(movieInfo("abc"));
+                    changeFeed.publishInsert(movieInfo("def"));
+                    changeFeed.publishInsert(movieInfo("ghi"));
+                })
+                .thenRequest(3)
+                //then
+                .expectNextCount(2)
+                .expectError()
+                .verify();
+    }
+}
@@ -0,0 +1,77 @@
+package com.reactivespring.validation;
+
+import com.reactivespring.domain.MovieInfo;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovieInfoValidatorTest {
+
+    static ValidatorFactory validatorFactory;
+    static Validator validator;
+
+    @BeforeAll
+    static void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        validatorFactory.close();
+    }
+
+    static Stream<Arguments> movieInfos() {
+        var released = LocalDate.parse("2005-06-15");
+        return Stream.of(
+                Arguments.of(new MovieInfo(null, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), released)),
+                Arguments.of(new MovieInfo(null, "Batman Begins", 2005, null, released)),
+                Arguments.of(new MovieInfo(null, "", -2005, List.of(""), released)),
+                Arguments.of(new MovieInfo(null, "   ", 0, List.of("Christian Bale", " ", ""), released)),
+                Arguments.of(new MovieInfo(null, null, null, Arrays.asList("Christian Bale", null), released)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("movieInfos")
+    void validate_matchesBeanValidation(MovieInfo movieInfo) {
+        //given
+        var expected = validator.validate(movieInfo).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+
+        //when
+        var errors = MovieInfoValidator.validate(movieInfo);
+
+        //then
+        assertEquals(expected, errors);
+    }
+
+    @Test
+    void validatePatch_onlyChecksPresentFields() {
+        //given
+        var patch = new MovieInfo(null, null, -1, null, null);
+
+        //when
+        var errors = MovieInfoValidator.validatePatch(patch);
+
+        //then
+        assertEquals(List.of("movieInfo.year must be a Positive value"), errors);
+        assertTrue(MovieInfoValidator.validatePatch(new MovieInfo()).isEmpty());
+    }
+}
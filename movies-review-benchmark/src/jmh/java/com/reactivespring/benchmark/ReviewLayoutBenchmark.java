@@ -0,0 +1,128 @@
+package com.reactivespring.benchmark;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.reactivespring.domain.Review;
+import com.reactivespring.repository.ReviewIndexes;
+import com.reactivespring.repository.ReviewReactiveRepository;
+import com.reactivespring.storage.BucketReviewStore;
+import com.reactivespring.storage.DocumentReviewStore;
+import com.reactivespring.storage.ReviewLayout;
+import com.reactivespring.storage.ReviewStore;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Read and write cost of the two {@link ReviewStore} layouts against the local Mongo from the
+ * README, in a scratch {@value #DATABASE} database that is dropped before and after each trial.
+ * <p>
+ * {@code movieReviews} reviews of one movie are loaded up front. {@link #readPage()} reads
+ * {@code pageSize} of them from a random cursor, {@link #writeBatch()} inserts one write-queue
+ * batch of {@code batchSize} new reviews spread over ten other movies. The data and index sizes
+ * of the layout's collection are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReviewLayoutBenchmark {
+
+    static final String DATABASE = "reviewLayoutBenchmark";
+    static final long MOVIE_INFO_ID = 1L;
+
+    @Param({"DOCUMENT", "BUCKET"})
+    ReviewLayout layout;
+
+    @Param({"200"})
+    int bucketSize;
+
+    @Param({"20000"})
+    int movieReviews;
+
+    @Param({"100"})
+    int pageSize;
+
+    @Param({"200"})
+    int batchSize;
+
+    MongoClient mongoClient;
+    ReactiveMongoTemplate reactiveMongoTemplate;
+    ReviewStore reviewStore;
+    List<String> reviewIds;
+
+    @Setup
+    public void setUp() {
+        mongoClient = MongoClients.create("mongodb://localhost:27017");
+        reactiveMongoTemplate = new ReactiveMongoTemplate(mongoClient, DATABASE);
+        dropDatabase();
+
+        if (layout == ReviewLayout.BUCKET) {
+            var bucketReviewStore = new BucketReviewStore(reactiveMongoTemplate, bucketSize);
+            bucketReviewStore.ensureIndexes().block();
+            reviewStore = bucketReviewStore;
+        } else {
+            var mappingContext = (MongoMappingContext) reactiveMongoTemplate.getConverter().getMappingContext();
+            new ReviewIndexes(reactiveMongoTemplate, mappingContext).ensureIndexes().block();
+            var reviewReactiveRepository = new ReactiveMongoRepositoryFactory(reactiveMongoTemplate)
+                    .getRepository(ReviewReactiveRepository.class);
+            reviewStore = new DocumentReviewStore(reviewReactiveRepository, reactiveMongoTemplate);
+        }
+
+        var reviews = IntStream.range(0, movieReviews)
+                .mapToObj(i -> review(MOVIE_INFO_ID, i))
+                .toList();
+        Flux.fromIterable(reviews)
+                .buffer(batchSize)
+                .concatMap(reviewStore::insertAll)
+                .blockLast();
+        reviewIds = reviews.stream().map(Review::getReviewId).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        var stats = reactiveMongoTemplate.executeCommand(new Document("collStats", reviewStore.collectionName())).block();
+        System.out.printf("%n%s layout : %s documents, %s bytes of data, %s bytes of indexes%n",
+                layout, stats.get("count"), stats.get("size"), stats.get("totalIndexSize"));
+        dropDatabase();
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public List<Review> readPage() {
+        var after = reviewIds.get(ThreadLocalRandom.current().nextInt(reviewIds.size() - pageSize));
+        return reviewStore.find(MOVIE_INFO_ID, after, Limit.of(pageSize))
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public Map<Integer, String> writeBatch() {
+        var reviews = IntStream.range(0, batchSize)
+                .mapToObj(i -> review(MOVIE_INFO_ID + 1 + i % 10, i))
+                .toList();
+        return reviewStore.insertAll(reviews).block();
+    }
+
+    private void dropDatabase() {
+        reactiveMongoTemplate.getMongoDatabase()
+                .flatMap(database -> Mono.from(database.drop()))
+                .block();
+    }
+
+    private static Review review(Long movieInfoId, int i) {
+        return new Review(new ObjectId().toHexString(), movieInfoId, "Review number " + i, (double) (i % 10), Instant.now());
+    }
+}
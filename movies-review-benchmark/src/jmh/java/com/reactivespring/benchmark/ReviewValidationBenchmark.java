@@ -0,0 +1,61 @@
+package com.reactivespring.benchmark;
+
+import com.reactivespring.domain.Review;
+import com.reactivespring.validation.ReviewValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation of a {@link Review} against the hand-written {@link ReviewValidator},
+ * for a valid body and for one that breaks every constraint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReviewValidationBenchmark {
+
+    ValidatorFactory validatorFactory;
+    Validator validator;
+    Review valid;
+    Review invalid;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        valid = new Review(null, 1L, "Awesome Movie", 9.0);
+        invalid = new Review(null, null, "Awesome Movie", -9.0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Review>> validateValid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Review>> validateInvalid() {
+        return validator.validate(invalid);
+    }
+
+    @Benchmark
+    public List<String> handWrittenValid() {
+        return ReviewValidator.validate(valid);
+    }
+
+    @Benchmark
+    public List<String> handWrittenInvalid() {
+        return ReviewValidator.validate(invalid);
+    }
+}
@@ -0,0 +1,119 @@
+package com.reactivespring.archive;
+
+import com.mongodb.client.result.DeleteResult;
+import com.reactivespring.domain.Review;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Cold tier of the reviews: the {@value #COLLECTION} collection, holding reviews moved out of
+ * the hot {@code review} collection by {@link ReviewArchiver}.
+ * <p>
+ * The collection is created zstd-compressed and carries only the (movieInfoId, _id) index the
+ * paged reads need, so it costs far less disk and RAM per review than the hot tier.
+ */
+@Component
+@Slf4j
+public class ReviewArchive {
+
+    public static final String COLLECTION = "reviewArchive";
+    static final String INDEX_NAME = "movieInfoId_reviewId";
+
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public ReviewArchive(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureCollection().subscribe(
+                name -> log.info("Review archive index verified : {}", name),
+                ex -> log.error("Exception Caught in ensureCollection : {}", ex.getMessage(), ex));
+    }
+
+    public Mono<String> ensureCollection() {
+        var create = new Document("create", COLLECTION)
+                .append("storageEngine", new Document("wiredTiger",
+                        new Document("configString", "block_compressor=zstd")));
+        return reactiveMongoTemplate.collectionExists(COLLECTION)
+                .flatMap(exists -> exists ? Mono.empty() : reactiveMongoTemplate.executeCommand(create))
+                .then(reactiveMongoTemplate.indexOps(COLLECTION)
+                        .ensureIndex(new Index().on("movieInfoId", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named(INDEX_NAME)));
+    }
+
+    /**
+     * Archived reviews in {@code reviewId} order, optionally of one movie and after a cursor.
+     */
+    public Flux<Review> find(Long movieInfoId, String after, Integer limit) {
+        var query = new Query().with(Sort.by(Sort.Direction.ASC, "reviewId"));
+        if (movieInfoId != null) {
+            query.addCriteria(where("movieInfoId").is(movieInfoId));
+        }
+        if (after != null) {
+            query.addCriteria(where("reviewId").gt(after));
+        }
+        if (limit != null) {
+            query.limit(limit);
+        }
+        return reactiveMongoTemplate.find(query, Review.class, COLLECTION);
+    }
+
+    public Mono<Review> findById(String reviewId) {
+        return reactiveMongoTemplate.findById(reviewId, Review.class, COLLECTION);
+    }
+
+    /**
+     * Same contract as {@code ReviewStore.update}: stores the new comment and rating only if the
+     * archived review still has the rating of {@code previous}, and is empty otherwise.
+     */
+    public Mono<Review> update(Review previous, Review updated) {
+        var query = Query.query(where("reviewId").is(updated.getReviewId()).and("rating").is(previous.getRating()));
+        var update = new Update()
+                .set("comment", updated.getComment())
+                .set("rating", updated.getRating());
+        return reactiveMongoTemplate.updateFirst(query, update, Review.class, COLLECTION)
+                .filter(result -> result.getMatchedCount() > 0)
+                .map(result -> updated);
+    }
+
+    /**
+     * Emits whether the review was still archived.
+     */
+    public Mono<Boolean> deleteById(String reviewId) {
+        return reactiveMongoTemplate.remove(Query.query(where("reviewId").is(reviewId)), Review.class, COLLECTION)
+                .map(result -> result.getDeletedCount() > 0);
+    }
+
+    public Mono<Long> deleteAllById(List<String> reviewIds) {
+        return reactiveMongoTemplate.remove(Query.query(where("reviewId").in(reviewIds)), Review.class, COLLECTION)
+                .map(DeleteResult::getDeletedCount);
+    }
+
+    /**
+     * Upserts the reviews by id, so copying a batch again after a failed run is harmless.
+     */
+    public Mono<Integer> saveAll(List<Review> reviews) {
+        var bulkOps = reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class, COLLECTION);
+        reviews.forEach(review -> bulkOps.replaceOne(Query.query(where("reviewId").is(review.getReviewId())), review,
+                FindAndReplaceOptions.options().upsert()));
+        return bulkOps.execute()
+                .map(result -> result.getUpserts().size() + result.getMatchedCount());
+    }
+}
@@ -0,0 +1,126 @@
+package com.reactivespring.archive;
+
+import com.mongodb.client.result.UpdateResult;
+import com.reactivespring.domain.Review;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Moves reviews whose {@code createdAt} is older than {@code maxAge} from the hot collection to
+ * the {@link ReviewArchive}, oldest first, {@code batchSize} at a time and at most
+ * {@code maxBatches} batches per run.
+ * <p>
+ * Each batch is upserted into the archive before it is removed from the hot collection, and a
+ * review is only removed if it has not changed since it was copied. Each removal is its own
+ * atomic {@code findAndRemove}, so the archiver knows which reviews it moved. The archive copy of
+ * every other review in the batch is dropped again: one that was updated in between stays hot
+ * and is copied on the next run, and one that was deleted in between stays deleted. A delete
+ * that loses the race to the archiver finds the review in the archive instead. Review
+ * aggregates are not touched, as
+ * archiving does not add or remove reviews. Keep {@code maxAge} above a day, since the
+ * leaderboard windows are rebuilt from the hot collection. Only the document layout is archived;
+ * buckets already keep the per-review overhead of the hot tier low.
+ * <p>
+ * Reviews stored before {@code createdAt} was recorded have none. Each run first backfills it
+ * from the timestamp of their ObjectId; reviews with other ids keep no {@code createdAt} and
+ * stay hot.
+ */
+@Component
+@ConditionalOnExpression("${review.archive.enabled:false} and '${review.storage.layout:document}' == 'document'")
+@Slf4j
+public class ReviewArchiver {
+
+    static final int REMOVE_CONCURRENCY = 16;
+
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+    private ReviewArchive reviewArchive;
+    private Duration maxAge;
+    private int batchSize;
+    private int maxBatches;
+
+    public ReviewArchiver(ReactiveMongoTemplate reactiveMongoTemplate,
+                          ReviewArchive reviewArchive,
+                          @Value("${review.archive.max-age:P90D}") Duration maxAge,
+                          @Value("${review.archive.batch-size:1000}") int batchSize,
+                          @Value("${review.archive.max-batches:100}") int maxBatches) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.reviewArchive = reviewArchive;
+        this.maxAge = maxAge;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(fixedDelayString = "${review.archive.interval:PT10M}", initialDelayString = "${review.archive.interval:PT10M}")
+    public Mono<Long> archive() {
+        return backfillCreatedAt()
+                .then(archiveOlderThan(Instant.now().minus(maxAge)))
+                .doOnNext(archived -> log.info("Archived {} reviews", archived))
+                .doOnError(ex -> log.error("Review archival failed : {}", ex.getMessage(), ex));
+    }
+
+    /**
+     * Sets the missing {@code createdAt} of reviews with an ObjectId to the time of that id.
+     */
+    public Mono<Long> backfillCreatedAt() {
+        var query = Query.query(where("createdAt").is(null).and("_id").type(JsonSchemaObject.Type.OBJECT_ID));
+        var update = AggregationUpdate.update().set("createdAt").toValue(ConvertOperators.ToDate.toDate("$_id"));
+        return reactiveMongoTemplate.updateMulti(query, update, Review.class)
+                .map(UpdateResult::getModifiedCount)
+                .doOnNext(backfilled -> {
+                    if (backfilled > 0) {
+                        log.info("Backfilled createdAt of {} reviews", backfilled);
+                    }
+                });
+    }
+
+    public Mono<Long> archiveOlderThan(Instant cutoff) {
+        return Mono.defer(() -> archiveBatch(cutoff))
+                .repeat(maxBatches - 1)
+                .takeUntil(archived -> archived < batchSize)
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> archiveBatch(Instant cutoff) {
+        var query = Query.query(where("createdAt").lt(cutoff))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .limit(batchSize);
+        return reactiveMongoTemplate.find(query, Review.class)
+                .collectList()
+                .flatMap(batch -> batch.isEmpty()
+                        ? Mono.just(0L)
+                        : reviewArchive.saveAll(batch).then(removeUnchanged(batch)));
+    }
+
+    private Mono<Long> removeUnchanged(List<Review> batch) {
+        return Flux.fromIterable(batch)
+                .flatMap(review -> reactiveMongoTemplate.findAndRemove(Query.query(where("reviewId").is(review.getReviewId())
+                                .and("comment").is(review.getComment())
+                                .and("rating").is(review.getRating())), Review.class), REMOVE_CONCURRENCY)
+                .map(Review::getReviewId)
+                .collect(Collectors.toSet())
+                .flatMap(moved -> {
+                    var notMoved = batch.stream().map(Review::getReviewId).filter(reviewId -> !moved.contains(reviewId)).toList();
+                    return notMoved.isEmpty()
+                            ? Mono.just((long) moved.size())
+                            : reviewArchive.deleteAllById(notMoved).thenReturn((long) moved.size());
+                });
+    }
+}
@@ -1,23 +1,38 @@
 package com.reactivespring.domain;
 
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import lombok.NonNull;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Document
+@CompoundIndex(name = "movieInfoId_reviewId", def = "{'movieInfoId': 1, '_id': 1}")
 public class Review {
 
     @Id
     private String reviewId;
+    @NotNull(message = "rating.movieInfoId : must not be null")
     private Long movieInfoId;
+    @TextIndexed
     private String comment;
-    //@Min(value = 0L, message = "rating.negative : please pass a non-negative value")
+    @Min(value = 0L, message = "rating.negative : please pass a non-negative value")
     private Double rating;
+    @Indexed(name = "createdAt")
+    private Instant createdAt;
+
+    public Review(String reviewId, Long movieInfoId, String comment, Double rating) {
+        this(reviewId, movieInfoId, comment, rating, null);
+    }
 }
@@ -0,0 +1,54 @@
+package com.reactivespring.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Up to {@code review.storage.bucket-size} reviews of one movie in a single document, with the
+ * running review count and rating sum of the bucket. {@code firstReviewId} and
+ * {@code lastReviewId} bound the ids held; removals leave them as they are, so they are
+ * bounds, not necessarily the exact min and max.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(ReviewBucket.COLLECTION)
+public class ReviewBucket {
+
+    public static final String COLLECTION = "reviewBucket";
+
+    @Id
+    private String bucketId;
+    private Long movieInfoId;
+    private Integer count;
+    private Double sum;
+    private String firstReviewId;
+    private String lastReviewId;
+    private List<Review> reviews = new ArrayList<>();
+
+    /**
+     * A full bucket of {@code reviews}, all of {@code movieInfoId}, sorted by id.
+     */
+    public static ReviewBucket of(String bucketId, Long movieInfoId, List<Review> reviews) {
+        var sorted = new ArrayList<>(reviews);
+        sorted.sort(Comparator.comparing(Review::getReviewId));
+        return new ReviewBucket(bucketId, movieInfoId, sorted.size(), ratingSum(sorted),
+                sorted.get(0).getReviewId(), sorted.get(sorted.size() - 1).getReviewId(), sorted);
+    }
+
+    public static double ratingSum(List<Review> reviews) {
+        return reviews.stream()
+                .map(Review::getRating)
+                .filter(Objects::nonNull)
+                .mapToDouble(Double::doubleValue)
+                .sum();
+    }
+}
@@ -0,0 +1,27 @@
+package com.reactivespring.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.TextScore;
+
+import java.time.Instant;
+
+/**
+ * A {@link Review} matched by a text search, with its text score.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSearchHit {
+
+    @Id
+    private String reviewId;
+    private Long movieInfoId;
+    private String comment;
+    private Double rating;
+    private Instant createdAt;
+    @TextScore
+    private Float score;
+}
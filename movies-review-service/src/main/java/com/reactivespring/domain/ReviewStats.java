@@ -0,0 +1,44 @@
+package com.reactivespring.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running rating aggregate for one movie, kept up to date by {@code $inc} on every review
+ * write so it can be read by id instead of scanning the movie's reviews.
+ * <p>
+ * {@code histogram} counts ratings by their whole-number bucket ({@code "8"} holds 8.0 to 8.9).
+ * Reviews without a rating are not counted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+public class ReviewStats {
+
+    @Id
+    private Long movieInfoId;
+    private long count;
+    private double sum;
+    private Double min;
+    private Double max;
+    private Map<String, Long> histogram = new HashMap<>();
+
+    public static ReviewStats empty(Long movieInfoId) {
+        return new ReviewStats(movieInfoId, 0, 0.0, null, null, new HashMap<>());
+    }
+
+    public static String bucketOf(double rating) {
+        return String.valueOf((long) Math.floor(rating));
+    }
+
+    public Double getAverage() {
+        return count == 0 ? null : sum / count;
+    }
+}
@@ -1,9 +1,13 @@
 package com.reactivespring.exception;
 
+/**
+ * Stackless: it reports bad client input, where a stack trace is never looked at but is
+ * expensive to capture when a client floods invalid requests.
+ */
 public class ReviewDataException extends RuntimeException {
     private String message;
     public ReviewDataException(String s) {
-        super(s);
+        super(s, null, false, false);
         this.message=s;
     }
 }
@@ -0,0 +1,9 @@
+package com.reactivespring.exception;
+
+public class ReviewQueueFullException extends RuntimeException {
+    private String message;
+    public ReviewQueueFullException(String s) {
+        super(s);
+        this.message=s;
+    }
+}
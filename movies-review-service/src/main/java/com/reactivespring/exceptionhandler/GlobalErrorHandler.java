@@ -0,0 +1,59 @@
+package com.reactivespring.exceptionhandler;
+
+import com.reactivespring.exception.ReviewConflictException;
+import com.reactivespring.exception.ReviewDataException;
+import com.reactivespring.exception.ReviewNotFoundException;
+import com.reactivespring.exception.ReviewQueueFullException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+@Component
+@Order(-2)
+@Slf4j
+public class GlobalErrorHandler implements ErrorWebExceptionHandler {
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        var status = statusOf(ex);
+        if (status == null) {
+            log.error("Exception message is : {}", ex.getMessage(), ex);
+            return Mono.error(ex);
+        }
+        if (status.is4xxClientError()) {
+            log.info("Exception message is : {}", ex.getMessage());
+        } else {
+            log.warn("Exception message is : {}", ex.getMessage());
+        }
+        var bufferFactory = exchange.getResponse().bufferFactory();
+        var errorMessage = bufferFactory.wrap(ex.getMessage().getBytes(StandardCharsets.UTF_8));
+        exchange.getResponse().setStatusCode(status);
+        if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return exchange.getResponse().writeWith(Mono.just(errorMessage));
+    }
+
+    private static HttpStatus statusOf(Throwable ex) {
+        if (ex instanceof ReviewDataException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        if (ex instanceof ReviewNotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (ex instanceof ReviewConflictException) {
+            return HttpStatus.CONFLICT;
+        }
+        if (ex instanceof ReviewQueueFullException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,256 @@
+package com.reactivespring.handler;
+
+import com.reactivespring.archive.ReviewArchive;
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewSearchHit;
+import com.reactivespring.domain.ReviewStats;
+import com.reactivespring.exception.ReviewConflictException;
+import com.reactivespring.exception.ReviewDataException;
+import com.reactivespring.exception.ReviewNotFoundException;
+import com.reactivespring.leaderboard.Leaderboard;
+import com.reactivespring.leaderboard.LeaderboardWindow;
+import com.reactivespring.limit.ConcurrencyLimiter;
+import com.reactivespring.queue.ReviewWriteQueue;
+import com.reactivespring.service.ReviewQueryService;
+import com.reactivespring.service.ReviewStatsService;
+import com.reactivespring.storage.ReviewLayout;
+import com.reactivespring.storage.ReviewLayoutMigration;
+import com.reactivespring.storage.ReviewStore;
+import com.reactivespring.stream.ReviewStream;
+import com.reactivespring.validation.ReviewValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Function;
+
+@Component
+@Slf4j
+public class ReviewHandler {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final int MAX_UPDATE_ATTEMPTS = 3;
+
+    private ReviewStore reviewStore;
+    private ReviewQueryService reviewQueryService;
+    private ReviewArchive reviewArchive;
+    private ReviewWriteQueue reviewWriteQueue;
+    private ReviewStatsService reviewStatsService;
+    private Leaderboard leaderboard;
+    private ReviewStream reviewStream;
+    private ConcurrencyLimiter concurrencyLimiter;
+    private ReviewLayoutMigration reviewLayoutMigration;
+    private int streamBatchSize;
+    private int maxSearchLimit;
+
+    public ReviewHandler(ReviewStore reviewStore, ReviewQueryService reviewQueryService,
+                         ReviewArchive reviewArchive, ReviewWriteQueue reviewWriteQueue,
+                         ReviewStatsService reviewStatsService, Leaderboard leaderboard, ReviewStream reviewStream,
+                         ConcurrencyLimiter concurrencyLimiter, ReviewLayoutMigration reviewLayoutMigration,
+                         @Value("${review.stream.batch-size:500}") int streamBatchSize,
+                         @Value("${review.search.max-limit:100}") int maxSearchLimit) {
+        this.reviewStore = reviewStore;
+        this.reviewQueryService = reviewQueryService;
+        this.reviewArchive = reviewArchive;
+        this.reviewWriteQueue = reviewWriteQueue;
+        this.reviewStatsService = reviewStatsService;
+        this.leaderboard = leaderboard;
+        this.reviewStream = reviewStream;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.reviewLayoutMigration = reviewLayoutMigration;
+        this.streamBatchSize = streamBatchSize;
+        this.maxSearchLimit = maxSearchLimit;
+    }
+
+    public Mono<ServerResponse> addReview(ServerRequest request) {
+        return request.bodyToMono(Review.class)
+                .doOnNext(this::validate)
+                .doOnNext(review -> review.setCreatedAt(Instant.now()))
+                .flatMap(reviewWriteQueue::submit)
+                .flatMap(savedReview -> reviewStatsService.recordAdded(savedReview).thenReturn(savedReview))
+                .doOnNext(leaderboard::recordAdded)
+                .doOnNext(reviewStream::publish)
+                .flatMap(ServerResponse.status(201)::bodyValue);
+    }
+
+    private void validate(Review review) {
+        var errors = ReviewValidator.validate(review);
+        if (!errors.isEmpty()) {
+            log.debug("validation errors : {}", errors);
+            throw new ReviewDataException(String.join(",", errors));
+        }
+    }
+
+    /**
+     * With {@code limit} returns one page and, if it is full, the cursor of the next one in
+     * {@link #NEXT_CURSOR_HEADER}. Without it the reviews are streamed from the cursor with
+     * bounded demand, as JSON or, when accepted, NDJSON. Archived reviews follow the hot ones.
+     */
+    public Mono<ServerResponse> getReviews(ServerRequest request) {
+        var movieInfoId = request.queryParam("movieInfoId").map(value -> parseNumber("movieInfoId", value, Long::valueOf));
+        var after = request.queryParam("after").orElse(null);
+        var limit = request.queryParam("limit").map(value -> parseNumber("limit", value, Integer::valueOf));
+
+        if (limit.isPresent()) {
+            if (limit.get() < 1 || limit.get() > MAX_PAGE_SIZE) {
+                return Mono.error(new ReviewDataException("limit : must be between 1 and " + MAX_PAGE_SIZE));
+            }
+            return reviewQueryService.getReviewsPage(movieInfoId.orElse(null), after, limit.get())
+                    .flatMap(page -> {
+                        var response = ServerResponse.ok();
+                        if (page.getNextCursor() != null) {
+                            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+                        }
+                        return response.bodyValue(page.getReviews());
+                    });
+        }
+
+        var reviewsFlux = reviewQueryService.streamReviews(movieInfoId.orElse(null), after)
+                .limitRate(streamBatchSize);
+        return ServerResponse.ok().contentType(streamingContentType(request)).body(reviewsFlux, Review.class);
+    }
+
+    private static MediaType streamingContentType(ServerRequest request) {
+        return request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+    }
+
+    private static <T> T parseNumber(String name, String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new ReviewDataException(name + " : must be a number");
+        }
+    }
+
+    public Mono<ServerResponse> updateReview(ServerRequest request) {
+        var reviewId = request.pathVariable("id");
+        return request.bodyToMono(Review.class)
+                .doOnNext(this::validate)
+                .flatMap(reqReview -> updateReview(reviewId, reqReview, 1))
+                .doOnNext(reviewStream::publish)
+                .flatMap(ServerResponse.ok()::bodyValue);
+    }
+
+    /**
+     * The write only applies if the review still has the rating it was read with, so the
+     * aggregates move by the rating that was actually replaced; a review changed in between is
+     * read again.
+     */
+    private Mono<Review> updateReview(String reviewId, Review reqReview, int attempt) {
+        return findReview(reviewId)
+                .flatMap(found -> {
+                    var review = found.getT1();
+                    var archived = found.getT2();
+                    var previous = new Review(review.getReviewId(), review.getMovieInfoId(), review.getComment(), review.getRating(),
+                            review.getCreatedAt());
+                    review.setComment(reqReview.getComment());
+                    review.setRating(reqReview.getRating());
+                    return (archived ? reviewArchive.update(previous, review) : reviewStore.update(previous, review))
+                            .flatMap(savedReview -> reviewStatsService.recordUpdated(previous, savedReview).thenReturn(savedReview))
+                            .doOnNext(savedReview -> leaderboard.recordUpdated(previous, savedReview));
+                })
+                .switchIfEmpty(Mono.defer(() -> attempt < MAX_UPDATE_ATTEMPTS
+                        ? updateReview(reviewId, reqReview, attempt + 1)
+                        : Mono.error(new ReviewConflictException("Review " + reviewId + " kept changing during the update, retry it"))));
+    }
+
+    /**
+     * Aggregates and leaderboard only count the delete that actually removed the review. A hot
+     * review that is gone by the time of the delete may just have been archived, so the archive
+     * is tried next.
+     */
+    public Mono<ServerResponse> deleteReview(ServerRequest request) {
+        var reviewId = request.pathVariable("id");
+        return findReview(reviewId)
+                .flatMap(found -> (found.getT2()
+                        ? reviewArchive.deleteById(reviewId)
+                        : reviewStore.delete(found.getT1())
+                        .flatMap(deleted -> deleted ? Mono.just(true) : reviewArchive.deleteById(reviewId)))
+                        .filter(Boolean::booleanValue)
+                        .flatMap(deleted -> reviewStatsService.recordRemoved(found.getT1())
+                                .then(Mono.fromRunnable(() -> leaderboard.recordRemoved(found.getT1())))))
+                .then(ServerResponse.noContent().build());
+    }
+
+    // the review and whether it was found in the archive
+    private Mono<Tuple2<Review, Boolean>> findReview(String reviewId) {
+        return reviewStore.findById(reviewId)
+                .map(review -> Tuples.of(review, false))
+                .switchIfEmpty(Mono.defer(() -> reviewArchive.findById(reviewId).map(review -> Tuples.of(review, true))))
+                .switchIfEmpty(Mono.error(new ReviewNotFoundException("Review not found for the given Review id " + reviewId)));
+    }
+
+    public Mono<ServerResponse> getReviewsStream(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(reviewStream.reviews(), Review.class);
+    }
+
+    public Mono<ServerResponse> getReviewStats(ServerRequest request) {
+        var movieInfoId = parseNumber("movieInfoId", request.pathVariable("movieInfoId"), Long::valueOf);
+        return reviewStatsService.getStats(movieInfoId)
+                .flatMap(ServerResponse.ok()::bodyValue);
+    }
+
+    public Mono<ServerResponse> rebuildReviewStats(ServerRequest request) {
+        return ServerResponse.ok().body(reviewStatsService.rebuild(), ReviewStats.class);
+    }
+
+    public Mono<ServerResponse> migrateReviewLayout(ServerRequest request) {
+        var layout = parseEnum("layout", request.queryParam("layout").orElse(""), ReviewLayout.class);
+        return ServerResponse.ok().body(reviewLayoutMigration.migrateTo(layout), Long.class);
+    }
+
+    public Mono<ServerResponse> searchReviews(ServerRequest request) {
+        var text = request.queryParam("q").filter(value -> !value.isBlank());
+        if (text.isEmpty()) {
+            return Mono.error(new ReviewDataException("q : must not be blank"));
+        }
+        var movieInfoId = request.queryParam("movieInfoId").map(value -> parseNumber("movieInfoId", value, Long::valueOf));
+        var limit = request.queryParam("limit").map(value -> parseNumber("limit", value, Integer::valueOf)).orElse(DEFAULT_SEARCH_LIMIT);
+        if (limit < 1 || limit > maxSearchLimit) {
+            return Mono.error(new ReviewDataException("limit : must be between 1 and " + maxSearchLimit));
+        }
+        var hitsFlux = reviewQueryService.searchReviews(text.get(), movieInfoId.orElse(null), limit);
+        return ServerResponse.ok().contentType(streamingContentType(request)).body(hitsFlux, ReviewSearchHit.class);
+    }
+
+    public Mono<ServerResponse> getTopMovies(ServerRequest request) {
+        var ranking = parseEnum("by", request.queryParam("by").orElse("rating"), Leaderboard.Ranking.class);
+        var window = parseEnum("window", request.queryParam("window").orElse("all"), LeaderboardWindow.class);
+        var limit = request.queryParam("limit").map(value -> parseNumber("limit", value, Integer::valueOf)).orElse(10);
+        if (limit < 1 || limit > leaderboard.getSize()) {
+            return Mono.error(new ReviewDataException("limit : must be between 1 and " + leaderboard.getSize()));
+        }
+        return ServerResponse.ok().bodyValue(leaderboard.top(window, ranking, limit));
+    }
+
+    private static <E extends Enum<E>> E parseEnum(String name, String value, Class<E> type) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ReviewDataException(name + " : must be one of " + Arrays.toString(type.getEnumConstants()).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public Mono<ServerResponse> getWriteQueueStats(ServerRequest request) {
+        return ServerResponse.ok().bodyValue(reviewWriteQueue.stats());
+    }
+
+    public Mono<ServerResponse> getConcurrencyLimitStats(ServerRequest request) {
+        return ServerResponse.ok().bodyValue(concurrencyLimiter.stats());
+    }
+}
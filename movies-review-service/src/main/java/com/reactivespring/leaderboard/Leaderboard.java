@@ -0,0 +1,256 @@
+package com.reactivespring.leaderboard;
+
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewStats;
+import com.reactivespring.storage.ReviewStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * "Top rated" and "most reviewed" movies, computed from in-memory per-movie counters instead of
+ * scanning the reviews collection.
+ * <p>
+ * Review writes only update the counters: all-time counters are kept for every reviewed movie,
+ * and the {@link LeaderboardWindow#HOUR} and {@link LeaderboardWindow#DAY} windows are
+ * {@link SlidingCounters} keyed by the review's {@code createdAt}. The rankings themselves are
+ * recomputed periodically, not maintained per write: the first read of a window and ranking
+ * after {@code refreshInterval} scans that window's counters and selects the top {@code size}
+ * movies with a bounded heap, so a read costs O(movies log size) at most once per interval and
+ * a ranking lags writes by up to {@code refreshInterval}. Memory grows with the number of
+ * reviewed movies, not with the number of reviews. Ranking by rating only considers movies with
+ * at least {@code minReviews} rated reviews in the window. Reviews without a rating are not
+ * counted, as in {@link ReviewStats}.
+ * <p>
+ * On startup the all-time counters are loaded from {@link ReviewStats} and the windows from the
+ * reviews of the last day, through the {@code createdAt} index.
+ */
+@Component
+@Slf4j
+public class Leaderboard {
+
+    public enum Ranking { RATING, COUNT }
+
+    private static final class State {
+        private final Map<Long, MovieCounter> all = new ConcurrentHashMap<>();
+        private final Map<LeaderboardWindow, SlidingCounters> windows = new EnumMap<>(LeaderboardWindow.class);
+
+        private State() {
+            for (var window : LeaderboardWindow.values()) {
+                if (window.getLength() != null) {
+                    windows.put(window, new SlidingCounters(window.getLength().toMillis(), window.getSlot().toMillis()));
+                }
+            }
+        }
+    }
+
+    private record Snapshot(long computedAt, List<LeaderboardEntry> entries) {
+    }
+
+    private record Delta(Review review, int sign) {
+    }
+
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+    private ReviewStore reviewStore;
+    private int size;
+    private long minReviews;
+    private long refreshMillis;
+    private LongSupplier clock;
+
+    private final AtomicReference<State> state = new AtomicReference<>(new State());
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    // writes hold the read lock, so the swap at the end of a rebuild sees every buffered delta
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private Queue<Delta> pendingDeltas;
+
+    public Leaderboard(ReactiveMongoTemplate reactiveMongoTemplate,
+                       ReviewStore reviewStore,
+                       @Value("${review.leaderboard.size:100}") int size,
+                       @Value("${review.leaderboard.min-reviews:5}") long minReviews,
+                       @Value("${review.leaderboard.refresh-interval:5s}") Duration refreshInterval) {
+        this(reactiveMongoTemplate, reviewStore, size, minReviews, refreshInterval, System::currentTimeMillis);
+    }
+
+    Leaderboard(ReactiveMongoTemplate reactiveMongoTemplate, ReviewStore reviewStore, int size, long minReviews, Duration refreshInterval,
+                LongSupplier clock) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.reviewStore = reviewStore;
+        this.size = size;
+        this.minReviews = minReviews;
+        this.refreshMillis = refreshInterval.toMillis();
+        this.clock = clock;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void recordAdded(Review review) {
+        record(review, 1);
+    }
+
+    public void recordRemoved(Review review) {
+        record(review, -1);
+    }
+
+    public void recordUpdated(Review previous, Review updated) {
+        record(previous, -1);
+        record(updated, 1);
+    }
+
+    private void record(Review review, int sign) {
+        swapLock.readLock().lock();
+        try {
+            apply(state.get(), review, sign);
+            if (pendingDeltas != null) {
+                pendingDeltas.add(new Delta(review, sign));
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private void apply(State current, Review review, int sign) {
+        if (review.getMovieInfoId() == null || review.getRating() == null) {
+            return;
+        }
+        var movieInfoId = review.getMovieInfoId();
+        var sumDelta = sign * review.getRating();
+        current.all.computeIfAbsent(movieInfoId, id -> new MovieCounter()).add(sign, sumDelta);
+        if (review.getCreatedAt() != null) {
+            var createdAt = review.getCreatedAt().toEpochMilli();
+            var now = clock.getAsLong();
+            current.windows.values().forEach(counters -> counters.add(createdAt, now, movieInfoId, sign, sumDelta));
+        }
+    }
+
+    public List<LeaderboardEntry> top(LeaderboardWindow window, Ranking ranking, int limit) {
+        var now = clock.getAsLong();
+        var snapshot = snapshots.compute(window + ":" + ranking, (key, existing) ->
+                existing == null || now - existing.computedAt() >= refreshMillis
+                        ? new Snapshot(now, computeTop(window, ranking, now))
+                        : existing);
+        var entries = snapshot.entries();
+        return entries.subList(0, Math.min(limit, entries.size()));
+    }
+
+    private List<LeaderboardEntry> computeTop(LeaderboardWindow window, Ranking ranking, long now) {
+        var current = state.get();
+        var totals = window == LeaderboardWindow.ALL ? current.all : current.windows.get(window).totals(now);
+
+        var order = comparator(ranking);
+        // min-heap of the best entries seen so far; its head is the one to beat
+        var heap = new PriorityQueue<Map.Entry<Long, MovieCounter>>(size + 1, order);
+        for (var entry : totals.entrySet()) {
+            var count = entry.getValue().count();
+            if (count <= 0 || (ranking == Ranking.RATING && count < minReviews)) {
+                continue;
+            }
+            heap.offer(entry);
+            if (heap.size() > size) {
+                heap.poll();
+            }
+        }
+        var top = new ArrayList<LeaderboardEntry>(heap.size());
+        while (!heap.isEmpty()) {
+            var entry = heap.poll();
+            top.add(new LeaderboardEntry(entry.getKey(), entry.getValue().count(), entry.getValue().average()));
+        }
+        Collections.reverse(top);
+        return top;
+    }
+
+    private static Comparator<Map.Entry<Long, MovieCounter>> comparator(Ranking ranking) {
+        Comparator<Map.Entry<Long, MovieCounter>> byCount = Comparator.comparingLong(entry -> entry.getValue().count());
+        Comparator<Map.Entry<Long, MovieCounter>> byAverage = Comparator.comparingDouble(entry -> entry.getValue().average());
+        var primary = ranking == Ranking.RATING ? byAverage.thenComparing(byCount) : byCount.thenComparing(byAverage);
+        // lower ids win ties, so they must compare as greater
+        return primary.thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild().subscribe(
+                reviews -> log.info("Leaderboard rebuilt from {} recent reviews", reviews),
+                ex -> log.error("Exception Caught in leaderboard rebuild : {}", ex.getMessage(), ex));
+    }
+
+    /**
+     * Rebuilds every window from Mongo into a fresh state and swaps it in; emits the number of
+     * recent reviews read. Writes recorded while the rebuild runs keep updating the live state
+     * and are buffered, then replayed onto the fresh state right before the swap. A write that
+     * Mongo already returned to the rebuild is then counted twice, which only the writes of
+     * those few seconds can cause.
+     */
+    public Mono<Long> rebuild() {
+        return Mono.defer(() -> {
+            var fresh = new State();
+            var deltas = startBuffering();
+            var now = clock.getAsLong();
+            var since = Instant.ofEpochMilli(now - LeaderboardWindow.DAY.getLength().toMillis());
+
+            return reactiveMongoTemplate.findAll(ReviewStats.class)
+                    .doOnNext(stats -> fresh.all.put(stats.getMovieInfoId(), new MovieCounter(stats.getCount(), stats.getSum())))
+                    .thenMany(reviewStore.findCreatedAfter(since))
+                    .filter(review -> review.getMovieInfoId() != null && review.getRating() != null)
+                    .doOnNext(review -> fresh.windows.values().forEach(counters -> counters.add(review.getCreatedAt().toEpochMilli(), now,
+                            review.getMovieInfoId(), 1, review.getRating())))
+                    .count()
+                    .doOnNext(reviews -> swapIn(fresh, deltas))
+                    .doFinally(signal -> stopBuffering(deltas));
+        });
+    }
+
+    private Queue<Delta> startBuffering() {
+        swapLock.writeLock().lock();
+        try {
+            pendingDeltas = new ConcurrentLinkedQueue<>();
+            return pendingDeltas;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private void swapIn(State fresh, Queue<Delta> deltas) {
+        swapLock.writeLock().lock();
+        try {
+            deltas.forEach(delta -> apply(fresh, delta.review(), delta.sign()));
+            state.set(fresh);
+            snapshots.clear();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private void stopBuffering(Queue<Delta> deltas) {
+        swapLock.writeLock().lock();
+        try {
+            if (pendingDeltas == deltas) {
+                pendingDeltas = null;
+            }
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+}
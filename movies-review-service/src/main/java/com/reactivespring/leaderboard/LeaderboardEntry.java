@@ -0,0 +1,15 @@
+package com.reactivespring.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntry {
+
+    private Long movieInfoId;
+    private Long count;
+    private Double averageRating;
+}
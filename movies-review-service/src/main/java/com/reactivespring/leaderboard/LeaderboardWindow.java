@@ -0,0 +1,30 @@
+package com.reactivespring.leaderboard;
+
+import java.time.Duration;
+
+/**
+ * Time windows a leaderboard is kept for. A windowed leaderboard is a ring of
+ * {@code slot}-wide counters, so it expires old reviews one slot at a time.
+ */
+public enum LeaderboardWindow {
+
+    HOUR(Duration.ofHours(1), Duration.ofMinutes(1)),
+    DAY(Duration.ofDays(1), Duration.ofHours(1)),
+    ALL(null, null);
+
+    private final Duration length;
+    private final Duration slot;
+
+    LeaderboardWindow(Duration length, Duration slot) {
+        this.length = length;
+        this.slot = slot;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    public Duration getSlot() {
+        return slot;
+    }
+}
@@ -0,0 +1,35 @@
+package com.reactivespring.leaderboard;
+
+/**
+ * Rated review count and rating sum of one movie.
+ */
+final class MovieCounter {
+
+    private long count;
+    private double sum;
+
+    MovieCounter() {
+    }
+
+    MovieCounter(long count, double sum) {
+        this.count = count;
+        this.sum = sum;
+    }
+
+    synchronized void add(long countDelta, double sumDelta) {
+        count += countDelta;
+        sum += sumDelta;
+    }
+
+    synchronized void addTo(MovieCounter total) {
+        total.add(count, sum);
+    }
+
+    synchronized long count() {
+        return count;
+    }
+
+    synchronized double average() {
+        return count <= 0 ? 0.0 : sum / count;
+    }
+}
@@ -0,0 +1,66 @@
+package com.reactivespring.leaderboard;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-movie counters over a sliding window, kept as a ring of fixed-width slots.
+ * <p>
+ * A review is counted in the slot of its {@code createdAt}; a slot is cleared when the ring
+ * comes back round to it, so memory holds only the movies reviewed within the window.
+ */
+final class SlidingCounters {
+
+    private static final class Slot {
+        private long start = Long.MIN_VALUE;
+        private final Map<Long, MovieCounter> counters = new ConcurrentHashMap<>();
+    }
+
+    private final long windowMillis;
+    private final long slotMillis;
+    private final Slot[] slots;
+
+    SlidingCounters(long windowMillis, long slotMillis) {
+        this.windowMillis = windowMillis;
+        this.slotMillis = slotMillis;
+        this.slots = new Slot[(int) (windowMillis / slotMillis)];
+        for (var i = 0; i < slots.length; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    void add(long timestamp, long now, Long movieInfoId, long countDelta, double sumDelta) {
+        if (timestamp <= now - windowMillis || timestamp > now) {
+            return;
+        }
+        var slotStart = timestamp - Math.floorMod(timestamp, slotMillis);
+        var slot = slots[(int) Math.floorMod(slotStart / slotMillis, (long) slots.length)];
+        synchronized (slot) {
+            if (slot.start > slotStart) {
+                // the slot already moved on to a newer period
+                return;
+            }
+            if (slot.start < slotStart) {
+                slot.counters.clear();
+                slot.start = slotStart;
+            }
+            slot.counters.computeIfAbsent(movieInfoId, id -> new MovieCounter())
+                    .add(countDelta, sumDelta);
+        }
+    }
+
+    Map<Long, MovieCounter> totals(long now) {
+        var totals = new HashMap<Long, MovieCounter>();
+        for (var slot : slots) {
+            synchronized (slot) {
+                if (slot.start + slotMillis <= now - windowMillis) {
+                    continue;
+                }
+                slot.counters.forEach((movieInfoId, counter) ->
+                        counter.addTo(totals.computeIfAbsent(movieInfoId, id -> new MovieCounter())));
+            }
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,116 @@
+package com.reactivespring.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit adjusted by additive increase / multiplicative decrease on observed latency.
+ * <p>
+ * A request that completes within {@code latencyThresholdNanos} while at least half of the limit
+ * was in use raises the limit by one; a slower request multiplies it by {@code backoffRatio}.
+ * The limit stays between {@code minLimit} and {@code maxLimit}. Once {@link #tryAcquire()}
+ * would go over the limit it returns {@code false} and the caller is expected to shed the
+ * request instead of queueing it.
+ */
+public class AdaptiveLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private double estimatedLimit;
+    private volatile int limit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder slow = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("minLimit must be between 1 and maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Takes one slot, or returns {@code false} when {@link #getLimit()} requests are already in
+     * flight. Every successful call must be paired with {@link #release(long)} or
+     * {@link #releaseWithoutSample()}.
+     */
+    public boolean tryAcquire() {
+        var current = inFlight.incrementAndGet();
+        if (current > limit) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        accepted.increment();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        return true;
+    }
+
+    /**
+     * Frees the slot and feeds the request latency into the limit.
+     */
+    public void release(long elapsedNanos) {
+        var current = inFlight.getAndDecrement();
+        samples.increment();
+        latencyNanos.add(elapsedNanos);
+        if (elapsedNanos > latencyThresholdNanos) {
+            slow.increment();
+        }
+        update(elapsedNanos, current);
+    }
+
+    /**
+     * Frees the slot without a latency sample, for requests cancelled by the client.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void update(long elapsedNanos, int inFlightAtRelease) {
+        if (elapsedNanos > latencyThresholdNanos) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * backoffRatio);
+        } else if (inFlightAtRelease * 2 >= limit) {
+            // only grow while the current limit is actually being used
+            estimatedLimit = Math.min(maxLimit, estimatedLimit + 1);
+        }
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public ConcurrencyLimitStats stats(RouteClass routeClass) {
+        var sampleCount = samples.sum();
+        return new ConcurrencyLimitStats(routeClass,
+                limit,
+                minLimit,
+                maxLimit,
+                inFlight.get(),
+                maxInFlight.get(),
+                accepted.sum(),
+                rejected.sum(),
+                slow.sum(),
+                sampleCount == 0 ? 0.0 : latencyNanos.sum() / 1_000_000.0 / sampleCount);
+    }
+}
@@ -0,0 +1,104 @@
+package com.reactivespring.limit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Sheds review requests once the {@link AdaptiveLimit} of their {@link RouteClass} is reached.
+ * <p>
+ * Rejected requests get a 503 with {@code Retry-After} written directly by the filter, so they
+ * cost neither a handler call nor a Mongo round trip. The review stream, the unpaged NDJSON
+ * listing, the admin routes and the metrics endpoints are not limited: a stream's duration says
+ * nothing about Mongo latency, a stats rebuild or storage migration runs far longer than a
+ * single write and would shrink the write limit, and the metrics have to stay reachable while
+ * the service is shedding.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class ConcurrencyLimitFilter implements WebFilter {
+
+    static final String REVIEWS_PATH = "/v1/reviews";
+    static final Set<String> ADMIN_PATHS = Set.of(REVIEWS_PATH + "/stats/rebuild", REVIEWS_PATH + "/storage/migrate");
+    static final String REJECTED_MESSAGE = "Too many concurrent review requests, please retry later";
+
+    private ConcurrencyLimiter concurrencyLimiter;
+    private boolean enabled;
+    private String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimiter concurrencyLimiter,
+                                  @Value("${review.limit.enabled:true}") boolean enabled,
+                                  @Value("${review.limit.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.enabled = enabled;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var routeClass = enabled ? classify(exchange) : null;
+        if (routeClass == null) {
+            return chain.filter(exchange);
+        }
+        var limit = concurrencyLimiter.limitOf(routeClass);
+        if (!limit.tryAcquire()) {
+            log.debug("Rejected {} request to {}, limit is {}", routeClass, exchange.getRequest().getPath(), limit.getLimit());
+            return reject(exchange);
+        }
+        var start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        limit.releaseWithoutSample();
+                    } else {
+                        limit.release(System.nanoTime() - start);
+                    }
+                });
+    }
+
+    static RouteClass classify(ServerWebExchange exchange) {
+        var request = exchange.getRequest();
+        var path = request.getPath().pathWithinApplication().value();
+        if (!path.startsWith(REVIEWS_PATH) || ADMIN_PATHS.contains(path)) {
+            return null;
+        }
+        if (request.getMethod() != HttpMethod.GET) {
+            return RouteClass.WRITE;
+        }
+        if (path.equals(REVIEWS_PATH + "/stream") || isNdjsonDump(request, path)) {
+            return null;
+        }
+        return RouteClass.READ;
+    }
+
+    // the unpaged NDJSON listing streams every review, the paged one is a bounded read
+    private static boolean isNdjsonDump(ServerHttpRequest request, String path) {
+        return path.equals(REVIEWS_PATH)
+                && !request.getQueryParams().containsKey("limit")
+                && request.getHeaders().getAccept().contains(MediaType.APPLICATION_NDJSON);
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        var response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        var body = response.bufferFactory().wrap(REJECTED_MESSAGE.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(body));
+    }
+}
@@ -0,0 +1,22 @@
+package com.reactivespring.limit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConcurrencyLimitStats {
+
+    private RouteClass routeClass;
+    private Integer limit;
+    private Integer minLimit;
+    private Integer maxLimit;
+    private Integer inFlight;
+    private Integer maxInFlight;
+    private Long accepted;
+    private Long rejected;
+    private Long slow;
+    private Double averageLatencyMillis;
+}
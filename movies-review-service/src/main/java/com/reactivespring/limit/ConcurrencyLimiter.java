@@ -0,0 +1,38 @@
+package com.reactivespring.limit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One {@link AdaptiveLimit} per {@link RouteClass}, all configured from {@code review.limit.*}.
+ */
+@Component
+public class ConcurrencyLimiter {
+
+    private final Map<RouteClass, AdaptiveLimit> limits = new EnumMap<>(RouteClass.class);
+
+    public ConcurrencyLimiter(@Value("${review.limit.initial:20}") int initialLimit,
+                              @Value("${review.limit.min:4}") int minLimit,
+                              @Value("${review.limit.max:200}") int maxLimit,
+                              @Value("${review.limit.latency-threshold:250ms}") Duration latencyThreshold,
+                              @Value("${review.limit.backoff-ratio:0.9}") double backoffRatio) {
+        for (var routeClass : RouteClass.values()) {
+            limits.put(routeClass, new AdaptiveLimit(initialLimit, minLimit, maxLimit, latencyThreshold.toNanos(), backoffRatio));
+        }
+    }
+
+    public AdaptiveLimit limitOf(RouteClass routeClass) {
+        return limits.get(routeClass);
+    }
+
+    public List<ConcurrencyLimitStats> stats() {
+        return limits.entrySet().stream()
+                .map(entry -> entry.getValue().stats(entry.getKey()))
+                .toList();
+    }
+}
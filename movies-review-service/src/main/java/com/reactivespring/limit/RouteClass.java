@@ -0,0 +1,10 @@
+package com.reactivespring.limit;
+
+/**
+ * Groups of routes that share one {@link AdaptiveLimit}, so that slow writes do not take the
+ * concurrency budget of cheap reads and the other way round.
+ */
+public enum RouteClass {
+    READ,
+    WRITE
+}
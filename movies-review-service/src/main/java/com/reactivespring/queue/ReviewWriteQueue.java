@@ -0,0 +1,168 @@
+package com.reactivespring.queue;
+
+import com.reactivespring.domain.Review;
+import com.reactivespring.exception.ReviewDataException;
+import com.reactivespring.exception.ReviewQueueFullException;
+import com.reactivespring.storage.ReviewStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded queue that turns individual review inserts into bulk writes to the {@link ReviewStore}.
+ * <p>
+ * A batch is flushed once it holds {@code batchSize} reviews or its oldest review has waited
+ * {@code maxWait}, with at most {@code concurrency} flushes in flight. Ids are assigned before
+ * queueing, so each caller's {@code Mono} completes with its own saved review, or fails with
+ * its own write error. Once {@code capacity} reviews are waiting, new ones are rejected with
+ * {@link ReviewQueueFullException} instead of piling up.
+ */
+@Component
+@Slf4j
+public class ReviewWriteQueue {
+
+    private record PendingWrite(Review review, Sinks.One<Review> result) {
+    }
+
+    private ReviewStore reviewStore;
+    private int capacity;
+
+    private final Sinks.Many<PendingWrite> sink;
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedReviews = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicInteger lastBatchSize = new AtomicInteger();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    public ReviewWriteQueue(ReviewStore reviewStore,
+                            @Value("${review.write-queue.capacity:10000}") int capacity,
+                            @Value("${review.write-queue.batch-size:200}") int batchSize,
+                            @Value("${review.write-queue.max-wait:20ms}") Duration maxWait,
+                            @Value("${review.write-queue.concurrency:4}") int concurrency) {
+        this.reviewStore = reviewStore;
+        this.capacity = capacity;
+        this.sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<PendingWrite>unbounded(batchSize).get());
+        sink.asFlux()
+                .bufferTimeout(batchSize, maxWait, true)
+                .flatMap(this::flush, concurrency)
+                .subscribe();
+    }
+
+    public Mono<Review> submit(Review review) {
+        return Mono.defer(() -> {
+            if (queueDepth.incrementAndGet() > capacity) {
+                queueDepth.decrementAndGet();
+                rejected.increment();
+                return Mono.error(new ReviewQueueFullException("Review write queue is full, please retry later"));
+            }
+            if (review.getReviewId() == null) {
+                review.setReviewId(new ObjectId().toHexString());
+            }
+            var result = Sinks.<Review>one();
+            var emitResult = emit(new PendingWrite(review, result));
+            if (emitResult.isFailure()) {
+                queueDepth.decrementAndGet();
+                rejected.increment();
+                return Mono.error(new ReviewQueueFullException("Review write queue is not accepting writes : " + emitResult));
+            }
+            submitted.increment();
+            return result.asMono();
+        });
+    }
+
+    // serialized because requests submit from different threads
+    private synchronized Sinks.EmitResult emit(PendingWrite pendingWrite) {
+        return sink.tryEmitNext(pendingWrite);
+    }
+
+    private Mono<Void> flush(List<PendingWrite> batch) {
+        queueDepth.addAndGet(-batch.size());
+        recordBatchSize(batch.size());
+        var reviews = batch.stream().map(PendingWrite::review).toList();
+        var start = System.nanoTime();
+        return reviewStore.insertAll(reviews)
+                .doOnNext(writeErrors -> completeBatch(batch, writeErrors))
+                .onErrorResume(ex -> {
+                    log.error("Exception Caught in flush of {} reviews : {}", batch.size(), ex.getMessage());
+                    failed.add(batch.size());
+                    batch.forEach(pendingWrite -> pendingWrite.result().tryEmitError(ex));
+                    return Mono.empty();
+                })
+                .doFinally(signal -> recordFlushLatency(System.nanoTime() - start))
+                .then();
+    }
+
+    private void complete(PendingWrite pendingWrite) {
+        written.increment();
+        pendingWrite.result().tryEmitValue(pendingWrite.review());
+    }
+
+    private void completeBatch(List<PendingWrite> batch, Map<Integer, String> writeErrors) {
+        if (!writeErrors.isEmpty()) {
+            log.error("Exception Caught in flush, {} of {} reviews were not written", writeErrors.size(), batch.size());
+        }
+        for (var i = 0; i < batch.size(); i++) {
+            var pendingWrite = batch.get(i);
+            var writeError = writeErrors.get(i);
+            if (writeError == null) {
+                complete(pendingWrite);
+            } else {
+                failed.increment();
+                pendingWrite.result().tryEmitError(new ReviewDataException(writeError));
+            }
+        }
+    }
+
+    private void recordBatchSize(int size) {
+        batches.increment();
+        batchedReviews.add(size);
+        lastBatchSize.set(size);
+        maxBatchSize.accumulateAndGet(size, Math::max);
+    }
+
+    private void recordFlushLatency(long nanos) {
+        flushNanos.add(nanos);
+        maxFlushNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public ReviewWriteQueueStats stats() {
+        var batchCount = batches.sum();
+        return new ReviewWriteQueueStats(capacity,
+                queueDepth.get(),
+                submitted.sum(),
+                rejected.sum(),
+                written.sum(),
+                failed.sum(),
+                batchCount,
+                lastBatchSize.get(),
+                maxBatchSize.get(),
+                batchCount == 0 ? 0.0 : (double) batchedReviews.sum() / batchCount,
+                batchCount == 0 ? 0.0 : flushNanos.sum() / 1_000_000.0 / batchCount,
+                maxFlushNanos.get() / 1_000_000.0);
+    }
+
+    // completing the sink flushes whatever is still buffered
+    @PreDestroy
+    public synchronized void close() {
+        sink.tryEmitComplete();
+    }
+}
@@ -0,0 +1,24 @@
+package com.reactivespring.queue;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewWriteQueueStats {
+
+    private Integer capacity;
+    private Integer queueDepth;
+    private Long submitted;
+    private Long rejected;
+    private Long written;
+    private Long failed;
+    private Long batches;
+    private Integer lastBatchSize;
+    private Integer maxBatchSize;
+    private Double averageBatchSize;
+    private Double averageFlushMillis;
+    private Double maxFlushMillis;
+}
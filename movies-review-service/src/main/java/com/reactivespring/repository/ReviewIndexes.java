@@ -0,0 +1,66 @@
+package com.reactivespring.repository;
+
+import com.reactivespring.domain.Review;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Creates the indexes declared on {@link Review} once the application is up and checks that
+ * every one of them exists afterwards, as automatic index creation is off.
+ */
+@Component
+@Slf4j
+public class ReviewIndexes {
+
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+    private MongoMappingContext mongoMappingContext;
+
+    public ReviewIndexes(ReactiveMongoTemplate reactiveMongoTemplate, MongoMappingContext mongoMappingContext) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.mongoMappingContext = mongoMappingContext;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureIndexes().subscribe(
+                names -> log.info("Review indexes verified : {}", names),
+                ex -> log.error("Exception Caught in ensureIndexes : {}", ex.getMessage(), ex));
+    }
+
+    public Mono<Set<String>> ensureIndexes() {
+        var indexOps = reactiveMongoTemplate.indexOps(Review.class);
+        var definitions = declaredIndexes();
+        var expected = definitions.stream()
+                .map(definition -> definition.getIndexOptions().getString("name"))
+                .collect(Collectors.toSet());
+
+        return Flux.fromIterable(definitions)
+                .concatMap(indexOps::ensureIndex)
+                .thenMany(indexOps.getIndexInfo())
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet())
+                .flatMap(existing -> existing.containsAll(expected)
+                        ? Mono.just(existing)
+                        : Mono.error(new IllegalStateException("Missing Review indexes, expected : " + expected + " found : " + existing)));
+    }
+
+    private List<IndexDefinition> declaredIndexes() {
+        var resolver = new MongoPersistentEntityIndexResolver(mongoMappingContext);
+        return StreamSupport.stream(resolver.resolveIndexFor(Review.class).spliterator(), false)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,21 @@
+package com.reactivespring.repository;
+
+import com.reactivespring.domain.Review;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Review lookups in {@code reviewId} order, so {@code after} can be the last id of the
+ * previous page. The by-movie queries are served by the (movieInfoId, _id) index.
+ */
+public interface ReviewReactiveRepository extends ReactiveMongoRepository<Review, String> {
+
+    Flux<Review> findByMovieInfoIdOrderByReviewIdAsc(Long movieInfoId, Limit limit);
+
+    Flux<Review> findByMovieInfoIdAndReviewIdGreaterThanOrderByReviewIdAsc(Long movieInfoId, String after, Limit limit);
+
+    Flux<Review> findAllByOrderByReviewIdAsc(Limit limit);
+
+    Flux<Review> findByReviewIdGreaterThanOrderByReviewIdAsc(String after, Limit limit);
+}
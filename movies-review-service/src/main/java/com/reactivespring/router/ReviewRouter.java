@@ -0,0 +1,33 @@
+package com.reactivespring.router;
+
+import com.reactivespring.handler.ReviewHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+@Configuration
+public class ReviewRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> reviewsRoute(ReviewHandler reviewHandler) {
+        return route()
+                .path("/v1/reviews", builder ->
+                        builder
+                                .POST("", reviewHandler::addReview)
+                                .GET("", reviewHandler::getReviews)
+                                .GET("/stream", reviewHandler::getReviewsStream)
+                                .GET("/stats/{movieInfoId}", reviewHandler::getReviewStats)
+                                .GET("/top", reviewHandler::getTopMovies)
+                                .GET("/search", reviewHandler::searchReviews)
+                                .POST("/stats/rebuild", reviewHandler::rebuildReviewStats)
+                                .POST("/storage/migrate", reviewHandler::migrateReviewLayout)
+                                .PUT("/{id}", reviewHandler::updateReview)
+                                .DELETE("/{id}", reviewHandler::deleteReview))
+                .GET("/v1/metrics/review-writes", reviewHandler::getWriteQueueStats)
+                .GET("/v1/metrics/review-limits", reviewHandler::getConcurrencyLimitStats)
+                .build();
+    }
+}
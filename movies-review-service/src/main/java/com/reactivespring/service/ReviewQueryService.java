@@ -0,0 +1,90 @@
+package com.reactivespring.service;
+
+import com.reactivespring.archive.ReviewArchive;
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewPage;
+import com.reactivespring.domain.ReviewSearchHit;
+import com.reactivespring.storage.ReviewStore;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads reviews across the hot tier, in whichever {@link ReviewStore} layout, and the
+ * {@link ReviewArchive}.
+ * <p>
+ * Each tier is read in {@code reviewId} order, the hot tier first; the archive is only queried
+ * once a page or stream runs past the end of the hot tier. Cursors into the archive carry the
+ * {@value #ARCHIVE_CURSOR_PREFIX} prefix, plain cursors point into the hot tier.
+ */
+@Service
+public class ReviewQueryService {
+
+    static final String ARCHIVE_CURSOR_PREFIX = "archive:";
+
+    private ReviewStore reviewStore;
+    private ReviewArchive reviewArchive;
+
+    public ReviewQueryService(ReviewStore reviewStore, ReviewArchive reviewArchive) {
+        this.reviewStore = reviewStore;
+        this.reviewArchive = reviewArchive;
+    }
+
+    public Mono<ReviewPage> getReviewsPage(Long movieInfoId, String after, int limit) {
+        if (isArchiveCursor(after)) {
+            return reviewArchive.find(movieInfoId, archivedId(after), limit)
+                    .collectList()
+                    .map(archived -> new ReviewPage(archived, nextCursor(archived, limit, true)));
+        }
+        return reviewStore.find(movieInfoId, after, Limit.of(limit))
+                .collectList()
+                .flatMap(hot -> {
+                    if (hot.size() == limit) {
+                        return Mono.just(new ReviewPage(hot, nextCursor(hot, limit, false)));
+                    }
+                    return reviewArchive.find(movieInfoId, null, limit - hot.size())
+                            .collectList()
+                            .map(archived -> {
+                                var page = new ArrayList<Review>(hot);
+                                page.addAll(archived);
+                                return new ReviewPage(page, nextCursor(page, limit, !archived.isEmpty()));
+                            });
+                });
+    }
+
+    public Flux<Review> streamReviews(Long movieInfoId, String after) {
+        if (isArchiveCursor(after)) {
+            return reviewArchive.find(movieInfoId, archivedId(after), null);
+        }
+        return reviewStore.find(movieInfoId, after, Limit.unlimited())
+                .concatWith(Flux.defer(() -> reviewArchive.find(movieInfoId, null, null)));
+    }
+
+    /**
+     * Reviews whose comment matches {@code text}, best text score first. Only the hot tier is
+     * searched; the archive carries no text index.
+     */
+    public Flux<ReviewSearchHit> searchReviews(String text, Long movieInfoId, int limit) {
+        return reviewStore.search(text, movieInfoId, limit);
+    }
+
+    private static String nextCursor(List<Review> page, int limit, boolean archived) {
+        if (page.size() < limit) {
+            return null;
+        }
+        var last = page.get(page.size() - 1).getReviewId();
+        return archived ? ARCHIVE_CURSOR_PREFIX + last : last;
+    }
+
+    private static boolean isArchiveCursor(String after) {
+        return after != null && after.startsWith(ARCHIVE_CURSOR_PREFIX);
+    }
+
+    private static String archivedId(String after) {
+        return after.substring(ARCHIVE_CURSOR_PREFIX.length());
+    }
+}
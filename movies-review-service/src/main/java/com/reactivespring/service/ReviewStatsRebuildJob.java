@@ -0,0 +1,33 @@
+package com.reactivespring.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Periodically recomputes every {@code ReviewStats} aggregate from the raw reviews, repairing
+ * drift left by writes that saved a review but failed before its {@code $inc} landed.
+ * Enabled with {@code review.stats.rebuild.enabled=true}; {@code POST /v1/reviews/stats/rebuild}
+ * runs the same rebuild on demand.
+ */
+@Component
+@ConditionalOnProperty(name = "review.stats.rebuild.enabled", havingValue = "true")
+@Slf4j
+public class ReviewStatsRebuildJob {
+
+    private ReviewStatsService reviewStatsService;
+
+    public ReviewStatsRebuildJob(ReviewStatsService reviewStatsService) {
+        this.reviewStatsService = reviewStatsService;
+    }
+
+    @Scheduled(fixedDelayString = "${review.stats.rebuild.interval:PT6H}", initialDelayString = "${review.stats.rebuild.interval:PT6H}")
+    public Mono<Long> rebuild() {
+        return reviewStatsService.rebuild()
+                .count()
+                .doOnNext(rebuilt -> log.info("Review stats rebuild finished for {} movies", rebuilt))
+                .doOnError(ex -> log.error("Review stats rebuild failed : {}", ex.getMessage(), ex));
+    }
+}
@@ -0,0 +1,277 @@
+package com.reactivespring.service;
+
+import com.reactivespring.archive.ReviewArchive;
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewStats;
+import com.reactivespring.storage.ReviewStore;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.sort;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Maintains one {@link ReviewStats} document per movie.
+ * <p>
+ * Adds and removes are single atomic {@code findAndModify} calls: {@code $inc} on count, sum and
+ * the histogram bucket, plus {@code $min}/{@code $max} on add. {@code $min}/{@code $max} cannot be
+ * undone, so removing the current min or max recomputes that one movie from its reviews, and an
+ * aggregate whose count drops to zero is deleted. {@link #rebuild()} recomputes every movie from
+ * the raw reviews, hot and archived, to repair any drift.
+ * <p>
+ * Every {@code $inc} also increments a {@code version} field the aggregate class does not map. A
+ * recompute reads that version before it aggregates the movie's reviews and replaces or removes
+ * the aggregate only if the version is unchanged, so it never overwrites a concurrent
+ * {@code $inc}; on a conflict it reads the reviews again.
+ */
+@Service
+@Slf4j
+public class ReviewStatsService {
+
+    static final String VERSION = "version";
+    static final String REBUILT_AT = "rebuiltAt";
+    static final int MAX_REBUILD_ATTEMPTS = 3;
+    private static final long NO_STATS = -1;
+
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+    private ReviewStore reviewStore;
+
+    public ReviewStatsService(ReactiveMongoTemplate reactiveMongoTemplate, ReviewStore reviewStore) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.reviewStore = reviewStore;
+    }
+
+    public Mono<ReviewStats> getStats(Long movieInfoId) {
+        return reactiveMongoTemplate.findById(movieInfoId, ReviewStats.class)
+                .defaultIfEmpty(ReviewStats.empty(movieInfoId));
+    }
+
+    public Mono<ReviewStats> recordAdded(Review review) {
+        if (review.getMovieInfoId() == null || review.getRating() == null) {
+            return Mono.empty();
+        }
+        var rating = review.getRating();
+        var update = new Update()
+                .inc("count", 1)
+                .inc("sum", rating)
+                .inc("histogram." + ReviewStats.bucketOf(rating), 1)
+                .min("min", rating)
+                .max("max", rating)
+                .inc(VERSION, 1);
+        return reactiveMongoTemplate.findAndModify(byMovieInfoId(review.getMovieInfoId()), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), ReviewStats.class);
+    }
+
+    public Mono<ReviewStats> recordRemoved(Review review) {
+        if (review.getMovieInfoId() == null || review.getRating() == null) {
+            return Mono.empty();
+        }
+        return decrement(review)
+                .flatMap(stats -> {
+                    if (stats.getCount() <= 0) {
+                        return reactiveMongoTemplate.remove(byMovieInfoId(stats.getMovieInfoId()).addCriteria(where("count").lte(0)), ReviewStats.class)
+                                .then(Mono.empty());
+                    }
+                    return boundaryRemoved(stats, review.getRating()) ? rebuild(stats.getMovieInfoId()) : Mono.just(stats);
+                });
+    }
+
+    /**
+     * Moves a review's rating from {@code previous} to {@code updated}. Must be called after
+     * {@code updated} is saved, as any recompute reads the stored reviews.
+     */
+    public Mono<ReviewStats> recordUpdated(Review previous, Review updated) {
+        if (Objects.equals(previous.getMovieInfoId(), updated.getMovieInfoId())
+                && Objects.equals(previous.getRating(), updated.getRating())) {
+            return Mono.empty();
+        }
+        if (!Objects.equals(previous.getMovieInfoId(), updated.getMovieInfoId())
+                || previous.getRating() == null || updated.getRating() == null) {
+            return recordRemoved(previous)
+                    .then(recordAdded(updated));
+        }
+        // a recompute already sees the updated rating, so only add it when there was none
+        return decrement(previous)
+                .flatMap(stats -> stats.getCount() <= 0 || boundaryRemoved(stats, previous.getRating())
+                        ? rebuild(stats.getMovieInfoId())
+                        : recordAdded(updated))
+                .switchIfEmpty(Mono.defer(() -> rebuild(updated.getMovieInfoId())));
+    }
+
+    /**
+     * Recomputes the aggregate of every movie from its reviews, stamping each with the start of
+     * the run in {@code rebuiltAt}. Aggregates left unstamped belong to movies without rated
+     * reviews, or were created by a write during the run; they are recomputed one by one, which
+     * removes the former and keeps the latter.
+     */
+    public Flux<ReviewStats> rebuild() {
+        var rebuiltAt = new Date();
+        var unstamped = Query.query(new Criteria().orOperator(where(REBUILT_AT).lt(rebuiltAt), where(REBUILT_AT).exists(false)));
+        unstamped.fields().include("movieInfoId");
+        return movieInfoIds()
+                .concatMap(movieInfoId -> rebuild(movieInfoId, rebuiltAt, 1))
+                .concatWith(Flux.defer(() -> reactiveMongoTemplate.find(unstamped, ReviewStats.class))
+                        .concatMap(stats -> rebuild(stats.getMovieInfoId(), rebuiltAt, 1)))
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    public Mono<ReviewStats> rebuild(Long movieInfoId) {
+        return rebuild(movieInfoId, new Date(), 1)
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    // the recomputed aggregate, or none if the movie has no rated reviews
+    private Mono<Optional<ReviewStats>> rebuild(Long movieInfoId, Date rebuiltAt, int attempt) {
+        return reactiveMongoTemplate.findById(movieInfoId, Document.class, collectionName())
+                .map(document -> ((Number) document.getOrDefault(VERSION, 0L)).longValue())
+                .defaultIfEmpty(NO_STATS)
+                .flatMap(version -> aggregate(movieInfoId)
+                        .next()
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(stats -> replace(movieInfoId, version, stats.orElse(null), rebuiltAt)
+                                .flatMap(replaced -> {
+                                    if (replaced) {
+                                        return Mono.just(stats);
+                                    }
+                                    if (attempt >= MAX_REBUILD_ATTEMPTS) {
+                                        log.warn("Review stats of movie {} changed during {} rebuild attempts, kept as they are", movieInfoId, attempt);
+                                        return getStats(movieInfoId).map(Optional::of);
+                                    }
+                                    return rebuild(movieInfoId, rebuiltAt, attempt + 1);
+                                })));
+    }
+
+    // whether the aggregate was still at version, and so was replaced by stats or, without stats, removed
+    private Mono<Boolean> replace(Long movieInfoId, long version, ReviewStats stats, Date rebuiltAt) {
+        if (stats == null) {
+            return version == NO_STATS
+                    ? Mono.just(true)
+                    : reactiveMongoTemplate.remove(atVersion(movieInfoId, version), collectionName())
+                    .map(result -> result.getDeletedCount() > 0);
+        }
+        var document = new Document();
+        reactiveMongoTemplate.getConverter().write(stats, document);
+        document.append(VERSION, version + 1).append(REBUILT_AT, rebuiltAt);
+        if (version == NO_STATS) {
+            return reactiveMongoTemplate.insert(document, collectionName())
+                    .thenReturn(true)
+                    .onErrorReturn(DuplicateKeyException.class, false);
+        }
+        return reactiveMongoTemplate.findAndReplace(atVersion(movieInfoId, version), document, FindAndReplaceOptions.none(),
+                        Document.class, collectionName(), Document.class)
+                .map(previous -> true)
+                .defaultIfEmpty(false);
+    }
+
+    private static Query atVersion(Long movieInfoId, long version) {
+        // aggregates written before versioning have no version field, which $in null matches
+        var versionCriteria = version == 0 ? where(VERSION).in(0L, null) : where(VERSION).is(version);
+        return Query.query(where("_id").is(movieInfoId).andOperator(versionCriteria));
+    }
+
+    private String collectionName() {
+        return reactiveMongoTemplate.getCollectionName(ReviewStats.class);
+    }
+
+    /**
+     * The movies with at least one rated review, hot or archived.
+     */
+    private Flux<Long> movieInfoIds() {
+        var stages = new ArrayList<AggregationOperation>(reviewStore.unwindReviews());
+        stages.addAll(List.of(
+                UnionWithOperation.unionWith(ReviewArchive.COLLECTION),
+                match(where("rating").ne(null)),
+                group("movieInfoId"),
+                sort(Sort.Direction.ASC, "_id")));
+        return reactiveMongoTemplate.aggregate(newAggregation(stages).withOptions(AggregationOptions.builder().allowDiskUse(true).build()),
+                        reviewStore.collectionName(), Document.class)
+                .map(document -> ((Number) document.get("_id")).longValue());
+    }
+
+    private Flux<ReviewStats> aggregate(Long movieInfoId) {
+        var byMovie = match(where("movieInfoId").is(movieInfoId));
+        // narrow to the movie before the store unwinds its documents into reviews, and in the archive
+        var stages = new ArrayList<AggregationOperation>();
+        stages.add(byMovie);
+        stages.addAll(reviewStore.unwindReviews());
+        // archived reviews still count; group by bucket first so the histogram falls out of the second group
+        stages.addAll(List.of(
+                UnionWithOperation.unionWith(ReviewArchive.COLLECTION).pipeline(byMovie),
+                match(where("movieInfoId").is(movieInfoId).and("rating").ne(null)),
+                project("movieInfoId", "rating")
+                        .and(ConvertOperators.ToLong.toLong(ArithmeticOperators.Floor.floorValueOf("rating"))).as("bucket"),
+                group("movieInfoId", "bucket")
+                        .count().as("count")
+                        .sum("rating").as("sum")
+                        .min("rating").as("min")
+                        .max("rating").as("max"),
+                group("movieInfoId")
+                        .sum("count").as("count")
+                        .sum("sum").as("sum")
+                        .min("min").as("min")
+                        .max("max").as("max")
+                        .push(new Document("bucket", "$_id.bucket").append("count", "$count")).as("buckets")));
+        return reactiveMongoTemplate.aggregate(newAggregation(stages), reviewStore.collectionName(), Document.class)
+                .map(ReviewStatsService::toReviewStats);
+    }
+
+    private static ReviewStats toReviewStats(Document document) {
+        var histogram = new HashMap<String, Long>();
+        for (var bucket : document.getList("buckets", Document.class, List.of())) {
+            histogram.put(String.valueOf(((Number) bucket.get("bucket")).longValue()), ((Number) bucket.get("count")).longValue());
+        }
+        return new ReviewStats(((Number) document.get("_id")).longValue(),
+                ((Number) document.get("count")).longValue(),
+                ((Number) document.get("sum")).doubleValue(),
+                ((Number) document.get("min")).doubleValue(),
+                ((Number) document.get("max")).doubleValue(),
+                histogram);
+    }
+
+    private Mono<ReviewStats> decrement(Review review) {
+        var rating = review.getRating();
+        var update = new Update()
+                .inc("count", -1)
+                .inc("sum", -rating)
+                .inc("histogram." + ReviewStats.bucketOf(rating), -1)
+                .inc(VERSION, 1);
+        return reactiveMongoTemplate.findAndModify(byMovieInfoId(review.getMovieInfoId()), update,
+                FindAndModifyOptions.options().returnNew(true), ReviewStats.class);
+    }
+
+    private static boolean boundaryRemoved(ReviewStats stats, Double rating) {
+        return rating.equals(stats.getMin()) || rating.equals(stats.getMax());
+    }
+
+    private static Query byMovieInfoId(Long movieInfoId) {
+        return Query.query(where("movieInfoId").is(movieInfoId));
+    }
+}
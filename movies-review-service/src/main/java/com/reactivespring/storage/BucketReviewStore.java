@@ -0,0 +1,260 @@
+package com.reactivespring.storage;
+
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewBucket;
+import com.reactivespring.domain.ReviewSearchHit;
+import com.reactivespring.exception.ReviewDataException;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.replaceRoot;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.unwind;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Reviews packed per movie into {@link ReviewBucket} documents of at most {@code bucketSize}
+ * reviews, so a movie with many reviews costs a handful of documents and index entries per
+ * {@code bucketSize} reviews instead of one each.
+ * <p>
+ * New reviews are {@code $push}ed into a bucket of their movie that still has room, in one
+ * upsert per movie and batch; when none has room the upsert starts a new bucket. Reads fetch
+ * the buckets in {@code firstReviewId} order and merge their reviews into {@code reviewId}
+ * order, so cursors are plain review ids as in the document layout. Text search needs the
+ * per-review text score and is only available in the document layout.
+ */
+@Component
+@ConditionalOnProperty(name = "review.storage.layout", havingValue = "bucket")
+@Slf4j
+public class BucketReviewStore implements ReviewStore {
+
+    private static final Comparator<Review> BY_REVIEW_ID = Comparator.comparing(Review::getReviewId);
+
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+    private int bucketSize;
+
+    public BucketReviewStore(ReactiveMongoTemplate reactiveMongoTemplate,
+                             @Value("${review.storage.bucket-size:200}") int bucketSize) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.bucketSize = bucketSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureIndexes().subscribe(
+                names -> log.info("Review bucket indexes verified : {}", names),
+                ex -> log.error("Exception Caught in ensureIndexes : {}", ex.getMessage(), ex));
+    }
+
+    public Mono<List<String>> ensureIndexes() {
+        var indexOps = reactiveMongoTemplate.indexOps(ReviewBucket.class);
+        return Flux.just(
+                        // finds a bucket with room on insert
+                        new Index().on("movieInfoId", Sort.Direction.ASC).on("count", Sort.Direction.ASC).named("movieInfoId_count"),
+                        // ordered reads; lastReviewId is checked in the index, not the bucket
+                        new Index().on("movieInfoId", Sort.Direction.ASC).on("firstReviewId", Sort.Direction.ASC)
+                                .on("lastReviewId", Sort.Direction.ASC).named("movieInfoId_firstReviewId_lastReviewId"),
+                        new Index().on("firstReviewId", Sort.Direction.ASC).on("lastReviewId", Sort.Direction.ASC)
+                                .named("firstReviewId_lastReviewId"),
+                        new Index().on("reviews._id", Sort.Direction.ASC).named("reviews_reviewId"),
+                        new Index().on("reviews.createdAt", Sort.Direction.ASC).named("reviews_createdAt"))
+                .concatMap(indexOps::ensureIndex)
+                .collectList();
+    }
+
+    @Override
+    public Mono<Review> findById(String reviewId) {
+        var query = byReviewId(reviewId);
+        query.fields().position("reviews", 1);
+        return reactiveMongoTemplate.findOne(query, ReviewBucket.class)
+                .flatMap(bucket -> Mono.justOrEmpty(bucket.getReviews().stream()
+                        .filter(review -> reviewId.equals(review.getReviewId()))
+                        .findFirst()));
+    }
+
+    @Override
+    public Flux<Review> find(Long movieInfoId, String after, Limit limit) {
+        var query = new Query().with(Sort.by(Sort.Direction.ASC, "firstReviewId"));
+        if (movieInfoId != null) {
+            query.addCriteria(where("movieInfoId").is(movieInfoId));
+        }
+        if (after != null) {
+            query.addCriteria(where("lastReviewId").gt(after));
+        }
+        var reviews = inReviewIdOrder(reactiveMongoTemplate.find(query, ReviewBucket.class), after);
+        return limit.isLimited() ? reviews.take(limit.max(), true) : reviews;
+    }
+
+    /**
+     * Merges the reviews of buckets sorted by {@code firstReviewId} into {@code reviewId}
+     * order. Every later bucket only holds ids from its {@code firstReviewId} on, so once a
+     * bucket arrives all pending reviews below its first id are final. Buckets rarely overlap,
+     * so little more than one bucket is held at a time.
+     */
+    static Flux<Review> inReviewIdOrder(Flux<ReviewBucket> buckets, String after) {
+        return Flux.defer(() -> {
+            var pending = new PriorityQueue<>(BY_REVIEW_ID);
+            return buckets
+                    .concatWith(Mono.fromSupplier(ReviewBucket::new))
+                    .concatMapIterable(bucket -> {
+                        var watermark = bucket.getFirstReviewId();
+                        var ready = new ArrayList<Review>();
+                        while (!pending.isEmpty() && (watermark == null || pending.peek().getReviewId().compareTo(watermark) < 0)) {
+                            ready.add(pending.poll());
+                        }
+                        for (var review : bucket.getReviews()) {
+                            if (after == null || review.getReviewId().compareTo(after) > 0) {
+                                pending.add(review);
+                            }
+                        }
+                        return ready;
+                    }, 1);
+        });
+    }
+
+    @Override
+    public Flux<Review> findCreatedAfter(Instant since) {
+        var aggregation = newAggregation(
+                match(where("reviews.createdAt").gt(Date.from(since))),
+                unwind("reviews"),
+                replaceRoot("reviews"),
+                match(where("createdAt").gt(Date.from(since))),
+                project("movieInfoId", "rating", "createdAt"));
+        return reactiveMongoTemplate.aggregate(aggregation, ReviewBucket.COLLECTION, Review.class);
+    }
+
+    @Override
+    public Flux<ReviewSearchHit> search(String text, Long movieInfoId, int limit) {
+        return Flux.error(new ReviewDataException("q : text search is not available with the bucket review layout"));
+    }
+
+    @Override
+    public Mono<Map<Integer, String>> insertAll(List<Review> reviews) {
+        var byMovie = new LinkedHashMap<Long, List<Integer>>();
+        for (var i = 0; i < reviews.size(); i++) {
+            byMovie.computeIfAbsent(reviews.get(i).getMovieInfoId(), movieInfoId -> new ArrayList<>()).add(i);
+        }
+        var chunks = new ArrayList<List<Integer>>();
+        byMovie.values().forEach(positions -> {
+            for (var from = 0; from < positions.size(); from += bucketSize) {
+                chunks.add(positions.subList(from, Math.min(from + bucketSize, positions.size())));
+            }
+        });
+
+        var bulkOps = reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReviewBucket.class);
+        for (var chunk : chunks) {
+            var chunkReviews = chunk.stream().map(reviews::get).toList();
+            bulkOps.upsert(bucketWithRoom(chunkReviews.get(0).getMovieInfoId(), chunkReviews.size()), append(chunkReviews));
+        }
+        return bulkOps.execute()
+                .map(result -> Map.<Integer, String>of())
+                .onErrorResume(ex -> {
+                    var bulkWriteException = BulkWriteErrors.find(ex);
+                    if (bulkWriteException == null) {
+                        return Mono.error(ex);
+                    }
+                    // a failed upsert fails every review of its chunk
+                    var writeErrors = new HashMap<Integer, String>();
+                    bulkWriteException.getWriteErrors().forEach(error ->
+                            chunks.get(error.getIndex()).forEach(position -> writeErrors.put(position, error.getMessage())));
+                    return Mono.just(writeErrors);
+                });
+    }
+
+    private Query bucketWithRoom(Long movieInfoId, int reviews) {
+        return Query.query(where("movieInfoId").is(movieInfoId).and("count").lte(bucketSize - reviews));
+    }
+
+    private static Update append(List<Review> reviews) {
+        var sorted = new ArrayList<>(reviews);
+        sorted.sort(BY_REVIEW_ID);
+        var update = new Update()
+                .inc("count", sorted.size())
+                .inc("sum", ReviewBucket.ratingSum(sorted))
+                .min("firstReviewId", sorted.get(0).getReviewId())
+                .max("lastReviewId", sorted.get(sorted.size() - 1).getReviewId());
+        update.push("reviews").sort(Sort.by(Sort.Direction.ASC, "_id")).each(sorted.toArray());
+        return update;
+    }
+
+    @Override
+    public Mono<Review> update(Review previous, Review updated) {
+        var update = new Update()
+                .set("reviews.$.comment", updated.getComment())
+                .set("reviews.$.rating", updated.getRating())
+                .inc("sum", ratingOf(updated) - ratingOf(previous));
+        var reviewId = reactiveMongoTemplate.getConverter().convertId(updated.getReviewId(), ObjectId.class);
+        var query = Query.query(where("reviews").elemMatch(where("_id").is(reviewId).and("rating").is(previous.getRating())));
+        return reactiveMongoTemplate.updateFirst(query, update, ReviewBucket.class)
+                .filter(result -> result.getMatchedCount() > 0)
+                .map(result -> updated);
+    }
+
+    /**
+     * Pulls the review out of its bucket and drops the bucket once it is empty. The removal
+     * only matches a bucket whose count is still zero, so a concurrent insert into it wins.
+     */
+    @Override
+    public Mono<Boolean> delete(Review review) {
+        var reviewId = reactiveMongoTemplate.getConverter().convertId(review.getReviewId(), ObjectId.class);
+        var query = byReviewId(review.getReviewId());
+        query.fields().include("count");
+        var update = new Update()
+                .pull("reviews", new Document("_id", reviewId))
+                .inc("count", -1)
+                .inc("sum", -ratingOf(review));
+        return reactiveMongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), ReviewBucket.class)
+                .flatMap(bucket -> bucket.getCount() > 0
+                        ? Mono.just(true)
+                        : reactiveMongoTemplate.remove(Query.query(where("bucketId").is(bucket.getBucketId())
+                        .and("count").lte(0)), ReviewBucket.class).thenReturn(true))
+                .defaultIfEmpty(false);
+    }
+
+    @Override
+    public String collectionName() {
+        return ReviewBucket.COLLECTION;
+    }
+
+    @Override
+    public List<AggregationOperation> unwindReviews() {
+        return List.of(unwind("reviews"), replaceRoot("reviews"));
+    }
+
+    private static Query byReviewId(String reviewId) {
+        return Query.query(where("reviews.reviewId").is(reviewId));
+    }
+
+    private static double ratingOf(Review review) {
+        return review.getRating() == null ? 0.0 : review.getRating();
+    }
+}
@@ -0,0 +1,18 @@
+package com.reactivespring.storage;
+
+import com.mongodb.MongoBulkWriteException;
+
+final class BulkWriteErrors {
+
+    private BulkWriteErrors() {
+    }
+
+    static MongoBulkWriteException find(Throwable ex) {
+        for (var cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulkWriteException) {
+                return bulkWriteException;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,125 @@
+package com.reactivespring.storage;
+
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewSearchHit;
+import com.reactivespring.repository.ReviewReactiveRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * One document per review in the {@code review} collection, read through the
+ * (movieInfoId, _id) index. This is the default layout.
+ */
+@Component
+@ConditionalOnProperty(name = "review.storage.layout", havingValue = "document", matchIfMissing = true)
+public class DocumentReviewStore implements ReviewStore {
+
+    private ReviewReactiveRepository reviewReactiveRepository;
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public DocumentReviewStore(ReviewReactiveRepository reviewReactiveRepository, ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reviewReactiveRepository = reviewReactiveRepository;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Mono<Review> findById(String reviewId) {
+        return reviewReactiveRepository.findById(reviewId);
+    }
+
+    @Override
+    public Flux<Review> find(Long movieInfoId, String after, Limit limit) {
+        if (movieInfoId == null) {
+            return after == null
+                    ? reviewReactiveRepository.findAllByOrderByReviewIdAsc(limit)
+                    : reviewReactiveRepository.findByReviewIdGreaterThanOrderByReviewIdAsc(after, limit);
+        }
+        return after == null
+                ? reviewReactiveRepository.findByMovieInfoIdOrderByReviewIdAsc(movieInfoId, limit)
+                : reviewReactiveRepository.findByMovieInfoIdAndReviewIdGreaterThanOrderByReviewIdAsc(movieInfoId, after, limit);
+    }
+
+    @Override
+    public Flux<Review> findCreatedAfter(Instant since) {
+        var query = new Query(where("createdAt").gt(since));
+        query.fields().include("movieInfoId", "rating", "createdAt");
+        return reactiveMongoTemplate.find(query, Review.class);
+    }
+
+    /**
+     * Best text score first; the sort and the limit run in Mongo, so at most {@code limit}
+     * hits are read.
+     */
+    @Override
+    public Flux<ReviewSearchHit> search(String text, Long movieInfoId, int limit) {
+        var query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .sortByScore()
+                .limit(limit);
+        if (movieInfoId != null) {
+            query.addCriteria(where("movieInfoId").is(movieInfoId));
+        }
+        return reactiveMongoTemplate.find(query, ReviewSearchHit.class, reactiveMongoTemplate.getCollectionName(Review.class));
+    }
+
+    @Override
+    public Mono<Map<Integer, String>> insertAll(List<Review> reviews) {
+        return reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class)
+                .insert(reviews)
+                .execute()
+                .map(result -> Map.<Integer, String>of())
+                .onErrorResume(ex -> {
+                    var bulkWriteException = BulkWriteErrors.find(ex);
+                    if (bulkWriteException == null) {
+                        return Mono.error(ex);
+                    }
+                    // unordered: everything without a write error of its own was inserted
+                    var writeErrors = new HashMap<Integer, String>();
+                    bulkWriteException.getWriteErrors().forEach(error -> writeErrors.put(error.getIndex(), error.getMessage()));
+                    return Mono.just(writeErrors);
+                });
+    }
+
+    @Override
+    public Mono<Review> update(Review previous, Review updated) {
+        var query = Query.query(where("reviewId").is(updated.getReviewId()).and("rating").is(previous.getRating()));
+        var update = new Update()
+                .set("comment", updated.getComment())
+                .set("rating", updated.getRating());
+        return reactiveMongoTemplate.updateFirst(query, update, Review.class)
+                .filter(result -> result.getMatchedCount() > 0)
+                .map(result -> updated);
+    }
+
+    @Override
+    public Mono<Boolean> delete(Review review) {
+        return reactiveMongoTemplate.remove(Query.query(where("reviewId").is(review.getReviewId())), Review.class)
+                .map(result -> result.getDeletedCount() > 0);
+    }
+
+    @Override
+    public String collectionName() {
+        return reactiveMongoTemplate.getCollectionName(Review.class);
+    }
+
+    @Override
+    public List<AggregationOperation> unwindReviews() {
+        return List.of();
+    }
+}
@@ -0,0 +1,9 @@
+package com.reactivespring.storage;
+
+/**
+ * Values of {@code review.storage.layout}.
+ */
+public enum ReviewLayout {
+    DOCUMENT,
+    BUCKET
+}
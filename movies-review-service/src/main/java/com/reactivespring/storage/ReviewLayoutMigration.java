@@ -0,0 +1,102 @@
+package com.reactivespring.storage;
+
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewBucket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Moves every review into the given {@link ReviewLayout}; emits the number of reviews moved.
+ * <p>
+ * Reviews are copied before their source is removed and every copy is an upsert under a
+ * deterministic id: a bucket built from reviews is named after its first review and only
+ * written if it does not exist yet, a review keeps its own id. A run that stops half way can therefore simply be started again.
+ * Switch {@code review.storage.layout} to the target layout first, so that new reviews are
+ * written where the migrated ones end up; until the run completes, reads miss the reviews
+ * not moved yet.
+ */
+@Component
+@Slf4j
+public class ReviewLayoutMigration {
+
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+    private int bucketSize;
+
+    public ReviewLayoutMigration(ReactiveMongoTemplate reactiveMongoTemplate,
+                                 @Value("${review.storage.bucket-size:200}") int bucketSize) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.bucketSize = bucketSize;
+    }
+
+    public Mono<Long> migrateTo(ReviewLayout layout) {
+        var migrated = layout == ReviewLayout.BUCKET ? toBuckets() : toDocuments();
+        return migrated
+                .doOnNext(reviews -> log.info("Migrated {} reviews to the {} layout", reviews, layout))
+                .doOnError(ex -> log.error("Review layout migration to {} failed : {}", layout, ex.getMessage(), ex));
+    }
+
+    // reads through the (movieInfoId, _id) index, so each movie's reviews arrive together and in order
+    private Mono<Long> toBuckets() {
+        var query = new Query().with(Sort.by(Sort.Direction.ASC, "movieInfoId", "reviewId"));
+        return reactiveMongoTemplate.find(query, Review.class)
+                .windowUntilChanged(Review::getMovieInfoId)
+                .concatMap(movieReviews -> movieReviews.buffer(bucketSize))
+                .concatMap(reviews -> {
+                    var bucket = ReviewBucket.of(reviews.get(0).getReviewId(), reviews.get(0).getMovieInfoId(), reviews);
+                    return reactiveMongoTemplate.upsert(Query.query(where("bucketId").is(bucket.getBucketId())), insertOnly(bucket),
+                                    ReviewBucket.class)
+                            .then(removeReviews(reviews))
+                            .thenReturn((long) reviews.size());
+                }, 1)
+                .reduce(0L, Long::sum);
+    }
+
+    // an existing bucket already holds these reviews and may have taken new ones since, so it is left alone
+    private static Update insertOnly(ReviewBucket bucket) {
+        return new Update()
+                .setOnInsert("movieInfoId", bucket.getMovieInfoId())
+                .setOnInsert("count", bucket.getCount())
+                .setOnInsert("sum", bucket.getSum())
+                .setOnInsert("firstReviewId", bucket.getFirstReviewId())
+                .setOnInsert("lastReviewId", bucket.getLastReviewId())
+                .setOnInsert("reviews", bucket.getReviews());
+    }
+
+    private Mono<Long> toDocuments() {
+        return reactiveMongoTemplate.findAll(ReviewBucket.class)
+                .concatMap(bucket -> {
+                    if (bucket.getReviews().isEmpty()) {
+                        return removeBucket(bucket).thenReturn(0L);
+                    }
+                    var bulkOps = reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class);
+                    bucket.getReviews().forEach(review -> bulkOps.replaceOne(Query.query(where("reviewId").is(review.getReviewId())), review,
+                            FindAndReplaceOptions.options().upsert()));
+                    return bulkOps.execute()
+                            .then(removeBucket(bucket))
+                            .thenReturn((long) bucket.getReviews().size());
+                }, 1)
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Void> removeReviews(List<Review> reviews) {
+        var ids = reviews.stream().map(Review::getReviewId).toList();
+        return reactiveMongoTemplate.remove(Query.query(where("reviewId").in(ids)), Review.class).then();
+    }
+
+    private Mono<Void> removeBucket(ReviewBucket bucket) {
+        return reactiveMongoTemplate.remove(Query.query(where("bucketId").is(bucket.getBucketId())), ReviewBucket.class).then();
+    }
+}
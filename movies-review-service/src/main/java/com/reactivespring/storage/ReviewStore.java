@@ -0,0 +1,60 @@
+package com.reactivespring.storage;
+
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewSearchHit;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The hot tier of the reviews, in the layout selected by {@code review.storage.layout}: one
+ * document per review ({@link DocumentReviewStore}) or reviews packed per movie into buckets
+ * ({@link BucketReviewStore}). {@link ReviewLayoutMigration} moves reviews between the two.
+ */
+public interface ReviewStore {
+
+    Mono<Review> findById(String reviewId);
+
+    /**
+     * Reviews in {@code reviewId} order, optionally of one movie and after a cursor.
+     */
+    Flux<Review> find(Long movieInfoId, String after, Limit limit);
+
+    /**
+     * Reviews created after {@code since}; only movieInfoId, rating and createdAt are read.
+     */
+    Flux<Review> findCreatedAfter(Instant since);
+
+    Flux<ReviewSearchHit> search(String text, Long movieInfoId, int limit);
+
+    /**
+     * Inserts the reviews, which already carry their ids, and emits the write error of every
+     * review that was not stored, keyed by its position in {@code reviews}.
+     */
+    Mono<Map<Integer, String>> insertAll(List<Review> reviews);
+
+    /**
+     * Stores the new comment and rating of {@code updated} if the stored review still has the
+     * rating of {@code previous}, the review as it was read before. Empty if it no longer does
+     * or is gone, so the caller can read it again.
+     */
+    Mono<Review> update(Review previous, Review updated);
+
+    /**
+     * Emits whether the review was still stored, so of two concurrent deletes only one counts.
+     */
+    Mono<Boolean> delete(Review review);
+
+    /**
+     * The collection to aggregate over and the stages that turn its documents into one
+     * document per review.
+     */
+    String collectionName();
+
+    List<AggregationOperation> unwindReviews();
+}
@@ -0,0 +1,62 @@
+package com.reactivespring.stream;
+
+import com.reactivespring.domain.Review;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * One hot sink of saved reviews shared by every {@code /v1/reviews/stream} subscriber.
+ * <p>
+ * New subscribers first get the last {@code replaySize} reviews, then live ones. Each
+ * subscriber drains the sink into a buffer of at most {@code subscriberBufferSize} reviews,
+ * and the {@link OverflowPolicy} decides what happens when that buffer is full, so a slow
+ * client never holds back the sink or the other clients.
+ */
+@Component
+@Slf4j
+public class ReviewStream {
+
+    public enum OverflowPolicy { DROP_OLDEST, DROP_LATEST, DISCONNECT }
+
+    private final Sinks.Many<Review> sink;
+    private final int subscriberBufferSize;
+    private final OverflowPolicy overflowPolicy;
+
+    public ReviewStream(@Value("${review.stream.replay-size:100}") int replaySize,
+                        @Value("${review.stream.subscriber-buffer-size:64}") int subscriberBufferSize,
+                        @Value("${review.stream.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy) {
+        this.sink = Sinks.many().replay().limit(replaySize);
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    // serialized because saves complete on different threads
+    public synchronized void publish(Review review) {
+        var result = sink.tryEmitNext(review);
+        if (result.isFailure()) {
+            log.warn("Review {} not published : {}", review.getReviewId(), result);
+        }
+    }
+
+    public Flux<Review> reviews() {
+        return sink.asFlux()
+                .onBackpressureBuffer(subscriberBufferSize,
+                        review -> log.debug("Review {} dropped for a slow subscriber", review.getReviewId()),
+                        bufferOverflowStrategy());
+    }
+
+    private BufferOverflowStrategy bufferOverflowStrategy() {
+        switch (overflowPolicy) {
+            case DROP_LATEST:
+                return BufferOverflowStrategy.DROP_LATEST;
+            case DISCONNECT:
+                return BufferOverflowStrategy.ERROR;
+            default:
+                return BufferOverflowStrategy.DROP_OLDEST;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.reactivespring.validation;
+
+import com.reactivespring.domain.Review;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hand-written equivalent of the Bean Validation constraints declared on {@link Review}.
+ * <p>
+ * Checks the fields directly and returns the sorted messages instead of throwing; keep it in
+ * step with the annotations on {@link Review}.
+ */
+public final class ReviewValidator {
+
+    static final String MOVIE_INFO_ID_MESSAGE = "rating.movieInfoId : must not be null";
+    static final String RATING_MESSAGE = "rating.negative : please pass a non-negative value";
+
+    private ReviewValidator() {
+    }
+
+    public static List<String> validate(Review review) {
+        if (review.getMovieInfoId() != null && (review.getRating() == null || review.getRating() >= 0)) {
+            return Collections.emptyList();
+        }
+        var errors = new ArrayList<String>(2);
+        if (review.getMovieInfoId() == null) {
+            errors.add(MOVIE_INFO_ID_MESSAGE);
+        }
+        // written so that NaN is rejected, as @Min rejects it
+        if (review.getRating() != null && !(review.getRating() >= 0)) {
+            errors.add(RATING_MESSAGE);
+        }
+        Collections.sort(errors);
+        return errors;
+    }
+}
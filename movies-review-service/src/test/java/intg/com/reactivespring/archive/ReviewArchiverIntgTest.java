@@ -0,0 +1,129 @@
+package com.reactivespring.archive;
+
+import com.reactivespring.domain.Review;
+import com.reactivespring.repository.ReviewReactiveRepository;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+@DataMongoTest
+@ActiveProfiles("test")
+class ReviewArchiverIntgTest {
+
+    @Autowired
+    ReviewReactiveRepository reviewReactiveRepository;
+
+    @Autowired
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
+    ReviewArchive reviewArchive;
+    ReviewArchiver reviewArchiver;
+
+    Instant now = Instant.parse("2024-05-01T12:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        reviewArchive = new ReviewArchive(reactiveMongoTemplate);
+        reviewArchiver = new ReviewArchiver(reactiveMongoTemplate, reviewArchive, Duration.ofDays(90), 2, 10);
+        reviewArchive.ensureCollection().block();
+
+        var old = now.minus(Duration.ofDays(200));
+        reviewReactiveRepository.saveAll(List.of(
+                        new Review("a", 1L, "Awesome Movie", 9.0, old),
+                        new Review("b", 1L, "Good Movie", 7.0, old.plusSeconds(1)),
+                        new Review("c", 1L, "Excellent Movie", 8.0, old.plusSeconds(2)),
+                        new Review("d", 1L, "Recent Movie", 6.0, now)))
+                .blockLast();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewReactiveRepository.deleteAll().block();
+        reactiveMongoTemplate.dropCollection(ReviewArchive.COLLECTION).block();
+    }
+
+    @Test
+    void archiveOlderThan() {
+        //when
+        var archived = reviewArchiver.archiveOlderThan(now.minus(Duration.ofDays(90)));
+
+        //then
+        StepVerifier.create(archived)
+                .expectNext(3L)
+                .verifyComplete();
+        StepVerifier.create(reviewReactiveRepository.findAll().map(Review::getReviewId))
+                .expectNext("d")
+                .verifyComplete();
+        StepVerifier.create(reviewArchive.find(1L, null, null).map(Review::getReviewId))
+                .expectNext("a", "b", "c")
+                .verifyComplete();
+    }
+
+    @Test
+    void archiveOlderThan_isRepeatable() {
+        //given
+        reviewArchiver.archiveOlderThan(now.minus(Duration.ofDays(90))).block();
+
+        //when
+        var archived = reviewArchiver.archiveOlderThan(now.minus(Duration.ofDays(90)));
+
+        //then
+        StepVerifier.create(archived)
+                .expectNext(0L)
+                .verifyComplete();
+        assertEquals(3L, reviewArchive.find(null, null, null).count().block());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void archiveOlderThan_reviewDeletedWhileCopied() {
+        //given
+        var archive = spy(reviewArchive);
+        doAnswer(invocation -> ((Mono<Integer>) invocation.callRealMethod())
+                .flatMap(copied -> reviewReactiveRepository.deleteById("a").thenReturn(copied)))
+                .when(archive).saveAll(argThat(batch -> batch.stream().anyMatch(review -> "a".equals(review.getReviewId()))));
+        var archiver = new ReviewArchiver(reactiveMongoTemplate, archive, Duration.ofDays(90), 2, 10);
+
+        //when
+        archiver.archiveOlderThan(now.minus(Duration.ofDays(90))).block();
+
+        //then
+        StepVerifier.create(reviewArchive.find(1L, null, null).map(Review::getReviewId))
+                .expectNext("b", "c")
+                .verifyComplete();
+    }
+
+    @Test
+    void backfillCreatedAt() {
+        //given
+        var reviewId = new ObjectId();
+        reviewReactiveRepository.save(new Review(reviewId.toHexString(), 2L, "Legacy Movie", 5.0)).block();
+
+        //when
+        var backfilled = reviewArchiver.backfillCreatedAt();
+
+        //then
+        StepVerifier.create(backfilled)
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(reviewReactiveRepository.findById(reviewId.toHexString()))
+                .assertNext(review -> assertEquals(reviewId.getDate().toInstant(), review.getCreatedAt()))
+                .verifyComplete();
+    }
+}
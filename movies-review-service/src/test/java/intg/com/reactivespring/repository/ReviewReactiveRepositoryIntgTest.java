@@ -0,0 +1,86 @@
+package com.reactivespring.repository;
+
+import com.reactivespring.domain.Review;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataMongoTest
+@ActiveProfiles("test")
+@Import(ReviewIndexes.class)
+class ReviewReactiveRepositoryIntgTest {
+
+    @Autowired
+    ReviewReactiveRepository reviewReactiveRepository;
+
+    @Autowired
+    ReviewIndexes reviewIndexes;
+
+    @Autowired
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        var reviewsList = List.of(
+                new Review("a", 1L, "Awesome Movie", 9.0),
+                new Review("b", 1L, "Awesome Movie1", 9.0),
+                new Review("c", 1L, "Good Movie", 7.0),
+                new Review("d", 2L, "Excellent Movie", 8.0));
+
+        reviewIndexes.ensureIndexes().block();
+        reviewReactiveRepository.saveAll(reviewsList).blockLast();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewReactiveRepository.deleteAll().block();
+    }
+
+    @Test
+    void ensureIndexes() {
+        StepVerifier.create(reviewIndexes.ensureIndexes())
+                .assertNext(names -> assertTrue(names.contains("movieInfoId_reviewId")))
+                .verifyComplete();
+    }
+
+    @Test
+    void findByMovieInfoId_pages() {
+        //when
+        var firstPage = reviewReactiveRepository.findByMovieInfoIdOrderByReviewIdAsc(1L, Limit.of(2)).collectList().block();
+        var secondPage = reviewReactiveRepository.findByMovieInfoIdAndReviewIdGreaterThanOrderByReviewIdAsc(1L,
+                firstPage.get(1).getReviewId(), Limit.of(2)).collectList().block();
+
+        //then
+        assertEquals(List.of("a", "b"), firstPage.stream().map(Review::getReviewId).toList());
+        assertEquals(List.of("c"), secondPage.stream().map(Review::getReviewId).toList());
+    }
+
+    @Test
+    void findByMovieInfoId_usesIndex() {
+        var explain = reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(Review.class))
+                .flatMap(collection -> Mono.from(collection.find(new Document("movieInfoId", 1L).append("_id", new Document("$gt", "a")))
+                        .sort(new Document("_id", 1))
+                        .explain()))
+                .block();
+
+        assert explain != null;
+        var winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+        assertFalse(winningPlan.contains("COLLSCAN"), "query plan is a collection scan : " + winningPlan);
+        assertFalse(winningPlan.contains("\"SORT\""), "query plan sorts in memory : " + winningPlan);
+    }
+}
@@ -0,0 +1,62 @@
+package com.reactivespring.service;
+
+import com.reactivespring.archive.ReviewArchive;
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewSearchHit;
+import com.reactivespring.repository.ReviewIndexes;
+import com.reactivespring.repository.ReviewReactiveRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+@DataMongoTest
+@ActiveProfiles("test")
+@Import({ReviewQueryService.class, ReviewArchive.class, ReviewIndexes.class})
+class ReviewQueryServiceIntgTest {
+
+    @Autowired
+    ReviewQueryService reviewQueryService;
+
+    @Autowired
+    ReviewReactiveRepository reviewReactiveRepository;
+
+    @Autowired
+    ReviewIndexes reviewIndexes;
+
+    @BeforeEach
+    void setUp() {
+        reviewIndexes.ensureIndexes().block();
+        reviewReactiveRepository.saveAll(List.of(
+                        new Review("a", 1L, "Awesome Movie", 9.0),
+                        new Review("b", 1L, "Awesome movie with an awesome cast", 9.5),
+                        new Review("c", 1L, "Boring Movie", 3.0),
+                        new Review("d", 2L, "Awesome Sequel", 8.0)))
+                .blockLast();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewReactiveRepository.deleteAll().block();
+    }
+
+    @Test
+    void searchReviews_rankedByScore() {
+        StepVerifier.create(reviewQueryService.searchReviews("awesome", 1L, 10).map(ReviewSearchHit::getReviewId))
+                .expectNext("b", "a")
+                .verifyComplete();
+    }
+
+    @Test
+    void searchReviews_limit() {
+        StepVerifier.create(reviewQueryService.searchReviews("awesome", null, 2))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+}
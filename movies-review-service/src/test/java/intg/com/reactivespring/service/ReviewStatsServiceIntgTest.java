@@ -0,0 +1,134 @@
+package com.reactivespring.service;
+
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewStats;
+import com.reactivespring.repository.ReviewReactiveRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataMongoTest
+@ActiveProfiles("test")
+@Import(ReviewStatsService.class)
+class ReviewStatsServiceIntgTest {
+
+    @Autowired
+    ReviewStatsService reviewStatsService;
+
+    @Autowired
+    ReviewReactiveRepository reviewReactiveRepository;
+
+    @Autowired
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @AfterEach
+    void tearDown() {
+        reviewReactiveRepository.deleteAll().block();
+        reactiveMongoTemplate.dropCollection(ReviewStats.class).block();
+    }
+
+    @Test
+    void recordAddedAndRemoved() {
+        //given
+        var first = reviewReactiveRepository.save(new Review(null, 1L, "Awesome Movie", 9.0)).block();
+        var second = reviewReactiveRepository.save(new Review(null, 1L, "Good Movie", 7.5)).block();
+        reviewStatsService.recordAdded(first).block();
+        reviewStatsService.recordAdded(second).block();
+
+        //when
+        reviewReactiveRepository.delete(first).block();
+        var stats = reviewStatsService.recordRemoved(first);
+
+        //then
+        StepVerifier.create(stats)
+                .assertNext(reviewStats -> {
+                    assertEquals(1, reviewStats.getCount());
+                    assertEquals(7.5, reviewStats.getSum());
+                    assertEquals(7.5, reviewStats.getMin());
+                    assertEquals(7.5, reviewStats.getMax());
+                    assertEquals(1L, reviewStats.getHistogram().get("7"));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void recordUpdated() {
+        //given
+        var review = reviewReactiveRepository.save(new Review(null, 1L, "Awesome Movie", 9.0)).block();
+        reviewStatsService.recordAdded(review).block();
+        var updated = reviewReactiveRepository.save(new Review(review.getReviewId(), 1L, "Awesome Movie", 6.0)).block();
+
+        //when
+        var stats = reviewStatsService.recordUpdated(review, updated);
+
+        //then
+        StepVerifier.create(stats)
+                .assertNext(reviewStats -> {
+                    assertEquals(1, reviewStats.getCount());
+                    assertEquals(6.0, reviewStats.getAverage());
+                    assertEquals(6.0, reviewStats.getMax());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void rebuild() {
+        //given
+        reviewReactiveRepository.saveAll(List.of(
+                        new Review(null, 1L, "Awesome Movie", 9.0),
+                        new Review(null, 1L, "Good Movie", 8.0),
+                        new Review(null, 2L, "Excellent Movie", 8.5)))
+                .blockLast();
+        reactiveMongoTemplate.save(new ReviewStats(3L, 4, 20.0, 1.0, 9.0, null)).block();
+
+        //when
+        var rebuilt = reviewStatsService.rebuild().collectList().block();
+
+        //then
+        assertEquals(2, rebuilt.size());
+        StepVerifier.create(reviewStatsService.getStats(1L))
+                .assertNext(reviewStats -> {
+                    assertEquals(2, reviewStats.getCount());
+                    assertEquals(8.5, reviewStats.getAverage());
+                    assertEquals(1L, reviewStats.getHistogram().get("8"));
+                    assertEquals(1L, reviewStats.getHistogram().get("9"));
+                })
+                .verifyComplete();
+        StepVerifier.create(reviewStatsService.getStats(3L))
+                .assertNext(reviewStats -> assertEquals(0, reviewStats.getCount()))
+                .verifyComplete();
+    }
+
+    @Test
+    void rebuild_afterIncrements() {
+        //given
+        var review = reviewReactiveRepository.save(new Review(null, 1L, "Awesome Movie", 9.0)).block();
+        reviewStatsService.recordAdded(review).block();
+        reviewStatsService.rebuild().blockLast();
+
+        //when
+        var added = reviewReactiveRepository.save(new Review(null, 1L, "Good Movie", 7.0)).block();
+        reviewStatsService.recordAdded(added).block();
+        var rebuilt = reviewStatsService.rebuild(1L);
+
+        //then
+        StepVerifier.create(rebuilt)
+                .assertNext(reviewStats -> assertEquals(2, reviewStats.getCount()))
+                .verifyComplete();
+        StepVerifier.create(reviewStatsService.getStats(1L))
+                .assertNext(reviewStats -> {
+                    assertEquals(2, reviewStats.getCount());
+                    assertEquals(8.0, reviewStats.getAverage());
+                })
+                .verifyComplete();
+    }
+}
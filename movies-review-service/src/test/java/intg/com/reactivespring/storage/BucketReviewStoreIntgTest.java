@@ -0,0 +1,157 @@
+package com.reactivespring.storage;
+
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewBucket;
+import com.reactivespring.repository.ReviewReactiveRepository;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataMongoTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"review.storage.layout=bucket", "review.storage.bucket-size=2"})
+@Import({BucketReviewStore.class, ReviewLayoutMigration.class})
+class BucketReviewStoreIntgTest {
+
+    @Autowired
+    BucketReviewStore bucketReviewStore;
+
+    @Autowired
+    ReviewLayoutMigration reviewLayoutMigration;
+
+    @Autowired
+    ReviewReactiveRepository reviewReactiveRepository;
+
+    @Autowired
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
+    List<Review> reviews;
+
+    @BeforeEach
+    void setUp() {
+        bucketReviewStore.ensureIndexes().block();
+        reviews = List.of(
+                review(1L, "Awesome Movie", 9.0),
+                review(1L, "Excellent Movie", 8.0),
+                review(1L, "Good Movie", 7.0),
+                review(2L, "Awesome Sequel", 8.5));
+        bucketReviewStore.insertAll(reviews).block();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reactiveMongoTemplate.dropCollection(ReviewBucket.class).block();
+        reviewReactiveRepository.deleteAll().block();
+    }
+
+    @Test
+    void insertAll_fillsBuckets() {
+        StepVerifier.create(reactiveMongoTemplate.findAll(ReviewBucket.class).filter(bucket -> bucket.getMovieInfoId() == 1L).collectList())
+                .assertNext(buckets -> {
+                    assertEquals(2, buckets.size());
+                    assertEquals(3, buckets.stream().mapToInt(ReviewBucket::getCount).sum());
+                    assertEquals(24.0, buckets.stream().mapToDouble(ReviewBucket::getSum).sum());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void find_pagesInReviewIdOrder() {
+        StepVerifier.create(bucketReviewStore.find(1L, reviews.get(0).getReviewId(), Limit.of(1)).map(Review::getReviewId))
+                .expectNext(reviews.get(1).getReviewId())
+                .verifyComplete();
+
+        StepVerifier.create(bucketReviewStore.find(null, null, Limit.unlimited()).map(Review::getReviewId))
+                .expectNext(reviews.stream().map(Review::getReviewId).toArray(String[]::new))
+                .verifyComplete();
+    }
+
+    @Test
+    void updateAndDelete() {
+        //given
+        var review = reviews.get(2);
+        var updated = new Review(review.getReviewId(), 1L, "Not that good", 5.0, review.getCreatedAt());
+
+        //when
+        bucketReviewStore.update(review, updated).block();
+        bucketReviewStore.delete(reviews.get(0)).block();
+
+        //then
+        StepVerifier.create(bucketReviewStore.findById(review.getReviewId()))
+                .assertNext(found -> assertEquals("Not that good", found.getComment()))
+                .verifyComplete();
+        StepVerifier.create(bucketReviewStore.findById(reviews.get(0).getReviewId()))
+                .verifyComplete();
+        StepVerifier.create(bucketReviewStore.find(1L, null, Limit.unlimited()).count())
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void updateAndDelete_onlyOnce() {
+        //given
+        var review = reviews.get(2);
+        var updated = new Review(review.getReviewId(), 1L, "Not that good", 5.0, review.getCreatedAt());
+        var stale = new Review(review.getReviewId(), 1L, "Even worse", 3.0, review.getCreatedAt());
+        bucketReviewStore.update(review, updated).block();
+
+        //when
+        var staleUpdate = bucketReviewStore.update(review, stale);
+        var firstDelete = bucketReviewStore.delete(reviews.get(0)).block();
+        var secondDelete = bucketReviewStore.delete(reviews.get(0)).block();
+
+        //then
+        StepVerifier.create(staleUpdate)
+                .verifyComplete();
+        assertEquals(true, firstDelete);
+        assertEquals(false, secondDelete);
+        StepVerifier.create(bucketReviewStore.findById(review.getReviewId()))
+                .assertNext(found -> assertEquals(5.0, found.getRating()))
+                .verifyComplete();
+    }
+
+    @Test
+    void findCreatedAfter() {
+        StepVerifier.create(bucketReviewStore.findCreatedAfter(Instant.now().minusSeconds(60)).count())
+                .expectNext(4L)
+                .verifyComplete();
+    }
+
+    @Test
+    void migrate_roundTrip() {
+        StepVerifier.create(reviewLayoutMigration.migrateTo(ReviewLayout.DOCUMENT))
+                .expectNext(4L)
+                .verifyComplete();
+        StepVerifier.create(reviewReactiveRepository.count())
+                .expectNext(4L)
+                .verifyComplete();
+
+        StepVerifier.create(reviewLayoutMigration.migrateTo(ReviewLayout.BUCKET))
+                .expectNext(4L)
+                .verifyComplete();
+        StepVerifier.create(reviewReactiveRepository.count())
+                .expectNext(0L)
+                .verifyComplete();
+        StepVerifier.create(bucketReviewStore.find(null, null, Limit.unlimited()).map(Review::getReviewId))
+                .expectNext(reviews.stream().map(Review::getReviewId).toArray(String[]::new))
+                .verifyComplete();
+    }
+
+    private static Review review(Long movieInfoId, String comment, Double rating) {
+        return new Review(new ObjectId().toHexString(), movieInfoId, comment, rating, Instant.now());
+    }
+}
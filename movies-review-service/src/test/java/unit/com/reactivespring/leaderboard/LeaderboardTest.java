@@ -0,0 +1,127 @@
+package com.reactivespring.leaderboard;
+
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewStats;
+import com.reactivespring.storage.ReviewStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeaderboardTest {
+
+    AtomicLong now = new AtomicLong(Instant.parse("2024-05-01T12:00:00Z").toEpochMilli());
+    Leaderboard leaderboard = new Leaderboard(mock(ReactiveMongoTemplate.class), mock(ReviewStore.class), 2, 2, Duration.ZERO, now::get);
+
+    @Test
+    void top_byCount() {
+        //given
+        addReviews(1L, 9.0, 9.0);
+        addReviews(2L, 5.0, 6.0, 7.0);
+        addReviews(3L, 8.0);
+
+        //when
+        var top = leaderboard.top(LeaderboardWindow.ALL, Leaderboard.Ranking.COUNT, 10);
+
+        //then
+        assertEquals(List.of(new LeaderboardEntry(2L, 3L, 6.0), new LeaderboardEntry(1L, 2L, 9.0)), top);
+    }
+
+    @Test
+    void top_byRating_requiresMinReviews() {
+        //given
+        addReviews(1L, 7.0, 8.0);
+        addReviews(2L, 6.0, 6.0, 6.0);
+        addReviews(3L, 10.0);
+
+        //when
+        var top = leaderboard.top(LeaderboardWindow.ALL, Leaderboard.Ranking.RATING, 10);
+
+        //then
+        assertEquals(List.of(new LeaderboardEntry(1L, 2L, 7.5), new LeaderboardEntry(2L, 3L, 6.0)), top);
+    }
+
+    @Test
+    void top_hourWindowExpires() {
+        //given
+        addReviews(1L, 9.0, 9.0);
+        now.addAndGet(Duration.ofMinutes(30).toMillis());
+        addReviews(2L, 8.0);
+
+        //when
+        now.addAndGet(Duration.ofMinutes(45).toMillis());
+
+        //then
+        assertEquals(List.of(new LeaderboardEntry(2L, 1L, 8.0)),
+                leaderboard.top(LeaderboardWindow.HOUR, Leaderboard.Ranking.COUNT, 10));
+        assertEquals(2, leaderboard.top(LeaderboardWindow.DAY, Leaderboard.Ranking.COUNT, 10).size());
+    }
+
+    @Test
+    void recordUpdatedAndRemoved() {
+        //given
+        var createdAt = Instant.ofEpochMilli(now.get());
+        var review = new Review("a", 1L, "Awesome Movie", 9.0, createdAt);
+        leaderboard.recordAdded(review);
+        leaderboard.recordAdded(new Review("b", 1L, "Good Movie", 7.0, createdAt));
+
+        //when
+        leaderboard.recordUpdated(review, new Review("a", 1L, "Not an Awesome Movie", 5.0, createdAt));
+
+        //then
+        assertEquals(List.of(new LeaderboardEntry(1L, 2L, 6.0)),
+                leaderboard.top(LeaderboardWindow.HOUR, Leaderboard.Ranking.RATING, 10));
+
+        //when
+        leaderboard.recordRemoved(new Review("b", 1L, "Good Movie", 7.0, createdAt));
+        leaderboard.recordRemoved(new Review("a", 1L, "Not an Awesome Movie", 5.0, createdAt));
+
+        //then
+        assertTrue(leaderboard.top(LeaderboardWindow.ALL, Leaderboard.Ranking.COUNT, 10).isEmpty());
+    }
+
+    @Test
+    void rebuild_keepsWritesRecordedWhileRunning() {
+        //given
+        var reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+        var reviewStore = mock(ReviewStore.class);
+        var recentReviews = Sinks.many().unicast().<Review>onBackpressureBuffer();
+        when(reactiveMongoTemplate.findAll(ReviewStats.class))
+                .thenReturn(Flux.just(new ReviewStats(1L, 2, 16.0, 7.0, 9.0, new HashMap<>())));
+        when(reviewStore.findCreatedAfter(any(Instant.class))).thenReturn(recentReviews.asFlux());
+        var rebuilding = new Leaderboard(reactiveMongoTemplate, reviewStore, 2, 2, Duration.ZERO, now::get);
+        var createdAt = Instant.ofEpochMilli(now.get());
+        var rebuilt = rebuilding.rebuild().subscribe();
+
+        //when
+        rebuilding.recordAdded(new Review("c", 1L, "Great Movie", 10.0, createdAt));
+        recentReviews.tryEmitNext(new Review("a", 1L, "Awesome Movie", 9.0, createdAt));
+        recentReviews.tryEmitNext(new Review("b", 1L, "Good Movie", 7.0, createdAt));
+        recentReviews.tryEmitComplete();
+
+        //then
+        assertTrue(rebuilt.isDisposed());
+        assertEquals(List.of(new LeaderboardEntry(1L, 3L, 26.0 / 3)),
+                rebuilding.top(LeaderboardWindow.ALL, Leaderboard.Ranking.COUNT, 10));
+        assertEquals(List.of(new LeaderboardEntry(1L, 3L, 26.0 / 3)),
+                rebuilding.top(LeaderboardWindow.HOUR, Leaderboard.Ranking.COUNT, 10));
+    }
+
+    private void addReviews(Long movieInfoId, double... ratings) {
+        for (var rating : ratings) {
+            leaderboard.recordAdded(new Review(null, movieInfoId, "comment", rating, Instant.ofEpochMilli(now.get())));
+        }
+    }
+}
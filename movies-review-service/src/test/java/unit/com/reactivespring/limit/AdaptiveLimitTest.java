@@ -0,0 +1,87 @@
+package com.reactivespring.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimitTest {
+
+    static long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void tryAcquire_rejectsOverTheLimit() {
+        //given
+        var limit = new AdaptiveLimit(2, 1, 10, THRESHOLD, 0.5);
+
+        //when
+        var first = limit.tryAcquire();
+        var second = limit.tryAcquire();
+        var third = limit.tryAcquire();
+
+        //then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        var stats = limit.stats(RouteClass.READ);
+        assertEquals(2, stats.getInFlight());
+        assertEquals(2L, stats.getAccepted());
+        assertEquals(1L, stats.getRejected());
+    }
+
+    @Test
+    void release_growsWhileFastAndBusy() {
+        //given
+        var limit = new AdaptiveLimit(2, 1, 3, THRESHOLD, 0.5);
+
+        //when
+        for (var i = 0; i < 5; i++) {
+            limit.tryAcquire();
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(5));
+            limit.release(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+
+        //then
+        assertEquals(3, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void release_doesNotGrowWhenIdle() {
+        //given
+        var limit = new AdaptiveLimit(10, 1, 100, THRESHOLD, 0.5);
+
+        //when
+        for (var i = 0; i < 5; i++) {
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+
+        //then
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    void release_backsOffWhenSlow() {
+        //given
+        var limit = new AdaptiveLimit(16, 4, 100, THRESHOLD, 0.5);
+
+        //when
+        limit.tryAcquire();
+        limit.release(TimeUnit.MILLISECONDS.toNanos(500));
+        var afterOne = limit.getLimit();
+        for (var i = 0; i < 5; i++) {
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(500));
+        }
+
+        //then
+        assertEquals(8, afterOne);
+        assertEquals(4, limit.getLimit());
+        assertEquals(6L, limit.stats(RouteClass.WRITE).getSlow());
+    }
+}
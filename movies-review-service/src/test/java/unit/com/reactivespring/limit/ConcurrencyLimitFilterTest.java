@@ -0,0 +1,85 @@
+package com.reactivespring.limit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConcurrencyLimitFilterTest {
+
+    ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(1, 1, 10, Duration.ofMillis(250), 0.9);
+    ConcurrencyLimitFilter concurrencyLimitFilter = new ConcurrencyLimitFilter(concurrencyLimiter, true, 1);
+
+    @Test
+    void filter_shedsOverTheLimit() {
+        //given
+        var pending = Sinks.<Void>empty();
+        WebFilterChain slowChain = exchange -> pending.asMono();
+        var first = MockServerWebExchange.from(MockServerHttpRequest.get("/v1/reviews?movieInfoId=1"));
+        var second = MockServerWebExchange.from(MockServerHttpRequest.get("/v1/reviews?movieInfoId=2"));
+        var firstResult = concurrencyLimitFilter.filter(first, slowChain).subscribe();
+
+        //when
+        var secondResult = concurrencyLimitFilter.filter(second, slowChain);
+
+        //then
+        StepVerifier.create(secondResult).verifyComplete();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, second.getResponse().getStatusCode());
+        assertEquals("1", second.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, concurrencyLimiter.limitOf(RouteClass.READ).getInFlight());
+        pending.tryEmitEmpty();
+        assertEquals(0, concurrencyLimiter.limitOf(RouteClass.READ).getInFlight());
+        assertEquals(1L, concurrencyLimiter.limitOf(RouteClass.READ).stats(RouteClass.READ).getRejected());
+        firstResult.dispose();
+    }
+
+    @Test
+    void filter_routeClassesAreIndependent() {
+        //given
+        WebFilterChain neverChain = exchange -> Mono.never();
+        var read = MockServerWebExchange.from(MockServerHttpRequest.get("/v1/reviews"));
+        var write = MockServerWebExchange.from(MockServerHttpRequest.post("/v1/reviews"));
+        var readResult = concurrencyLimitFilter.filter(read, neverChain).subscribe();
+
+        //when
+        var writeResult = concurrencyLimitFilter.filter(write, neverChain).subscribe();
+
+        //then
+        assertNull(write.getResponse().getStatusCode());
+        assertEquals(1, concurrencyLimiter.limitOf(RouteClass.WRITE).getInFlight());
+        readResult.dispose();
+        writeResult.dispose();
+        assertEquals(0, concurrencyLimiter.limitOf(RouteClass.READ).getInFlight());
+        assertEquals(0, concurrencyLimiter.limitOf(RouteClass.WRITE).getInFlight());
+    }
+
+    @Test
+    void classify() {
+        assertEquals(RouteClass.READ, classify(MockServerHttpRequest.get("/v1/reviews/search?q=awesome")));
+        assertEquals(RouteClass.WRITE, classify(MockServerHttpRequest.put("/v1/reviews/abc")));
+        assertEquals(RouteClass.WRITE, classify(MockServerHttpRequest.delete("/v1/reviews/abc")));
+        assertNull(classify(MockServerHttpRequest.get("/v1/reviews/stream")));
+        assertNull(classify(MockServerHttpRequest.get("/v1/reviews").accept(MediaType.APPLICATION_NDJSON)));
+        assertEquals(RouteClass.READ, classify(MockServerHttpRequest.get("/v1/reviews?limit=10").accept(MediaType.APPLICATION_NDJSON)));
+        assertEquals(RouteClass.READ, classify(MockServerHttpRequest.get("/v1/reviews/search?q=awesome").accept(MediaType.APPLICATION_NDJSON)));
+        assertEquals(RouteClass.READ, classify(MockServerHttpRequest.get("/v1/reviews/top").accept(MediaType.APPLICATION_NDJSON)));
+        assertNull(classify(MockServerHttpRequest.get("/v1/metrics/review-limits")));
+        assertNull(classify(MockServerHttpRequest.post("/v1/reviews/stats/rebuild")));
+        assertNull(classify(MockServerHttpRequest.post("/v1/reviews/storage/migrate")));
+    }
+
+    private static RouteClass classify(MockServerHttpRequest.BaseBuilder<?> request) {
+        return ConcurrencyLimitFilter.classify(MockServerWebExchange.from(request));
+    }
+}
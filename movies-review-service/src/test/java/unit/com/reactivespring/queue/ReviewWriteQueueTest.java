@@ -0,0 +1,135 @@
+package com.reactivespring.queue;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.reactivespring.domain.Review;
+import com.reactivespring.exception.ReviewDataException;
+import com.reactivespring.exception.ReviewQueueFullException;
+import com.reactivespring.repository.ReviewReactiveRepository;
+import com.reactivespring.storage.DocumentReviewStore;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReviewWriteQueueTest {
+
+    ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+    ReactiveBulkOperations bulkOperations = mock(ReactiveBulkOperations.class);
+    DocumentReviewStore reviewStore = new DocumentReviewStore(mock(ReviewReactiveRepository.class), reactiveMongoTemplate);
+    List<List<?>> insertedBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(reactiveMongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(Review.class)))
+                .thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenAnswer(invocation -> {
+            insertedBatches.add(invocation.getArgument(0));
+            return bulkOperations;
+        });
+    }
+
+    @Test
+    void submit_flushesOneBatch() {
+        //given
+        when(bulkOperations.execute()).thenReturn(Mono.just(BulkWriteResult.acknowledged(3, 0, 0, 0, List.of(), List.of())));
+        var reviewWriteQueue = new ReviewWriteQueue(reviewStore, 100, 3, Duration.ofSeconds(10), 1);
+
+        //when
+        var reviews = Mono.zip(
+                reviewWriteQueue.submit(new Review(null, 1L, "Awesome Movie", 9.0)),
+                reviewWriteQueue.submit(new Review(null, 1L, "Good Movie", 7.0)),
+                reviewWriteQueue.submit(new Review("abc", 2L, "Excellent Movie", 8.0)));
+
+        //then
+        StepVerifier.create(reviews)
+                .assertNext(savedReviews -> {
+                    assertNotNull(savedReviews.getT1().getReviewId());
+                    assertNotNull(savedReviews.getT2().getReviewId());
+                    assertEquals("abc", savedReviews.getT3().getReviewId());
+                })
+                .verifyComplete();
+        assertEquals(1, insertedBatches.size());
+        var stats = reviewWriteQueue.stats();
+        assertEquals(1L, stats.getBatches());
+        assertEquals(3L, stats.getWritten());
+        assertEquals(0, stats.getQueueDepth());
+        assertEquals(3, stats.getMaxBatchSize());
+    }
+
+    @Test
+    void submit_flushesOnMaxWait() {
+        //given
+        when(bulkOperations.execute()).thenReturn(Mono.just(BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of())));
+        var reviewWriteQueue = new ReviewWriteQueue(reviewStore, 100, 50, Duration.ofMillis(20), 1);
+
+        //when
+        var review = reviewWriteQueue.submit(new Review(null, 1L, "Awesome Movie", 9.0));
+
+        //then
+        StepVerifier.create(review)
+                .assertNext(savedReview -> assertNotNull(savedReview.getReviewId()))
+                .verifyComplete();
+        assertEquals(1, reviewWriteQueue.stats().getLastBatchSize());
+    }
+
+    @Test
+    void submit_failsOnlyTheRejectedWrite() {
+        //given
+        var bulkWriteException = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()),
+                List.of(new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1)),
+                null, new ServerAddress(), Set.of());
+        when(bulkOperations.execute()).thenReturn(Mono.error(bulkWriteException));
+        var reviewWriteQueue = new ReviewWriteQueue(reviewStore, 100, 2, Duration.ofSeconds(10), 1);
+
+        //when
+        var first = reviewWriteQueue.submit(new Review(null, 1L, "Awesome Movie", 9.0));
+        var second = reviewWriteQueue.submit(new Review("abc", 1L, "Good Movie", 7.0))
+                .onErrorResume(ReviewDataException.class, ex -> Mono.just(new Review("failed", null, ex.getMessage(), null)));
+
+        //then
+        StepVerifier.create(Mono.zip(first, second))
+                .assertNext(results -> {
+                    assertNotNull(results.getT1().getReviewId());
+                    assertEquals("failed", results.getT2().getReviewId());
+                })
+                .verifyComplete();
+        assertEquals(1L, reviewWriteQueue.stats().getFailed());
+    }
+
+    @Test
+    void submit_rejectsWhenFull() {
+        //given
+        when(bulkOperations.execute()).thenReturn(Mono.never());
+        var reviewWriteQueue = new ReviewWriteQueue(reviewStore, 1, 10, Duration.ofSeconds(10), 1);
+        reviewWriteQueue.submit(new Review(null, 1L, "Awesome Movie", 9.0)).subscribe();
+
+        //when
+        var review = reviewWriteQueue.submit(new Review(null, 1L, "Good Movie", 7.0));
+
+        //then
+        StepVerifier.create(review)
+                .expectError(ReviewQueueFullException.class)
+                .verify();
+        assertEquals(1L, reviewWriteQueue.stats().getRejected());
+    }
+}
@@ -1,4 +1,716 @@
 package com.reactivespring.routes;
 
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.reactivespring.archive.ReviewArchive;
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewSearchHit;
+import com.reactivespring.domain.ReviewStats;
+import com.reactivespring.exceptionhandler.GlobalErrorHandler;
+import com.reactivespring.exception.ReviewQueueFullException;
+import com.reactivespring.handler.ReviewHandler;
+import com.reactivespring.leaderboard.Leaderboard;
+import com.reactivespring.leaderboard.LeaderboardEntry;
+import com.reactivespring.leaderboard.LeaderboardWindow;
+import com.reactivespring.limit.ConcurrencyLimitFilter;
+import com.reactivespring.limit.ConcurrencyLimiter;
+import com.reactivespring.queue.ReviewWriteQueue;
+import com.reactivespring.queue.ReviewWriteQueueStats;
+import com.reactivespring.repository.ReviewReactiveRepository;
+import com.reactivespring.router.ReviewRouter;
+import com.reactivespring.service.ReviewQueryService;
+import com.reactivespring.service.ReviewStatsService;
+import com.reactivespring.storage.DocumentReviewStore;
+import com.reactivespring.storage.ReviewLayout;
+import com.reactivespring.storage.ReviewLayoutMigration;
+import com.reactivespring.stream.ReviewStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest
+@ContextConfiguration(classes = {ReviewRouter.class, ReviewHandler.class, ReviewQueryService.class, ReviewStream.class, GlobalErrorHandler.class,
+        ConcurrencyLimitFilter.class, ConcurrencyLimiter.class, DocumentReviewStore.class})
+@AutoConfigureWebTestClient
 public class ReviewsUnitTest {
+
+    @MockBean
+    private ReviewReactiveRepository reviewReactiveRepository;
+
+    @MockBean
+    private ReviewArchive reviewArchive;
+
+    @MockBean
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @MockBean
+    private ReviewWriteQueue reviewWriteQueue;
+
+    @MockBean
+    private ReviewStatsService reviewStatsService;
+
+    @MockBean
+    private Leaderboard leaderboard;
+
+    @MockBean
+    private ReviewLayoutMigration reviewLayoutMigration;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    static String REVIEWS_URL = "/v1/reviews";
+
+    @BeforeEach
+    void setUp() {
+        when(reviewArchive.find(any(), any(), any())).thenReturn(Flux.empty());
+        when(reviewArchive.findById(anyString())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void addReview() {
+        //given
+        var review = new Review(null, 1L, "Awesome Movie", 9.0);
+
+        var savedReview = new Review("abc", 1L, "Awesome Movie", 9.0);
+        when(reviewWriteQueue.submit(isA(Review.class))).thenReturn(Mono.just(savedReview));
+        when(reviewStatsService.recordAdded(savedReview)).thenReturn(Mono.empty());
+
+        //when
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .bodyValue(review)
+                .exchange()
+                .expectStatus()
+                .isCreated()
+                .expectBody(Review.class)
+                .consumeWith(reviewResponse -> {
+                    var responseReview = reviewResponse.getResponseBody();
+                    assertNotNull(responseReview);
+                    assertEquals("abc", responseReview.getReviewId());
+                });
+
+        //then
+        verify(reviewStatsService).recordAdded(savedReview);
+        verify(leaderboard).recordAdded(savedReview);
+    }
+
+    @Test
+    void addReview_validation() {
+        //given
+        var review = new Review(null, null, "Awesome Movie", -9.0);
+
+        //when
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .bodyValue(review)
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("rating.movieInfoId : must not be null,rating.negative : please pass a non-negative value");
+    }
+
+    @Test
+    void addReview_queueFull() {
+        //given
+        when(reviewWriteQueue.submit(isA(Review.class)))
+                .thenReturn(Mono.error(new ReviewQueueFullException("Review write queue is full, please retry later")));
+
+        //when
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .bodyValue(new Review(null, 1L, "Awesome Movie", 9.0))
+                .exchange()
+                .expectStatus()
+                .isEqualTo(503)
+                .expectHeader()
+                .valueEquals("Retry-After", "1");
+    }
+
+    @Test
+    void getWriteQueueStats() {
+        //given
+        when(reviewWriteQueue.stats())
+                .thenReturn(new ReviewWriteQueueStats(100, 3, 10L, 1L, 7L, 0L, 2L, 4, 5, 3.5, 1.5, 2.0));
+
+        //when
+        webTestClient
+                .get()
+                .uri("/v1/metrics/review-writes")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.queueDepth").isEqualTo(3)
+                .jsonPath("$.averageBatchSize").isEqualTo(3.5);
+    }
+
+    @Test
+    void getReviews() {
+        //given
+        var reviews = List.of(new Review("abc", 1L, "Awesome Movie", 9.0),
+                new Review("def", 2L, "Excellent Movie", 8.0));
+
+        when(reviewReactiveRepository.findAllByOrderByReviewIdAsc(Limit.unlimited())).thenReturn(Flux.fromIterable(reviews));
+
+        //when
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(Review.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void getReviewsByMovieInfoId() {
+        //given
+        when(reviewReactiveRepository.findByMovieInfoIdOrderByReviewIdAsc(1L, Limit.unlimited()))
+                .thenReturn(Flux.just(new Review("abc", 1L, "Awesome Movie", 9.0)));
+
+        //when
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "?movieInfoId=1")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(Review.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void getReviewsPage() {
+        //given
+        when(reviewReactiveRepository.findByMovieInfoIdAndReviewIdGreaterThanOrderByReviewIdAsc(1L, "abc", Limit.of(2)))
+                .thenReturn(Flux.just(new Review("def", 1L, "Awesome Movie", 9.0),
+                        new Review("ghi", 1L, "Excellent Movie", 8.0)));
+
+        //when
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "?movieInfoId=1&after=abc&limit=2")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .valueEquals("X-Next-Cursor", "ghi")
+                .expectBodyList(Review.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void getReviewsPage_lastPage() {
+        //given
+        when(reviewReactiveRepository.findByMovieInfoIdOrderByReviewIdAsc(1L, Limit.of(2)))
+                .thenReturn(Flux.just(new Review("abc", 1L, "Awesome Movie", 9.0)));
+
+        //when
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "?movieInfoId=1&limit=2")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .doesNotExist("X-Next-Cursor")
+                .expectBodyList(Review.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void getReviewsPage_invalidLimit() {
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "?movieInfoId=1&limit=0")
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "?movieInfoId=x")
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    @Test
+    void getReviews_ndjson() {
+        //given
+        when(reviewReactiveRepository.findByMovieInfoIdAndReviewIdGreaterThanOrderByReviewIdAsc(1L, "abc", Limit.unlimited()))
+                .thenReturn(Flux.just(new Review("def", 1L, "Awesome Movie", 9.0),
+                        new Review("ghi", 1L, "Excellent Movie", 8.0)));
+
+        //when
+        var reviewsFlux = webTestClient
+                .get()
+                .uri(REVIEWS_URL + "?movieInfoId=1&after=abc")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(Review.class)
+                .getResponseBody();
+
+        //then
+        StepVerifier.create(reviewsFlux)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void updateReview() {
+        //given
+        var reviewId = "abc";
+        when(reviewReactiveRepository.findById(reviewId))
+                .thenReturn(Mono.just(new Review(reviewId, 1L, "Awesome Movie", 9.0)));
+        when(reactiveMongoTemplate.updateFirst(isA(Query.class), isA(Update.class), eq(Review.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        when(reviewStatsService.recordUpdated(isA(Review.class), isA(Review.class))).thenReturn(Mono.empty());
+
+        //when
+        webTestClient
+                .put()
+                .uri(REVIEWS_URL + "/{id}", reviewId)
+                .bodyValue(new Review(null, 1L, "Not an Awesome Movie", 8.0))
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody(Review.class)
+                .consumeWith(reviewResponse -> {
+                    var updatedReview = reviewResponse.getResponseBody();
+                    assertNotNull(updatedReview);
+                    assertEquals(8.0, updatedReview.getRating());
+                    assertEquals("Not an Awesome Movie", updatedReview.getComment());
+                });
+
+        //then
+        verify(reviewStatsService).recordUpdated(new Review(reviewId, 1L, "Awesome Movie", 9.0),
+                new Review(reviewId, 1L, "Not an Awesome Movie", 8.0));
+    }
+
+    @Test
+    void updateReview_notFound() {
+        //given
+        when(reviewReactiveRepository.findById("def")).thenReturn(Mono.empty());
+
+        //when
+        webTestClient
+                .put()
+                .uri(REVIEWS_URL + "/{id}", "def")
+                .bodyValue(new Review(null, 1L, "Not an Awesome Movie", 8.0))
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+    }
+
+    @Test
+    void updateReview_archived() {
+        //given
+        var reviewId = "abc";
+        when(reviewReactiveRepository.findById(reviewId)).thenReturn(Mono.empty());
+        when(reviewArchive.findById(reviewId))
+                .thenReturn(Mono.just(new Review(reviewId, 1L, "Awesome Movie", 9.0)));
+        when(reviewArchive.update(isA(Review.class), isA(Review.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(1)));
+        when(reviewStatsService.recordUpdated(isA(Review.class), isA(Review.class))).thenReturn(Mono.empty());
+
+        //when
+        webTestClient
+                .put()
+                .uri(REVIEWS_URL + "/{id}", reviewId)
+                .bodyValue(new Review(null, 1L, "Not an Awesome Movie", 8.0))
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody(Review.class)
+                .consumeWith(reviewResponse -> assertEquals(8.0, reviewResponse.getResponseBody().getRating()));
+
+        //then
+        verify(reviewArchive).update(new Review(reviewId, 1L, "Awesome Movie", 9.0), new Review(reviewId, 1L, "Not an Awesome Movie", 8.0));
+    }
+
+    @Test
+    void updateReview_concurrentlyChanged() {
+        //given
+        var reviewId = "abc";
+        when(reviewReactiveRepository.findById(reviewId))
+                .thenReturn(Mono.just(new Review(reviewId, 1L, "Awesome Movie", 9.0)))
+                .thenReturn(Mono.just(new Review(reviewId, 1L, "Good Movie", 7.0)));
+        when(reactiveMongoTemplate.updateFirst(isA(Query.class), isA(Update.class), eq(Review.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        when(reviewStatsService.recordUpdated(isA(Review.class), isA(Review.class))).thenReturn(Mono.empty());
+
+        //when
+        webTestClient
+                .put()
+                .uri(REVIEWS_URL + "/{id}", reviewId)
+                .bodyValue(new Review(null, 1L, "Not an Awesome Movie", 8.0))
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful();
+
+        //then
+        verify(reviewStatsService, times(1)).recordUpdated(any(), any());
+        verify(reviewStatsService).recordUpdated(new Review(reviewId, 1L, "Good Movie", 7.0),
+                new Review(reviewId, 1L, "Not an Awesome Movie", 8.0));
+    }
+
+    @Test
+    void updateReview_keepsChanging() {
+        //given
+        var reviewId = "abc";
+        when(reviewReactiveRepository.findById(reviewId))
+                .thenAnswer(invocation -> Mono.just(new Review(reviewId, 1L, "Awesome Movie", 9.0)));
+        when(reactiveMongoTemplate.updateFirst(isA(Query.class), isA(Update.class), eq(Review.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+
+        //when
+        webTestClient
+                .put()
+                .uri(REVIEWS_URL + "/{id}", reviewId)
+                .bodyValue(new Review(null, 1L, "Not an Awesome Movie", 8.0))
+                .exchange()
+                .expectStatus()
+                .isEqualTo(409);
+
+        //then
+        verify(reviewStatsService, never()).recordUpdated(any(), any());
+    }
+
+    @Test
+    void deleteReview() {
+        //given
+        var reviewId = "abc";
+        when(reviewReactiveRepository.findById(reviewId))
+                .thenReturn(Mono.just(new Review(reviewId, 1L, "Awesome Movie", 9.0)));
+        when(reactiveMongoTemplate.remove(isA(Query.class), eq(Review.class))).thenReturn(Mono.just(DeleteResult.acknowledged(1)));
+        when(reviewStatsService.recordRemoved(isA(Review.class))).thenReturn(Mono.empty());
+
+        //when
+        webTestClient
+                .delete()
+                .uri(REVIEWS_URL + "/{id}", reviewId)
+                .exchange()
+                .expectStatus()
+                .isNoContent();
+
+        //then
+        verify(reviewStatsService).recordRemoved(new Review(reviewId, 1L, "Awesome Movie", 9.0));
+        verify(leaderboard).recordRemoved(new Review(reviewId, 1L, "Awesome Movie", 9.0));
+    }
+
+    @Test
+    void deleteReview_statsFailure() {
+        //given
+        var reviewId = "abc";
+        when(reviewReactiveRepository.findById(reviewId))
+                .thenReturn(Mono.just(new Review(reviewId, 1L, "Awesome Movie", 9.0)));
+        when(reactiveMongoTemplate.remove(isA(Query.class), eq(Review.class))).thenReturn(Mono.just(DeleteResult.acknowledged(1)));
+        when(reviewStatsService.recordRemoved(isA(Review.class))).thenReturn(Mono.error(new RuntimeException("stats down")));
+
+        //when
+        webTestClient
+                .delete()
+                .uri(REVIEWS_URL + "/{id}", reviewId)
+                .exchange()
+                .expectStatus()
+                .is5xxServerError();
+
+        //then
+        verify(leaderboard, never()).recordRemoved(any());
+    }
+
+    @Test
+    void deleteReview_concurrentlyDeleted() {
+        //given
+        var reviewId = "abc";
+        when(reviewReactiveRepository.findById(reviewId))
+                .thenReturn(Mono.just(new Review(reviewId, 1L, "Awesome Movie", 9.0)));
+        when(reactiveMongoTemplate.remove(isA(Query.class), eq(Review.class))).thenReturn(Mono.just(DeleteResult.acknowledged(0)));
+        when(reviewArchive.deleteById(reviewId)).thenReturn(Mono.just(false));
+
+        //when
+        webTestClient
+                .delete()
+                .uri(REVIEWS_URL + "/{id}", reviewId)
+                .exchange()
+                .expectStatus()
+                .isNoContent();
+
+        //then
+        verify(reviewStatsService, never()).recordRemoved(any());
+        verify(leaderboard, never()).recordRemoved(any());
+    }
+
+    @Test
+    void deleteReview_archivedInBetween() {
+        //given
+        var reviewId = "abc";
+        when(reviewReactiveRepository.findById(reviewId))
+                .thenReturn(Mono.just(new Review(reviewId, 1L, "Awesome Movie", 9.0)));
+        when(reactiveMongoTemplate.remove(isA(Query.class), eq(Review.class))).thenReturn(Mono.just(DeleteResult.acknowledged(0)));
+        when(reviewArchive.deleteById(reviewId)).thenReturn(Mono.just(true));
+        when(reviewStatsService.recordRemoved(isA(Review.class))).thenReturn(Mono.empty());
+
+        //when
+        webTestClient
+                .delete()
+                .uri(REVIEWS_URL + "/{id}", reviewId)
+                .exchange()
+                .expectStatus()
+                .isNoContent();
+
+        //then
+        verify(reviewStatsService).recordRemoved(new Review(reviewId, 1L, "Awesome Movie", 9.0));
+        verify(leaderboard).recordRemoved(new Review(reviewId, 1L, "Awesome Movie", 9.0));
+    }
+
+    @Test
+    void getReviewStats() {
+        //given
+        when(reviewStatsService.getStats(1L))
+                .thenReturn(Mono.just(new ReviewStats(1L, 2, 17.0, 8.0, 9.0, Map.of("8", 1L, "9", 1L))));
+
+        //when
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "/stats/{movieInfoId}", 1)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.count").isEqualTo(2)
+                .jsonPath("$.average").isEqualTo(8.5)
+                .jsonPath("$.min").isEqualTo(8.0)
+                .jsonPath("$.max").isEqualTo(9.0)
+                .jsonPath("$.histogram.9").isEqualTo(1);
+    }
+
+    @Test
+    void getReviewStats_invalidMovieInfoId() {
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "/stats/{movieInfoId}", "abc")
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("movieInfoId : must be a number");
+    }
+
+    @Test
+    void rebuildReviewStats() {
+        //given
+        when(reviewStatsService.rebuild())
+                .thenReturn(Flux.just(new ReviewStats(1L, 1, 9.0, 9.0, 9.0, Map.of("9", 1L))));
+
+        //when
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL + "/stats/rebuild")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(ReviewStats.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void migrateReviewLayout() {
+        //given
+        when(reviewLayoutMigration.migrateTo(ReviewLayout.BUCKET)).thenReturn(Mono.just(3L));
+
+        //when
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL + "/storage/migrate?layout=bucket")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody(Long.class)
+                .isEqualTo(3L);
+    }
+
+    @Test
+    void migrateReviewLayout_validation() {
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL + "/storage/migrate?layout=columns")
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("layout : must be one of [document, bucket]");
+    }
+
+    @Test
+    void searchReviews() {
+        //given
+        when(reactiveMongoTemplate.getCollectionName(Review.class)).thenReturn("review");
+        when(reactiveMongoTemplate.find(isA(Query.class), eq(ReviewSearchHit.class), eq("review")))
+                .thenReturn(Flux.just(new ReviewSearchHit("abc", 1L, "Awesome Movie", 9.0, null, 1.5f),
+                        new ReviewSearchHit("def", 1L, "Awesome Movie, awesome cast", 8.0, null, 1.1f)));
+
+        //when
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "/search?q=awesome&movieInfoId=1&limit=5")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$[0].reviewId").isEqualTo("abc")
+                .jsonPath("$[0].score").isEqualTo(1.5)
+                .jsonPath("$.length()").isEqualTo(2);
+    }
+
+    @Test
+    void searchReviews_validation() {
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "/search?q= ")
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("q : must not be blank");
+
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "/search?q=awesome&limit=1000")
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    @Test
+    void getConcurrencyLimitStats() {
+        //given
+        when(reviewReactiveRepository.findById("abc")).thenReturn(Mono.empty());
+        webTestClient
+                .put()
+                .uri(REVIEWS_URL + "/{id}", "abc")
+                .bodyValue(new Review("abc", 1L, "Awesome Movie", 9.0))
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+
+        //when
+        webTestClient
+                .get()
+                .uri("/v1/metrics/review-limits")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$[0].routeClass").isEqualTo("READ")
+                .jsonPath("$[1].routeClass").isEqualTo("WRITE")
+                .jsonPath("$[1].accepted").value(accepted -> assertTrue(((Number) accepted).longValue() >= 1))
+                .jsonPath("$[1].inFlight").isEqualTo(0);
+    }
+
+    @Test
+    void getTopMovies() {
+        //given
+        when(leaderboard.getSize()).thenReturn(100);
+        when(leaderboard.top(LeaderboardWindow.HOUR, Leaderboard.Ranking.COUNT, 2))
+                .thenReturn(List.of(new LeaderboardEntry(2L, 40L, 7.5), new LeaderboardEntry(1L, 12L, 9.0)));
+
+        //when
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "/top?by=count&window=hour&limit=2")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(LeaderboardEntry.class)
+                .hasSize(2)
+                .contains(new LeaderboardEntry(2L, 40L, 7.5));
+    }
+
+    @Test
+    void getTopMovies_invalidWindow() {
+        //given
+        when(leaderboard.getSize()).thenReturn(100);
+
+        //when
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "/top?by=rating&window=week")
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("window : must be one of [hour, day, all]");
+    }
+
+    @Test
+    void getReviewsStream() {
+        //given
+        when(reviewWriteQueue.submit(isA(Review.class)))
+                .thenReturn(Mono.just(new Review("abc", 1L, "Awesome Movie", 9.0)));
+        when(reviewStatsService.recordAdded(isA(Review.class))).thenReturn(Mono.empty());
+
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .bodyValue(new Review(null, 1L, "Awesome Movie", 9.0))
+                .exchange()
+                .expectStatus()
+                .isCreated();
+
+        //when
+        var reviewsStream = webTestClient
+                .get()
+                .uri(REVIEWS_URL + "/stream")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(Review.class)
+                .getResponseBody();
+
+        //then
+        StepVerifier.create(reviewsStream)
+                .assertNext(review -> assertEquals("abc", review.getReviewId()))
+                .thenCancel()
+                .verify();
+    }
 }
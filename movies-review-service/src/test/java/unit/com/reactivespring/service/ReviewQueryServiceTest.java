@@ -0,0 +1,125 @@
+package com.reactivespring.service;
+
+import com.reactivespring.archive.ReviewArchive;
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewSearchHit;
+import com.reactivespring.repository.ReviewReactiveRepository;
+import com.reactivespring.storage.DocumentReviewStore;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReviewQueryServiceTest {
+
+    ReviewReactiveRepository reviewReactiveRepository = mock(ReviewReactiveRepository.class);
+    ReviewArchive reviewArchive = mock(ReviewArchive.class);
+    ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+    ReviewQueryService reviewQueryService = new ReviewQueryService(new DocumentReviewStore(reviewReactiveRepository, reactiveMongoTemplate),
+            reviewArchive);
+
+    @Test
+    void getReviewsPage_hotOnly() {
+        //given
+        when(reviewReactiveRepository.findByMovieInfoIdOrderByReviewIdAsc(1L, Limit.of(2)))
+                .thenReturn(Flux.just(review("c"), review("d")));
+
+        //when
+        var page = reviewQueryService.getReviewsPage(1L, null, 2).block();
+
+        //then
+        assertEquals(List.of("c", "d"), ids(page.getReviews()));
+        assertEquals("d", page.getNextCursor());
+        verify(reviewArchive, never()).find(1L, null, 2);
+    }
+
+    @Test
+    void getReviewsPage_continuesIntoArchive() {
+        //given
+        when(reviewReactiveRepository.findByMovieInfoIdAndReviewIdGreaterThanOrderByReviewIdAsc(1L, "d", Limit.of(2)))
+                .thenReturn(Flux.just(review("e")));
+        when(reviewArchive.find(1L, null, 1)).thenReturn(Flux.just(review("a")));
+
+        //when
+        var page = reviewQueryService.getReviewsPage(1L, "d", 2).block();
+
+        //then
+        assertEquals(List.of("e", "a"), ids(page.getReviews()));
+        assertEquals("archive:a", page.getNextCursor());
+    }
+
+    @Test
+    void getReviewsPage_archiveCursor() {
+        //given
+        when(reviewArchive.find(1L, "a", 2)).thenReturn(Flux.just(review("b")));
+
+        //when
+        var page = reviewQueryService.getReviewsPage(1L, "archive:a", 2).block();
+
+        //then
+        assertEquals(List.of("b"), ids(page.getReviews()));
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void streamReviews_hotThenArchive() {
+        //given
+        when(reviewReactiveRepository.findByMovieInfoIdOrderByReviewIdAsc(1L, Limit.unlimited()))
+                .thenReturn(Flux.just(review("c"), review("d")));
+        when(reviewArchive.find(1L, null, null)).thenReturn(Flux.just(review("a"), review("b")));
+
+        //when
+        var reviews = reviewQueryService.streamReviews(1L, null).map(Review::getReviewId);
+
+        //then
+        StepVerifier.create(reviews)
+                .expectNext("c", "d", "a", "b")
+                .verifyComplete();
+    }
+
+    @Test
+    void searchReviews_sortsAndLimitsInMongo() {
+        //given
+        when(reactiveMongoTemplate.getCollectionName(Review.class)).thenReturn("review");
+        when(reactiveMongoTemplate.find(any(Query.class), eq(ReviewSearchHit.class), eq("review")))
+                .thenReturn(Flux.just(new ReviewSearchHit("a", 1L, "Awesome Movie", 9.0, null, 1.5f)));
+
+        //when
+        var hits = reviewQueryService.searchReviews("awesome", 1L, 5);
+
+        //then
+        StepVerifier.create(hits)
+                .expectNextCount(1)
+                .verifyComplete();
+        var query = ArgumentCaptor.forClass(Query.class);
+        verify(reactiveMongoTemplate).find(query.capture(), eq(ReviewSearchHit.class), eq("review"));
+        assertEquals(5, query.getValue().getLimit());
+        assertEquals(1L, query.getValue().getQueryObject().get("movieInfoId"));
+        assertEquals("awesome", query.getValue().getQueryObject().get("$text", Document.class).get("$search"));
+        assertTrue(query.getValue().getSortObject().containsKey("score"));
+    }
+
+    private static Review review(String reviewId) {
+        return new Review(reviewId, 1L, "Awesome Movie", 9.0);
+    }
+
+    private static List<String> ids(List<Review> reviews) {
+        return reviews.stream().map(Review::getReviewId).toList();
+    }
+}
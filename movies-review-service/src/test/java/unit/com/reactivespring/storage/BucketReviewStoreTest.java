@@ -0,0 +1,126 @@
+package com.reactivespring.storage;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewBucket;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BucketReviewStoreTest {
+
+    ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+    ReactiveBulkOperations bulkOperations = mock(ReactiveBulkOperations.class);
+    BucketReviewStore bucketReviewStore = new BucketReviewStore(reactiveMongoTemplate, 2);
+
+    @Test
+    void find_mergesOverlappingBucketsInReviewIdOrder() {
+        //given
+        var first = ReviewBucket.of("b1", 1L, List.of(review("a"), review("b"), review("e")));
+        var second = ReviewBucket.of("b2", 1L, List.of(review("c"), review("d")));
+        var third = ReviewBucket.of("b3", 1L, List.of(review("f")));
+        when(reactiveMongoTemplate.find(any(Query.class), eq(ReviewBucket.class))).thenReturn(Flux.just(first, second, third));
+
+        //when
+        var reviews = bucketReviewStore.find(1L, "a", Limit.of(4)).map(Review::getReviewId);
+
+        //then
+        StepVerifier.create(reviews)
+                .expectNext("b", "c", "d", "e")
+                .verifyComplete();
+    }
+
+    @Test
+    void find_unlimited() {
+        //given
+        var first = ReviewBucket.of("b1", 1L, List.of(review("a"), review("c")));
+        var second = ReviewBucket.of("b2", 2L, List.of(review("b")));
+        when(reactiveMongoTemplate.find(any(Query.class), eq(ReviewBucket.class))).thenReturn(Flux.just(first, second));
+
+        //when
+        var reviews = bucketReviewStore.find(null, null, Limit.unlimited()).map(Review::getReviewId);
+
+        //then
+        StepVerifier.create(reviews)
+                .expectNext("a", "b", "c")
+                .verifyComplete();
+    }
+
+    @Test
+    void insertAll_oneUpsertPerMovieChunk() {
+        //given
+        when(reactiveMongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(ReviewBucket.class))).thenReturn(bulkOperations);
+        when(bulkOperations.upsert(any(Query.class), any(Update.class))).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(Mono.just(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of())));
+
+        //when
+        var writeErrors = bucketReviewStore.insertAll(List.of(review("a", 1L), review("b", 2L), review("c", 1L), review("d", 1L)));
+
+        //then
+        StepVerifier.create(writeErrors)
+                .expectNext(Map.of())
+                .verifyComplete();
+        var queries = ArgumentCaptor.forClass(Query.class);
+        var updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(3)).upsert(queries.capture(), updates.capture());
+        assertEquals(List.of(1L, 1L, 2L), queries.getAllValues().stream()
+                .map(query -> query.getQueryObject().get("movieInfoId"))
+                .toList());
+        assertEquals(List.of(2, 1, 1), updates.getAllValues().stream()
+                .map(update -> update.getUpdateObject().get("$inc", Document.class).get("count"))
+                .toList());
+    }
+
+    @Test
+    void insertAll_failsEveryReviewOfAFailedChunk() {
+        //given
+        var bulkWriteException = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()),
+                List.of(new BulkWriteError(2, "document is too large", new BsonDocument(), 0)),
+                null, new ServerAddress(), Set.of());
+        when(reactiveMongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(ReviewBucket.class))).thenReturn(bulkOperations);
+        when(bulkOperations.upsert(any(Query.class), any(Update.class))).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(Mono.error(bulkWriteException));
+
+        //when
+        var writeErrors = bucketReviewStore.insertAll(List.of(review("a", 1L), review("b", 2L), review("c", 1L)));
+
+        //then
+        StepVerifier.create(writeErrors)
+                .expectNext(Map.of(0, "document is too large", 2, "document is too large"))
+                .verifyComplete();
+    }
+
+    private static Review review(String reviewId) {
+        return review(reviewId, 1L);
+    }
+
+    private static Review review(String reviewId, Long movieInfoId) {
+        return new Review(reviewId, movieInfoId, "Awesome Movie", 9.0);
+    }
+}
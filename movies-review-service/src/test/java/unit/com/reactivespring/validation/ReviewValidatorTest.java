@@ -0,0 +1,61 @@
+package com.reactivespring.validation;
+
+import com.reactivespring.domain.Review;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReviewValidatorTest {
+
+    static ValidatorFactory validatorFactory;
+    static Validator validator;
+
+    @BeforeAll
+    static void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        validatorFactory.close();
+    }
+
+    static Stream<Arguments> reviews() {
+        return Stream.of(
+                Arguments.of(new Review(null, 1L, "Awesome Movie", 9.0)),
+                Arguments.of(new Review(null, 1L, "Awesome Movie", 0.0)),
+                Arguments.of(new Review(null, 1L, "No rating", null)),
+                Arguments.of(new Review(null, null, "Awesome Movie", 9.0)),
+                Arguments.of(new Review(null, 1L, "Awesome Movie", -0.5)),
+                Arguments.of(new Review(null, null, "Awesome Movie", -9.0)),
+                Arguments.of(new Review(null, 1L, "Awesome Movie", Double.NaN)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("reviews")
+    void validate_matchesBeanValidation(Review review) {
+        //given
+        var expected = validator.validate(review).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+
+        //when
+        List<String> errors = ReviewValidator.validate(review);
+
+        //then
+        assertEquals(expected, errors);
+    }
+}
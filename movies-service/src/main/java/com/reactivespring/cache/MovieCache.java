@@ -0,0 +1,158 @@
+package com.reactivespring.cache;
+
+import com.reactivespring.domain.Movie;
+import com.reactivespring.exception.MoviesInfoClientException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded stale-while-revalidate cache of the last good {@link Movie} aggregates.
+ * <p>
+ * An entry younger than {@code ttl} is served as is. Up to {@code maxStale} it is served
+ * marked stale while one background load per id refreshes it, so callers never wait on a
+ * degraded downstream for a movie that was built before; when the downstream's circuit is
+ * open the refresh fails at once and the stale entry keeps being served. Older entries are
+ * dropped and loaded in the caller's request. A refresh answered with a 4xx from
+ * movies-info-service removes the entry, since the movie is gone rather than unavailable.
+ * The oldest entries are evicted once {@code maxSize} is exceeded.
+ */
+@Component
+@Slf4j
+public class MovieCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // entries in insertion order; may still hold entries that were replaced or expired
+    private final ConcurrentLinkedQueue<Map.Entry<String, Entry>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<String, Boolean> refreshing = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long maxStaleNanos;
+    private final LongSupplier ticker;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    @Autowired
+    public MovieCache(@Value("${movies.cache.max-size:10000}") int maxSize,
+                      @Value("${movies.cache.ttl:10s}") Duration ttl,
+                      @Value("${movies.cache.max-stale:10m}") Duration maxStale) {
+        this(maxSize, ttl, maxStale, System::nanoTime);
+    }
+
+    MovieCache(int maxSize, Duration ttl, Duration maxStale, LongSupplier ticker) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.maxStaleNanos = Math.max(maxStale.toNanos(), ttlNanos);
+        this.ticker = ticker;
+    }
+
+    public Mono<CachedMovie> get(String id, Function<String, Mono<Movie>> loader) {
+        return Mono.defer(() -> {
+            var now = ticker.getAsLong();
+            var entry = entries.get(id);
+            if (entry != null) {
+                var age = now - entry.storedAt;
+                if (age < ttlNanos) {
+                    hits.increment();
+                    return Mono.just(new CachedMovie(entry.movie, false, Duration.ofNanos(age).toSeconds()));
+                }
+                if (age < maxStaleNanos) {
+                    staleHits.increment();
+                    refresh(id, loader);
+                    return Mono.just(new CachedMovie(entry.movie, true, Duration.ofNanos(age).toSeconds()));
+                }
+                if (entries.remove(id, entry)) {
+                    expirations.increment();
+                }
+            }
+            misses.increment();
+            return loader.apply(id)
+                    .doOnNext(movie -> put(id, movie))
+                    .map(movie -> new CachedMovie(movie, false, 0));
+        });
+    }
+
+    private void refresh(String id, Function<String, Mono<Movie>> loader) {
+        if (refreshing.putIfAbsent(id, Boolean.TRUE) != null) {
+            return;
+        }
+        refreshes.increment();
+        loader.apply(id)
+                .doFinally(signal -> refreshing.remove(id))
+                .subscribe(
+                        movie -> put(id, movie),
+                        ex -> {
+                            refreshFailures.increment();
+                            log.info("Exception Caught in refresh for {} : {}", id, ex.getMessage());
+                            if (ex instanceof MoviesInfoClientException) {
+                                invalidate(id);
+                            }
+                        });
+    }
+
+    public void put(String id, Movie movie) {
+        var entry = new Entry(movie, ticker.getAsLong());
+        entries.put(id, entry);
+        insertionOrder.add(Map.entry(id, entry));
+        queued.incrementAndGet();
+        evictIfNeeded();
+    }
+
+    public void invalidate(String id) {
+        entries.remove(id);
+    }
+
+    private void evictIfNeeded() {
+        while (entries.size() > maxSize || queued.get() > 2 * maxSize) {
+            var oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            if (entries.size() <= maxSize) {
+                // only trimming stale queue nodes, keep live entries around
+                if (entries.get(oldest.getKey()) == oldest.getValue()) {
+                    insertionOrder.add(oldest);
+                    queued.incrementAndGet();
+                }
+                continue;
+            }
+            if (entries.remove(oldest.getKey(), oldest.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    public MovieCacheStats stats() {
+        return new MovieCacheStats(entries.size(), maxSize, hits.sum(), staleHits.sum(), misses.sum(),
+                evictions.sum(), expirations.sum(), refreshes.sum(), refreshFailures.sum());
+    }
+
+    private static final class Entry {
+        private final Movie movie;
+        private final long storedAt;
+
+        private Entry(Movie movie, long storedAt) {
+            this.movie = movie;
+            this.storedAt = storedAt;
+        }
+    }
+}
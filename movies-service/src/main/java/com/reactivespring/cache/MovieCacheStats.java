@@ -0,0 +1,21 @@
+package com.reactivespring.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieCacheStats {
+
+    private Integer size;
+    private Integer maxSize;
+    private Long hits;
+    private Long staleHits;
+    private Long misses;
+    private Long evictions;
+    private Long expirations;
+    private Long refreshes;
+    private Long refreshFailures;
+}
@@ -0,0 +1,190 @@
+package com.reactivespring.client;
+
+import com.reactivespring.config.DownstreamClientProperties;
+import com.reactivespring.exception.CircuitOpenException;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for one downstream.
+ * <p>
+ * While CLOSED, the outcomes of the last {@code circuitWindowSize} calls are kept in a ring;
+ * once at least {@code circuitMinimumCalls} are buffered and either the share of failed calls
+ * or the share of calls slower than {@code circuitSlowCallDuration} reaches its threshold, the
+ * circuit OPENs and calls fail at once with a {@link CircuitOpenException}. After
+ * {@code circuitOpenDuration} the circuit goes HALF_OPEN and lets {@code circuitHalfOpenCalls}
+ * probes through: a failed probe opens it again, otherwise it closes once every probe has
+ * answered and the slow-call share of the probes is below its threshold.
+ * <p>
+ * Only server-class errors count as failures; a 4xx answer shows the downstream is healthy.
+ * Every permit carries the generation it was taken in, so calls that outlive a state change
+ * cannot skew the window of the next state.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    private static final long REJECTED = -1;
+
+    private String client;
+    private int windowSize;
+    private int minimumCalls;
+    private double failureRateThreshold;
+    private double slowCallRateThreshold;
+    private long slowCallNanos;
+    private long openNanos;
+    private int halfOpenCalls;
+    private LongSupplier ticker;
+
+    private CircuitState state = CircuitState.CLOSED;
+    private long generation;
+    private long openedAt;
+    private boolean[] failures;
+    private boolean[] slowCalls;
+    private int next;
+    private int buffered;
+    private int failureCount;
+    private int slowCount;
+    private int probesStarted;
+    private int probesDone;
+    private int probesSlow;
+    private long opened;
+    private long notPermitted;
+
+    public CircuitBreaker(String client, DownstreamClientProperties clientProperties) {
+        this(client, clientProperties, System::nanoTime);
+    }
+
+    CircuitBreaker(String client, DownstreamClientProperties clientProperties, LongSupplier ticker) {
+        this.client = client;
+        this.windowSize = clientProperties.getCircuitWindowSize();
+        this.minimumCalls = Math.min(clientProperties.getCircuitMinimumCalls(), windowSize);
+        this.failureRateThreshold = clientProperties.getCircuitFailureRateThreshold();
+        this.slowCallRateThreshold = clientProperties.getCircuitSlowCallRateThreshold();
+        this.slowCallNanos = clientProperties.getCircuitSlowCallDuration().toNanos();
+        this.openNanos = clientProperties.getCircuitOpenDuration().toNanos();
+        this.halfOpenCalls = clientProperties.getCircuitHalfOpenCalls();
+        this.ticker = ticker;
+        this.failures = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+    }
+
+    public <T> Mono<T> protect(Mono<T> call) {
+        return Mono.defer(() -> {
+            var permit = tryAcquire();
+            if (permit == REJECTED) {
+                return Mono.error(new CircuitOpenException("Circuit for " + client + " is open"));
+            }
+            var start = ticker.getAsLong();
+            var done = new AtomicBoolean();
+            return call
+                    .doOnSuccess(value -> {
+                        if (done.compareAndSet(false, true)) {
+                            onResult(permit, false, ticker.getAsLong() - start);
+                        }
+                    })
+                    .doOnError(ex -> {
+                        if (done.compareAndSet(false, true)) {
+                            onResult(permit, DownstreamRetry.isServerError(ex), ticker.getAsLong() - start);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (done.compareAndSet(false, true)) {
+                            release(permit);
+                        }
+                    });
+        });
+    }
+
+    synchronized long tryAcquire() {
+        if (state == CircuitState.OPEN) {
+            if (ticker.getAsLong() - openedAt < openNanos) {
+                notPermitted++;
+                return REJECTED;
+            }
+            transitionTo(CircuitState.HALF_OPEN);
+        }
+        if (state == CircuitState.HALF_OPEN) {
+            if (probesStarted >= halfOpenCalls) {
+                notPermitted++;
+                return REJECTED;
+            }
+            probesStarted++;
+        }
+        return generation;
+    }
+
+    synchronized void onResult(long permit, boolean failed, long elapsedNanos) {
+        if (permit != generation) {
+            return;
+        }
+        var slow = elapsedNanos >= slowCallNanos;
+        if (state == CircuitState.HALF_OPEN) {
+            if (failed) {
+                transitionTo(CircuitState.OPEN);
+                return;
+            }
+            probesDone++;
+            if (slow) {
+                probesSlow++;
+            }
+            if (probesDone >= halfOpenCalls) {
+                transitionTo(rate(probesSlow, probesDone) >= slowCallRateThreshold ? CircuitState.OPEN : CircuitState.CLOSED);
+            }
+            return;
+        }
+        record(failed, slow);
+        if (buffered >= minimumCalls
+                && (rate(failureCount, buffered) >= failureRateThreshold || rate(slowCount, buffered) >= slowCallRateThreshold)) {
+            transitionTo(CircuitState.OPEN);
+        }
+    }
+
+    synchronized void release(long permit) {
+        if (permit == generation && state == CircuitState.HALF_OPEN) {
+            probesStarted--;
+        }
+    }
+
+    private void record(boolean failed, boolean slow) {
+        if (buffered == windowSize) {
+            failureCount -= failures[next] ? 1 : 0;
+            slowCount -= slowCalls[next] ? 1 : 0;
+        } else {
+            buffered++;
+        }
+        failures[next] = failed;
+        slowCalls[next] = slow;
+        failureCount += failed ? 1 : 0;
+        slowCount += slow ? 1 : 0;
+        next = (next + 1) % windowSize;
+    }
+
+    private void transitionTo(CircuitState target) {
+        log.info("Circuit for {} : {} -> {}", client, state, target);
+        state = target;
+        generation++;
+        buffered = 0;
+        next = 0;
+        failureCount = 0;
+        slowCount = 0;
+        probesStarted = 0;
+        probesDone = 0;
+        probesSlow = 0;
+        if (target == CircuitState.OPEN) {
+            opened++;
+            openedAt = ticker.getAsLong();
+        }
+    }
+
+    private static double rate(int count, int total) {
+        return total == 0 ? 0.0 : count * 100.0 / total;
+    }
+
+    public synchronized CircuitBreakerStats stats() {
+        return new CircuitBreakerStats(client, state, buffered, rate(failureCount, buffered), rate(slowCount, buffered),
+                opened, notPermitted);
+    }
+}
@@ -0,0 +1,19 @@
+package com.reactivespring.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CircuitBreakerStats {
+
+    private String client;
+    private CircuitState state;
+    private int bufferedCalls;
+    private double failureRate;
+    private double slowCallRate;
+    private long opened;
+    private long notPermitted;
+}
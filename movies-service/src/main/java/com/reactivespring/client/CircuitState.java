@@ -0,0 +1,7 @@
+package com.reactivespring.client;
+
+public enum CircuitState {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+}
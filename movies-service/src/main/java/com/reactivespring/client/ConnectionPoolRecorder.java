@@ -0,0 +1,77 @@
+package com.reactivespring.client;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the state of one downstream's connection pool. Reactor Netty registers a
+ * {@link ConnectionPoolMetrics} per remote address through {@link ConnectionProvider.MeterRegistrar},
+ * which gives the active, idle and pending gauges; acquire latency is measured by
+ * {@link #timeAcquire(Mono)} around every connection acquisition, including the connect of
+ * a new connection and any time spent waiting in the pending-acquire queue.
+ */
+public class ConnectionPoolRecorder implements ConnectionProvider.MeterRegistrar {
+
+    private String client;
+    private int maxConnections;
+    private int maxPendingAcquire;
+    private Map<SocketAddress, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>();
+    private LongAdder acquired = new LongAdder();
+    private LongAdder acquireErrors = new LongAdder();
+    private LongAdder acquireNanos = new LongAdder();
+    private LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0);
+
+    public ConnectionPoolRecorder(String client, int maxConnections, int maxPendingAcquire) {
+        this.client = client;
+        this.maxConnections = maxConnections;
+        this.maxPendingAcquire = maxPendingAcquire;
+    }
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        pools.put(remoteAddress, metrics);
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        pools.remove(remoteAddress);
+    }
+
+    public <T> Mono<T> timeAcquire(Mono<T> acquire) {
+        return Mono.defer(() -> {
+            var start = new AtomicLong();
+            return acquire
+                    .doOnSubscribe(subscription -> start.set(System.nanoTime()))
+                    .doOnNext(connection -> record(System.nanoTime() - start.get()))
+                    .doOnError(ex -> acquireErrors.increment());
+        });
+    }
+
+    void record(long elapsedNanos) {
+        acquired.increment();
+        acquireNanos.add(elapsedNanos);
+        maxAcquireNanos.accumulate(elapsedNanos);
+    }
+
+    public ConnectionPoolStats stats() {
+        int allocated = 0, active = 0, idle = 0, pending = 0;
+        for (var metrics : pools.values()) {
+            allocated += metrics.allocatedSize();
+            active += metrics.acquiredSize();
+            idle += metrics.idleSize();
+            pending += metrics.pendingAcquireSize();
+        }
+        var count = acquired.sum();
+        var averageAcquireMillis = count == 0 ? 0.0 : acquireNanos.sum() / (double) count / 1_000_000;
+        return new ConnectionPoolStats(client, maxConnections, maxPendingAcquire, allocated, active, idle, pending,
+                count, acquireErrors.sum(), averageAcquireMillis, maxAcquireNanos.get() / 1_000_000.0);
+    }
+}
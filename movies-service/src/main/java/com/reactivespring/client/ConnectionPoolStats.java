@@ -0,0 +1,23 @@
+package com.reactivespring.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionPoolStats {
+
+    private String client;
+    private int maxConnections;
+    private int maxPendingAcquire;
+    private int allocated;
+    private int active;
+    private int idle;
+    private int pending;
+    private long acquired;
+    private long acquireErrors;
+    private double averageAcquireMillis;
+    private double maxAcquireMillis;
+}
@@ -0,0 +1,58 @@
+package com.reactivespring.client;
+
+import com.reactivespring.config.DownstreamClientProperties;
+import com.reactivespring.exception.MoviesInfoServerException;
+import com.reactivespring.exception.ReviewsServerException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Retries a downstream call that failed with a server-class error: a 5xx answer, a connection
+ * failure or a timeout, all of which the clients map to the server exceptions. Client errors
+ * are never retried. Attempts back off exponentially with jitter, and each retry has to be
+ * granted by the shared {@link RetryBudget}; when it is not, the last failure is returned.
+ * The whole call, retries and backoff included, is bounded by the client's {@code timeout}.
+ */
+@Component
+@Slf4j
+public class DownstreamRetry {
+
+    private RetryBudget retryBudget;
+
+    public DownstreamRetry(RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    public <T> Mono<T> withRetry(String client, DownstreamClientProperties clientProperties, Mono<T> call,
+                                 Supplier<? extends Throwable> deadlineExceeded) {
+        return Mono.defer(() -> {
+            retryBudget.recordRequest();
+            return call.retryWhen(retry(client, clientProperties))
+                    .timeout(clientProperties.getTimeout(), Mono.error(deadlineExceeded));
+        });
+    }
+
+    private Retry retry(String client, DownstreamClientProperties clientProperties) {
+        var maxAttempts = clientProperties.getRetryMaxAttempts();
+        var failures = new AtomicInteger();
+        // the spec filters before it checks for exhaustion, so only failures that will be
+        // retried take a retry from the budget
+        return Retry.backoff(maxAttempts, clientProperties.getRetryMinBackoff())
+                .maxBackoff(clientProperties.getRetryMaxBackoff())
+                .jitter(clientProperties.getRetryJitter())
+                .filter(ex -> isServerError(ex)
+                        && (failures.incrementAndGet() > maxAttempts || retryBudget.tryAcquireRetry()))
+                .doBeforeRetry(signal -> log.info("Retrying {} after attempt {} : {}",
+                        client, signal.totalRetries() + 1, signal.failure().getMessage()))
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    static boolean isServerError(Throwable ex) {
+        return ex instanceof MoviesInfoServerException || ex instanceof ReviewsServerException;
+    }
+}
@@ -0,0 +1,74 @@
+package com.reactivespring.client;
+
+import com.reactivespring.config.DownstreamClientProperties;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.exception.MoviesInfoClientException;
+import com.reactivespring.exception.MoviesInfoServerException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Reads a {@link MovieInfo} from movies-info-service. A 4xx answer becomes a
+ * {@link MoviesInfoClientException} with its status; a 5xx answer, a connection failure or no
+ * answer within {@code attemptTimeout} becomes a {@link MoviesInfoServerException}, which
+ * {@link DownstreamRetry} may retry until {@code timeout} has passed for the whole call.
+ */
+@Component
+@Slf4j
+public class MoviesInfoRestClient {
+
+    private WebClient webClient;
+    private String moviesInfoUrl;
+    private Duration timeout;
+    private Duration attemptTimeout;
+    private DownstreamClientProperties clientProperties;
+    private DownstreamRetry downstreamRetry;
+    private CircuitBreaker circuitBreaker;
+
+    public MoviesInfoRestClient(WebClientRegistry webClientRegistry, DownstreamRetry downstreamRetry) {
+        this.webClient = webClientRegistry.webClient("movies-info");
+        this.clientProperties = webClientRegistry.properties("movies-info");
+        this.downstreamRetry = downstreamRetry;
+        this.circuitBreaker = webClientRegistry.circuitBreaker("movies-info");
+        this.moviesInfoUrl = clientProperties.getUrl();
+        this.timeout = clientProperties.getTimeout();
+        this.attemptTimeout = clientProperties.getAttemptTimeout();
+    }
+
+    public Mono<MovieInfo> retrieveMovieInfo(String movieId) {
+        var call = webClient.get()
+                .uri(moviesInfoUrl + "/{id}", movieId)
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, clientResponse -> {
+                    log.info("Status code is : {}", clientResponse.statusCode().value());
+                    if (clientResponse.statusCode().equals(HttpStatus.NOT_FOUND)) {
+                        return Mono.error(new MoviesInfoClientException(
+                                "There is no MovieInfo available for the passed in Id : " + movieId, clientResponse.statusCode().value()));
+                    }
+                    return clientResponse.bodyToMono(String.class)
+                            .defaultIfEmpty(clientResponse.statusCode().toString())
+                            .flatMap(responseMessage -> Mono.error(new MoviesInfoClientException(responseMessage, clientResponse.statusCode().value())));
+                })
+                .onStatus(HttpStatusCode::is5xxServerError, clientResponse -> {
+                    log.info("Status code is : {}", clientResponse.statusCode().value());
+                    return clientResponse.bodyToMono(String.class)
+                            .defaultIfEmpty(clientResponse.statusCode().toString())
+                            .flatMap(responseMessage -> Mono.error(new MoviesInfoServerException(
+                                    "Server Exception in MoviesInfoService " + responseMessage)));
+                })
+                .bodyToMono(MovieInfo.class)
+                .timeout(attemptTimeout, Mono.error(() -> new MoviesInfoServerException(
+                        "MoviesInfoService did not answer within " + attemptTimeout.toMillis() + "ms")))
+                .onErrorMap(WebClientRequestException.class, ex -> new MoviesInfoServerException(
+                        "MoviesInfoService is not reachable : " + ex.getMessage()));
+        return downstreamRetry.withRetry("movies-info", clientProperties, circuitBreaker.protect(call),
+                () -> new MoviesInfoServerException("MoviesInfoService did not answer within " + timeout.toMillis() + "ms"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.reactivespring.client;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide cap on downstream retries. Every first attempt counts as a request, and over
+ * the last {@code window} the retries may not exceed {@code ratio} of those requests, with a
+ * floor of {@code minRetriesPerSecond} so a quiet process can still retry at all. When a
+ * downstream browns out, retries stop at that share of traffic instead of multiplying it.
+ * <p>
+ * The window is a ring of one-second buckets, so old traffic ages out second by second.
+ */
+@Component
+public class RetryBudget {
+
+    private LongSupplier clock;
+    private double ratio;
+    private int minRetriesPerSecond;
+    private int windowSeconds;
+    private long[] bucketSeconds;
+    private long[] requests;
+    private long[] retries;
+    private long rejected;
+
+    @Autowired
+    public RetryBudget(@Value("${movies.retry-budget.ratio:0.1}") double ratio,
+                       @Value("${movies.retry-budget.min-retries-per-second:1}") int minRetriesPerSecond,
+                       @Value("${movies.retry-budget.window:10s}") Duration window) {
+        this(ratio, minRetriesPerSecond, window, System::currentTimeMillis);
+    }
+
+    RetryBudget(double ratio, int minRetriesPerSecond, Duration window, LongSupplier clock) {
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.windowSeconds = (int) Math.max(1, window.toSeconds());
+        this.clock = clock;
+        this.bucketSeconds = new long[windowSeconds];
+        this.requests = new long[windowSeconds];
+        this.retries = new long[windowSeconds];
+    }
+
+    public synchronized void recordRequest() {
+        requests[bucket()]++;
+    }
+
+    /**
+     * Takes one retry from the budget, or returns false when the window has used its share.
+     */
+    public synchronized boolean tryAcquireRetry() {
+        var current = bucket();
+        if (sum(retries) + 1 > allowedRetries()) {
+            rejected++;
+            return false;
+        }
+        retries[current]++;
+        return true;
+    }
+
+    public synchronized RetryBudgetStats stats() {
+        bucket();
+        return new RetryBudgetStats(ratio, minRetriesPerSecond, windowSeconds,
+                sum(requests), sum(retries), allowedRetries(), rejected);
+    }
+
+    private long allowedRetries() {
+        return Math.max((long) minRetriesPerSecond * windowSeconds, (long) (sum(requests) * ratio));
+    }
+
+    private int bucket() {
+        var second = clock.getAsLong() / 1000;
+        var index = (int) (second % windowSeconds);
+        if (bucketSeconds[index] != second) {
+            bucketSeconds[index] = second;
+            requests[index] = 0;
+            retries[index] = 0;
+        }
+        for (var i = 0; i < windowSeconds; i++) {
+            if (second - bucketSeconds[i] >= windowSeconds) {
+                requests[i] = 0;
+                retries[i] = 0;
+            }
+        }
+        return index;
+    }
+
+    private static long sum(long[] counts) {
+        var total = 0L;
+        for (var count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,19 @@
+package com.reactivespring.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetryBudgetStats {
+
+    private double ratio;
+    private int minRetriesPerSecond;
+    private int windowSeconds;
+    private long requests;
+    private long retries;
+    private long allowedRetries;
+    private long rejected;
+}
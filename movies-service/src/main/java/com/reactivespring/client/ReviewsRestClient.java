@@ -0,0 +1,80 @@
+package com.reactivespring.client;
+
+import com.reactivespring.config.DownstreamClientProperties;
+import com.reactivespring.domain.Review;
+import com.reactivespring.exception.ReviewsClientException;
+import com.reactivespring.exception.ReviewsServerException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reads the reviews of a movie from movies-review-service. A 404 means no reviews; any other
+ * 4xx answer becomes a {@link ReviewsClientException}, and a 5xx answer, a connection failure
+ * or no complete answer within {@code attemptTimeout} becomes a {@link ReviewsServerException},
+ * which {@link DownstreamRetry} may retry until {@code timeout} has passed for the whole call.
+ */
+@Component
+@Slf4j
+public class ReviewsRestClient {
+
+    private WebClient webClient;
+    private String reviewsUrl;
+    private Duration timeout;
+    private Duration attemptTimeout;
+    private DownstreamClientProperties clientProperties;
+    private DownstreamRetry downstreamRetry;
+    private CircuitBreaker circuitBreaker;
+
+    public ReviewsRestClient(WebClientRegistry webClientRegistry, DownstreamRetry downstreamRetry) {
+        this.webClient = webClientRegistry.webClient("reviews");
+        this.clientProperties = webClientRegistry.properties("reviews");
+        this.downstreamRetry = downstreamRetry;
+        this.circuitBreaker = webClientRegistry.circuitBreaker("reviews");
+        this.reviewsUrl = clientProperties.getUrl();
+        this.timeout = clientProperties.getTimeout();
+        this.attemptTimeout = clientProperties.getAttemptTimeout();
+    }
+
+    public Mono<List<Review>> retrieveReviews(String movieId) {
+        var url = UriComponentsBuilder.fromHttpUrl(reviewsUrl)
+                .queryParam("movieInfoId", movieId)
+                .buildAndExpand()
+                .toUriString();
+        var call = webClient.get()
+                .uri(url)
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, clientResponse -> {
+                    log.info("Status code is : {}", clientResponse.statusCode().value());
+                    if (clientResponse.statusCode().equals(HttpStatus.NOT_FOUND)) {
+                        return Mono.empty();
+                    }
+                    return clientResponse.bodyToMono(String.class)
+                            .defaultIfEmpty(clientResponse.statusCode().toString())
+                            .flatMap(responseMessage -> Mono.error(new ReviewsClientException(responseMessage)));
+                })
+                .onStatus(HttpStatusCode::is5xxServerError, clientResponse -> {
+                    log.info("Status code is : {}", clientResponse.statusCode().value());
+                    return clientResponse.bodyToMono(String.class)
+                            .defaultIfEmpty(clientResponse.statusCode().toString())
+                            .flatMap(responseMessage -> Mono.error(new ReviewsServerException(
+                                    "Server Exception in ReviewsService " + responseMessage)));
+                })
+                .bodyToFlux(Review.class)
+                .collectList()
+                .timeout(attemptTimeout, Mono.error(() -> new ReviewsServerException(
+                        "ReviewsService did not answer within " + attemptTimeout.toMillis() + "ms")))
+                .onErrorMap(WebClientRequestException.class, ex -> new ReviewsServerException(
+                        "ReviewsService is not reachable : " + ex.getMessage()));
+        return downstreamRetry.withRetry("reviews", clientProperties, circuitBreaker.protect(call),
+                () -> new ReviewsServerException("ReviewsService did not answer within " + timeout.toMillis() + "ms"));
+    }
+}
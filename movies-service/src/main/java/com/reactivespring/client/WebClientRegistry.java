@@ -0,0 +1,113 @@
+package com.reactivespring.client;
+
+import com.reactivespring.config.DownstreamClientProperties;
+import com.reactivespring.config.MoviesClientsProperties;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds one {@link WebClient} per entry under {@code movies.clients}, each on its own
+ * {@link ConnectionProvider}, so exhausting the pool of one downstream only queues calls to
+ * that downstream. Pools are sized, evicted and kept alive per client, and can speak h2c.
+ * Each client also gets its own {@link CircuitBreaker}.
+ */
+@Component
+@Slf4j
+public class WebClientRegistry implements DisposableBean {
+
+    private Map<String, DownstreamClientProperties> properties;
+    private Map<String, WebClient> webClients = new LinkedHashMap<>();
+    private Map<String, ConnectionProvider> connectionProviders = new LinkedHashMap<>();
+    private Map<String, ConnectionPoolRecorder> recorders = new LinkedHashMap<>();
+    private Map<String, CircuitBreaker> circuitBreakers = new LinkedHashMap<>();
+
+    public WebClientRegistry(WebClient.Builder webClientBuilder, MoviesClientsProperties moviesClientsProperties) {
+        this.properties = moviesClientsProperties.getClients();
+        properties.forEach((name, clientProperties) -> {
+            var recorder = new ConnectionPoolRecorder(name,
+                    clientProperties.getMaxConnections(), clientProperties.getPendingAcquireMaxCount());
+            var connectionProvider = connectionProvider(name, clientProperties, recorder);
+            var httpClient = HttpClient.create(connectionProvider)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) clientProperties.getConnectTimeout().toMillis())
+                    .option(ChannelOption.SO_KEEPALIVE, clientProperties.isKeepAlive())
+                    .keepAlive(clientProperties.isKeepAlive())
+                    .mapConnect(recorder::timeAcquire);
+            if (clientProperties.isH2c()) {
+                httpClient = httpClient.protocol(HttpProtocol.HTTP11, HttpProtocol.H2C);
+            }
+            recorders.put(name, recorder);
+            circuitBreakers.put(name, new CircuitBreaker(name, clientProperties));
+            connectionProviders.put(name, connectionProvider);
+            webClients.put(name, webClientBuilder.clone()
+                    .clientConnector(new ReactorClientHttpConnector(httpClient))
+                    .build());
+            log.info("Registered client {} for {} with {} connections", name, clientProperties.getUrl(), clientProperties.getMaxConnections());
+        });
+    }
+
+    static ConnectionProvider connectionProvider(String name, DownstreamClientProperties clientProperties,
+                                                 ConnectionPoolRecorder recorder) {
+        return ConnectionProvider.builder(name)
+                .maxConnections(clientProperties.getMaxConnections())
+                .pendingAcquireMaxCount(clientProperties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(clientProperties.getPendingAcquireTimeout())
+                .maxIdleTime(clientProperties.getMaxIdleTime())
+                .maxLifeTime(clientProperties.getMaxLifeTime())
+                .evictInBackground(clientProperties.getEvictInBackground())
+                .metrics(true, () -> recorder)
+                .build();
+    }
+
+    public WebClient webClient(String name) {
+        var webClient = webClients.get(name);
+        if (webClient == null) {
+            throw new IllegalStateException("No client configured under movies.clients." + name);
+        }
+        return webClient;
+    }
+
+    public CircuitBreaker circuitBreaker(String name) {
+        var circuitBreaker = circuitBreakers.get(name);
+        if (circuitBreaker == null) {
+            throw new IllegalStateException("No client configured under movies.clients." + name);
+        }
+        return circuitBreaker;
+    }
+
+    public DownstreamClientProperties properties(String name) {
+        var clientProperties = properties.get(name);
+        if (clientProperties == null) {
+            throw new IllegalStateException("No client configured under movies.clients." + name);
+        }
+        return clientProperties;
+    }
+
+    public List<ConnectionPoolStats> stats() {
+        var stats = new ArrayList<ConnectionPoolStats>(recorders.size());
+        recorders.values().forEach(recorder -> stats.add(recorder.stats()));
+        return stats;
+    }
+
+    public List<CircuitBreakerStats> circuitBreakerStats() {
+        var stats = new ArrayList<CircuitBreakerStats>(circuitBreakers.size());
+        circuitBreakers.values().forEach(circuitBreaker -> stats.add(circuitBreaker.stats()));
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        connectionProviders.values().forEach(ConnectionProvider::dispose);
+    }
+}
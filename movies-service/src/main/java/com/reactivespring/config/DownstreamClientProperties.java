@@ -0,0 +1,40 @@
+package com.reactivespring.config;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+/**
+ * Settings for one downstream service under {@code movies.clients.<name>}: where it lives,
+ * how long a call may take in total and per attempt, how its dedicated connection pool is
+ * sized, how server-class failures are retried and when its circuit breaker opens.
+ */
+@Data
+@NoArgsConstructor
+public class DownstreamClientProperties {
+
+    private String url;
+    private Duration timeout = Duration.ofSeconds(2);
+    private Duration attemptTimeout = Duration.ofSeconds(1);
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private int maxConnections = 50;
+    private int pendingAcquireMaxCount = 100;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(1);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    private Duration evictInBackground = Duration.ofSeconds(30);
+    private boolean keepAlive = true;
+    private boolean h2c = false;
+    private int retryMaxAttempts = 2;
+    private Duration retryMinBackoff = Duration.ofMillis(100);
+    private Duration retryMaxBackoff = Duration.ofSeconds(1);
+    private double retryJitter = 0.5;
+    private int circuitWindowSize = 20;
+    private int circuitMinimumCalls = 10;
+    private double circuitFailureRateThreshold = 50;
+    private double circuitSlowCallRateThreshold = 80;
+    private Duration circuitSlowCallDuration = Duration.ofSeconds(1);
+    private Duration circuitOpenDuration = Duration.ofSeconds(10);
+    private int circuitHalfOpenCalls = 3;
+}
@@ -0,0 +1,16 @@
+package com.reactivespring.config;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "movies")
+public class MoviesClientsProperties {
+
+    private Map<String, DownstreamClientProperties> clients = new LinkedHashMap<>();
+}
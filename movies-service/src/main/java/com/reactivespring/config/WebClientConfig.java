@@ -0,0 +1,9 @@
+package com.reactivespring.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(MoviesClientsProperties.class)
+public class WebClientConfig {
+}
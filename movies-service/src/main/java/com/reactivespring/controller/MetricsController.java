@@ -0,0 +1,49 @@
+package com.reactivespring.controller;
+
+import com.reactivespring.cache.MovieCache;
+import com.reactivespring.cache.MovieCacheStats;
+import com.reactivespring.client.CircuitBreakerStats;
+import com.reactivespring.client.ConnectionPoolStats;
+import com.reactivespring.client.RetryBudget;
+import com.reactivespring.client.RetryBudgetStats;
+import com.reactivespring.client.WebClientRegistry;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/v1/metrics")
+public class MetricsController {
+
+    private WebClientRegistry webClientRegistry;
+    private RetryBudget retryBudget;
+    private MovieCache movieCache;
+
+    public MetricsController(WebClientRegistry webClientRegistry, RetryBudget retryBudget, MovieCache movieCache) {
+        this.webClientRegistry = webClientRegistry;
+        this.retryBudget = retryBudget;
+        this.movieCache = movieCache;
+    }
+
+    @GetMapping("/clients")
+    public Flux<ConnectionPoolStats> getConnectionPoolStats() {
+        return Flux.defer(() -> Flux.fromIterable(webClientRegistry.stats()));
+    }
+
+    @GetMapping("/retries")
+    public Mono<RetryBudgetStats> getRetryBudgetStats() {
+        return Mono.fromSupplier(retryBudget::stats);
+    }
+
+    @GetMapping("/circuit-breakers")
+    public Flux<CircuitBreakerStats> getCircuitBreakerStats() {
+        return Flux.defer(() -> Flux.fromIterable(webClientRegistry.circuitBreakerStats()));
+    }
+
+    @GetMapping("/cache")
+    public Mono<MovieCacheStats> getCacheStats() {
+        return Mono.fromSupplier(movieCache::stats);
+    }
+}
@@ -0,0 +1,65 @@
+package com.reactivespring.controller;
+
+import com.reactivespring.domain.Movie;
+import com.reactivespring.domain.MovieResult;
+import com.reactivespring.domain.ResultOrder;
+import com.reactivespring.exception.MoviesRequestException;
+import com.reactivespring.service.MoviesService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/v1/movies")
+@Slf4j
+public class MoviesController {
+
+    static final String STALE_HEADER = "X-Stale";
+
+    private MoviesService moviesService;
+
+    public MoviesController(MoviesService moviesService) {
+        this.moviesService = moviesService;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Movie>> retrieveMovieById(@PathVariable("id") String movieId) {
+        log.debug("Movie id is : {}", movieId);
+        return moviesService.getCachedMovie(movieId)
+                .map(cachedMovie -> {
+                    var response = ResponseEntity.ok();
+                    if (cachedMovie.isStale()) {
+                        response.header(STALE_HEADER, "true")
+                                .header(HttpHeaders.AGE, String.valueOf(cachedMovie.getAgeSeconds()));
+                    }
+                    return response.body(cachedMovie.getMovie());
+                });
+    }
+
+    @GetMapping(params = "ids", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MovieResult> retrieveMovies(@RequestParam("ids") List<String> movieIds,
+                                            @RequestParam(value = "order", defaultValue = "request") String order) {
+        log.debug("Movie ids are : {}, order : {}", movieIds, order);
+        return Mono.fromCallable(() -> parseOrder(order))
+                .flatMapMany(resultOrder -> moviesService.getMovies(movieIds, resultOrder));
+    }
+
+    private static ResultOrder parseOrder(String order) {
+        try {
+            return ResultOrder.valueOf(order.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new MoviesRequestException("order must be one of request, completion");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.reactivespring.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a multi-movie response: either the {@link Movie} built for {@code movieId},
+ * flagged when it was served stale from the cache, or the HTTP status and message that
+ * building it failed with.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieResult {
+
+    private String movieId;
+    private Movie movie;
+    private Integer status;
+    private String error;
+    private boolean stale;
+
+    public static MovieResult of(String movieId, Movie movie, boolean stale) {
+        return new MovieResult(movieId, movie, 200, null, stale);
+    }
+
+    public static MovieResult failed(String movieId, Integer status, String error) {
+        return new MovieResult(movieId, null, status, error, false);
+    }
+}
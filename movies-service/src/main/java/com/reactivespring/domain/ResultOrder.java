@@ -0,0 +1,6 @@
+package com.reactivespring.domain;
+
+public enum ResultOrder {
+    REQUEST,
+    COMPLETION
+}
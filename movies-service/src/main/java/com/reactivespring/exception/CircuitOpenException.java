@@ -0,0 +1,10 @@
+package com.reactivespring.exception;
+
+public class CircuitOpenException extends RuntimeException{
+    private String message;
+
+    public CircuitOpenException(String message) {
+        super(message);
+        this.message = message;
+    }
+}
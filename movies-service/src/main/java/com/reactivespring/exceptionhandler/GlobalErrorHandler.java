@@ -0,0 +1,48 @@
+package com.reactivespring.exceptionhandler;
+
+import com.reactivespring.exception.CircuitOpenException;
+import com.reactivespring.exception.MoviesInfoClientException;
+import com.reactivespring.exception.MoviesInfoServerException;
+import com.reactivespring.exception.MoviesRequestException;
+import com.reactivespring.exception.ReviewsClientException;
+import com.reactivespring.exception.ReviewsServerException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+@ControllerAdvice
+@Slf4j
+public class GlobalErrorHandler {
+
+    @ExceptionHandler(MoviesInfoClientException.class)
+    public ResponseEntity<String> handleMoviesInfoClientException(MoviesInfoClientException ex) {
+        log.error("Exception Caught in handleMoviesInfoClientException: {}", ex.getMessage());
+        return ResponseEntity.status(ex.getStatusCode()).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(MoviesRequestException.class)
+    public ResponseEntity<String> handleMoviesRequestException(MoviesRequestException ex) {
+        log.error("Exception Caught in handleMoviesRequestException: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(ReviewsClientException.class)
+    public ResponseEntity<String> handleReviewsClientException(ReviewsClientException ex) {
+        log.error("Exception Caught in handleReviewsClientException: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler({MoviesInfoServerException.class, ReviewsServerException.class})
+    public ResponseEntity<String> handleServerException(RuntimeException ex) {
+        log.error("Exception Caught in handleServerException: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(CircuitOpenException.class)
+    public ResponseEntity<String> handleCircuitOpenException(CircuitOpenException ex) {
+        log.error("Exception Caught in handleCircuitOpenException: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
+}
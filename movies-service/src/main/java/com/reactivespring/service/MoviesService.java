@@ -0,0 +1,103 @@
+package com.reactivespring.service;
+
+import com.reactivespring.cache.CachedMovie;
+import com.reactivespring.cache.MovieCache;
+import com.reactivespring.client.MoviesInfoRestClient;
+import com.reactivespring.client.ReviewsRestClient;
+import com.reactivespring.domain.Movie;
+import com.reactivespring.domain.MovieResult;
+import com.reactivespring.domain.ResultOrder;
+import com.reactivespring.exception.CircuitOpenException;
+import com.reactivespring.exception.MoviesInfoClientException;
+import com.reactivespring.exception.MoviesRequestException;
+import com.reactivespring.exception.ReviewsClientException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Builds a {@link Movie} from movies-info-service and movies-review-service. Both calls are
+ * subscribed at the same time, so the latency of the aggregate is the slower of the two calls
+ * rather than their sum; whichever call fails first cancels the other.
+ * <p>
+ * Several movies are built with at most {@code concurrency} aggregates in flight, and a movie
+ * that fails becomes a failed {@link MovieResult} instead of ending the whole response.
+ * <p>
+ * Requests are answered through the {@link MovieCache}, which serves the last good aggregate,
+ * marked stale, while it is refreshed or while a downstream circuit is open.
+ */
+@Service
+@Slf4j
+public class MoviesService {
+
+    private MoviesInfoRestClient moviesInfoRestClient;
+    private ReviewsRestClient reviewsRestClient;
+    private MovieCache movieCache;
+    private int concurrency;
+    private int maxIds;
+
+    public MoviesService(MoviesInfoRestClient moviesInfoRestClient,
+                         ReviewsRestClient reviewsRestClient,
+                         MovieCache movieCache,
+                         @Value("${movies.aggregate.concurrency:8}") int concurrency,
+                         @Value("${movies.aggregate.max-ids:100}") int maxIds) {
+        this.moviesInfoRestClient = moviesInfoRestClient;
+        this.reviewsRestClient = reviewsRestClient;
+        this.movieCache = movieCache;
+        this.concurrency = concurrency;
+        this.maxIds = maxIds;
+    }
+
+    public Mono<Movie> getMovie(String movieId) {
+        return Mono.zip(
+                moviesInfoRestClient.retrieveMovieInfo(movieId),
+                reviewsRestClient.retrieveReviews(movieId),
+                Movie::new);
+    }
+
+    public Mono<CachedMovie> getCachedMovie(String movieId) {
+        return movieCache.get(movieId, this::getMovie);
+    }
+
+    public Flux<MovieResult> getMovies(List<String> movieIds, ResultOrder order) {
+        var distinctIds = new LinkedHashSet<>(movieIds);
+        distinctIds.removeIf(String::isBlank);
+        if (distinctIds.isEmpty()) {
+            return Flux.error(new MoviesRequestException("ids must contain at least one movie id"));
+        }
+        if (distinctIds.size() > maxIds) {
+            return Flux.error(new MoviesRequestException("ids must not contain more than " + maxIds + " movie ids"));
+        }
+        var ids = Flux.fromIterable(distinctIds);
+        return order == ResultOrder.COMPLETION
+                ? ids.flatMap(this::getMovieResult, concurrency)
+                : ids.flatMapSequential(this::getMovieResult, concurrency);
+    }
+
+    private Mono<MovieResult> getMovieResult(String movieId) {
+        return getCachedMovie(movieId)
+                .map(cachedMovie -> MovieResult.of(movieId, cachedMovie.getMovie(), cachedMovie.isStale()))
+                .onErrorResume(ex -> {
+                    log.error("Exception Caught in getMovieResult for {} : {}", movieId, ex.getMessage());
+                    return Mono.just(MovieResult.failed(movieId, statusOf(ex), ex.getMessage()));
+                });
+    }
+
+    private static Integer statusOf(Throwable ex) {
+        if (ex instanceof MoviesInfoClientException moviesInfoClientException) {
+            return moviesInfoClientException.getStatusCode();
+        }
+        if (ex instanceof ReviewsClientException) {
+            return 400;
+        }
+        if (ex instanceof CircuitOpenException) {
+            return 503;
+        }
+        return 500;
+    }
+}
@@ -0,0 +1,110 @@
+package com.reactivespring.controller;
+
+import com.reactivespring.domain.Movie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient(timeout = "10s")
+@AutoConfigureWireMock(port = 0)
+// each test needs a closed reviews circuit and an empty cache
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@TestPropertySource(
+        properties = {
+                "movies.clients.movies-info.url=http://localhost:${wiremock.server.port}/v1/movieinfos",
+                "movies.clients.movies-info.retry-max-attempts=0",
+                "movies.clients.movies-info.attempt-timeout=2s",
+                "movies.clients.reviews.url=http://localhost:${wiremock.server.port}/v1/reviews",
+                "movies.clients.reviews.retry-max-attempts=0",
+                "movies.clients.reviews.attempt-timeout=2s",
+                "movies.clients.reviews.circuit-minimum-calls=2",
+                "movies.clients.reviews.circuit-window-size=2",
+                "movies.clients.reviews.circuit-open-duration=1m",
+                "movies.cache.ttl=0s",
+                "movies.cache.max-stale=10m"
+        }
+)
+public class MoviesCacheIntgTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    static String MOVIES_URL = "/v1/movies/{id}";
+
+    @AfterEach
+    void tearDown() {
+        reset();
+    }
+
+    @Test
+    void retrieveMovieById_staleWhileReviewsDegraded() {
+        //given
+        var movieId = "abc";
+        stubFor(get(urlEqualTo("/v1/movieinfos/" + movieId))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("movieinfo.json")));
+        stubFor(get(urlPathEqualTo("/v1/reviews"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("reviews.json")));
+        webTestClient.get().uri(MOVIES_URL, movieId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(MoviesController.STALE_HEADER);
+
+        //when
+        stubFor(get(urlPathEqualTo("/v1/reviews"))
+                .willReturn(aResponse().withStatus(500)));
+
+        //then
+        // enough failed refreshes to open the reviews circuit, every answer still served stale
+        for (var i = 0; i < 3; i++) {
+            webTestClient.get().uri(MOVIES_URL, movieId)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().valueEquals(MoviesController.STALE_HEADER, "true")
+                    .expectHeader().exists("Age")
+                    .expectBody(Movie.class)
+                    .consumeWith(movieEntityExchangeResult -> {
+                        var movie = movieEntityExchangeResult.getResponseBody();
+                        assert movie != null;
+                        assertEquals(2, movie.getReviewList().size());
+                    });
+        }
+    }
+
+    @Test
+    void retrieveMovieById_circuitOpenWithoutCachedMovie() {
+        //given
+        stubFor(get(urlPathMatching("/v1/movieinfos/.*"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("movieinfo.json")));
+        stubFor(get(urlPathEqualTo("/v1/reviews"))
+                .willReturn(aResponse().withStatus(500)));
+
+        //when
+        webTestClient.get().uri(MOVIES_URL, "def").exchange().expectStatus().is5xxServerError();
+        webTestClient.get().uri(MOVIES_URL, "ghi").exchange().expectStatus().is5xxServerError();
+
+        //then
+        webTestClient.get().uri(MOVIES_URL, "jkl")
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectBody(String.class)
+                .isEqualTo("Circuit for reviews is open");
+    }
+}
@@ -1,4 +1,274 @@
 package com.reactivespring.controller;
 
+import com.reactivespring.client.ConnectionPoolStats;
+import com.reactivespring.domain.Movie;
+import com.reactivespring.domain.MovieResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient(timeout = "10s")
+@AutoConfigureWireMock(port = 0)
+@TestPropertySource(
+        properties = {
+                "movies.clients.movies-info.url=http://localhost:${wiremock.server.port}/v1/movieinfos",
+                "movies.clients.movies-info.timeout=2s",
+                "movies.clients.reviews.url=http://localhost:${wiremock.server.port}/v1/reviews",
+                "movies.clients.reviews.timeout=2s",
+                "movies.clients.reviews.max-connections=5",
+                "movies.clients.reviews.retry-max-attempts=1",
+                "movies.cache.ttl=0s",
+                "movies.cache.max-stale=0s"
+        }
+)
 public class MoviesControllerIntgTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    static String MOVIES_URL = "/v1/movies/{id}";
+
+    @AfterEach
+    void tearDown() {
+        reset();
+    }
+
+    @Test
+    void retrieveMovieById() {
+        //given
+        var movieId = "abc";
+        stubFor(get(urlEqualTo("/v1/movieinfos/" + movieId))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("movieinfo.json")));
+        stubFor(get(urlPathEqualTo("/v1/reviews"))
+                .withQueryParam("movieInfoId", equalTo(movieId))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("reviews.json")));
+
+        //when
+        webTestClient
+                .get()
+                .uri(MOVIES_URL, movieId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Movie.class)
+                .consumeWith(movieEntityExchangeResult -> {
+                    var movie = movieEntityExchangeResult.getResponseBody();
+                    //then
+                    assert movie != null;
+                    assertEquals("Batman Begins", movie.getMovieInfo().getName());
+                    assertEquals(2, movie.getReviewList().size());
+                });
+    }
+
+    @Test
+    void retrieveMovieById_movieInfo404() {
+        //given
+        var movieId = "abc";
+        stubFor(get(urlEqualTo("/v1/movieinfos/" + movieId))
+                .willReturn(aResponse().withStatus(404)));
+        stubFor(get(urlPathEqualTo("/v1/reviews"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("reviews.json")));
+
+        //when
+        webTestClient
+                .get()
+                .uri(MOVIES_URL, movieId)
+                .exchange()
+                //then
+                .expectStatus().isNotFound()
+                .expectBody(String.class)
+                .isEqualTo("There is no MovieInfo available for the passed in Id : abc");
+        verify(1, getRequestedFor(urlEqualTo("/v1/movieinfos/" + movieId)));
+    }
+
+    @Test
+    void retrieveMovieById_reviews404() {
+        //given
+        var movieId = "abc";
+        stubFor(get(urlEqualTo("/v1/movieinfos/" + movieId))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("movieinfo.json")));
+        stubFor(get(urlPathEqualTo("/v1/reviews"))
+                .willReturn(aResponse().withStatus(404)));
+
+        //when
+        webTestClient
+                .get()
+                .uri(MOVIES_URL, movieId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Movie.class)
+                .consumeWith(movieEntityExchangeResult -> {
+                    var movie = movieEntityExchangeResult.getResponseBody();
+                    //then
+                    assert movie != null;
+                    assertEquals(0, movie.getReviewList().size());
+                });
+    }
+
+    @Test
+    void retrieveMovieById_movieInfo5xx() {
+        //given
+        var movieId = "abc";
+        stubFor(get(urlEqualTo("/v1/movieinfos/" + movieId))
+                .willReturn(aResponse()
+                        .withStatus(500)
+                        .withBody("MovieInfo Service Unavailable")));
+        stubFor(get(urlPathEqualTo("/v1/reviews"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("reviews.json")));
+
+        //when
+        webTestClient
+                .get()
+                .uri(MOVIES_URL, movieId)
+                .exchange()
+                //then
+                .expectStatus().is5xxServerError()
+                .expectBody(String.class)
+                .isEqualTo("Server Exception in MoviesInfoService MovieInfo Service Unavailable");
+        verify(3, getRequestedFor(urlEqualTo("/v1/movieinfos/" + movieId)));
+    }
+
+    @Test
+    void retrieveMovieById_movieInfo5xxThenSuccess() {
+        //given
+        var movieId = "abc";
+        stubFor(get(urlEqualTo("/v1/movieinfos/" + movieId))
+                .inScenario("movie info retry")
+                .whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withStatus(503))
+                .willSetStateTo("recovered"));
+        stubFor(get(urlEqualTo("/v1/movieinfos/" + movieId))
+                .inScenario("movie info retry")
+                .whenScenarioStateIs("recovered")
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("movieinfo.json")));
+        stubFor(get(urlPathEqualTo("/v1/reviews"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("reviews.json")));
+
+        //when
+        webTestClient
+                .get()
+                .uri(MOVIES_URL, movieId)
+                .exchange()
+                //then
+                .expectStatus().isOk();
+        verify(2, getRequestedFor(urlEqualTo("/v1/movieinfos/" + movieId)));
+    }
+
+    @Test
+    void retrieveMovieById_reviewsTimeout() {
+        //given
+        var movieId = "abc";
+        stubFor(get(urlEqualTo("/v1/movieinfos/" + movieId))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("movieinfo.json")));
+        stubFor(get(urlPathEqualTo("/v1/reviews"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("reviews.json")
+                        .withFixedDelay(4000)));
+
+        //when
+        webTestClient
+                .get()
+                .uri(MOVIES_URL, movieId)
+                .exchange()
+                //then
+                .expectStatus().is5xxServerError()
+                .expectBody(String.class)
+                .isEqualTo("ReviewsService did not answer within 2000ms");
+    }
+
+    @Test
+    void retrieveMovies() {
+        //given
+        stubFor(get(urlEqualTo("/v1/movieinfos/abc"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("movieinfo.json")));
+        stubFor(get(urlEqualTo("/v1/movieinfos/def"))
+                .willReturn(aResponse().withStatus(404)));
+        stubFor(get(urlPathEqualTo("/v1/reviews"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("reviews.json")));
+
+        //when
+        webTestClient
+                .get()
+                .uri("/v1/movies?ids=abc,def")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(MovieResult.class)
+                .consumeWith(listEntityExchangeResult -> {
+                    var results = listEntityExchangeResult.getResponseBody();
+                    //then
+                    assert results != null;
+                    assertEquals(2, results.size());
+                    assertEquals(2, results.get(0).getMovie().getReviewList().size());
+                    assertEquals(404, results.get(1).getStatus());
+                });
+    }
+
+    @Test
+    void getConnectionPoolStats() {
+        //given
+        stubFor(get(urlEqualTo("/v1/movieinfos/abc"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("movieinfo.json")));
+        stubFor(get(urlPathEqualTo("/v1/reviews"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("reviews.json")));
+        webTestClient.get().uri(MOVIES_URL, "abc")
+                .exchange()
+                .expectStatus().isOk();
+
+        //when
+        webTestClient
+                .get()
+                .uri("/v1/metrics/clients")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ConnectionPoolStats.class)
+                .consumeWith(listEntityExchangeResult -> {
+                    var stats = listEntityExchangeResult.getResponseBody();
+                    //then
+                    assert stats != null;
+                    assertEquals(2, stats.size());
+                    var reviews = stats.get(1);
+                    assertEquals("reviews", reviews.getClient());
+                    assertEquals(5, reviews.getMaxConnections());
+                    assert reviews.getAcquired() >= 1 : "acquired " + reviews.getAcquired();
+                    assert reviews.getAllocated() >= 1 : "allocated " + reviews.getAllocated();
+                });
+    }
 }
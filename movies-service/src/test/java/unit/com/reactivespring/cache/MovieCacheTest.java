@@ -0,0 +1,162 @@
+package com.reactivespring.cache;
+
+import com.reactivespring.domain.Movie;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.exception.CircuitOpenException;
+import com.reactivespring.exception.MoviesInfoClientException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovieCacheTest {
+
+    private static final long SECONDS = 1_000_000_000L;
+
+    private AtomicLong now = new AtomicLong();
+    private MovieCache movieCache = new MovieCache(2, Duration.ofSeconds(10), Duration.ofSeconds(60), now::get);
+
+    @Test
+    void get_freshHit() {
+        //given
+        var loads = new AtomicInteger();
+
+        //when
+        StepVerifier.create(movieCache.get("abc", id -> loader(loads, "Batman Begins")))
+                .assertNext(cachedMovie -> assertFalse(cachedMovie.isStale()))
+                .verifyComplete();
+        now.addAndGet(5 * SECONDS);
+
+        //then
+        StepVerifier.create(movieCache.get("abc", id -> loader(loads, "Batman Begins")))
+                .assertNext(cachedMovie -> {
+                    assertFalse(cachedMovie.isStale());
+                    assertEquals(5, cachedMovie.getAgeSeconds());
+                })
+                .verifyComplete();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_staleWhileRevalidate() {
+        //given
+        movieCache.put("abc", movie("Batman Begins"));
+        now.addAndGet(20 * SECONDS);
+        var refresh = Sinks.<Movie>one();
+        var loads = new AtomicInteger();
+
+        //when
+        StepVerifier.create(movieCache.get("abc", id -> {
+                    loads.incrementAndGet();
+                    return refresh.asMono();
+                }))
+                .assertNext(cachedMovie -> {
+                    //then
+                    assertTrue(cachedMovie.isStale());
+                    assertEquals(20, cachedMovie.getAgeSeconds());
+                    assertEquals("Batman Begins", cachedMovie.getMovie().getMovieInfo().getName());
+                })
+                .verifyComplete();
+        // a second stale read joins the refresh that is already running
+        StepVerifier.create(movieCache.get("abc", id -> loader(loads, "unused")))
+                .assertNext(cachedMovie -> assertTrue(cachedMovie.isStale()))
+                .verifyComplete();
+        assertEquals(1, loads.get());
+
+        refresh.tryEmitValue(movie("Batman Begins Remastered"));
+        StepVerifier.create(movieCache.get("abc", id -> loader(loads, "unused")))
+                .assertNext(cachedMovie -> {
+                    assertFalse(cachedMovie.isStale());
+                    assertEquals("Batman Begins Remastered", cachedMovie.getMovie().getMovieInfo().getName());
+                })
+                .verifyComplete();
+        assertEquals(1, movieCache.stats().getRefreshes());
+    }
+
+    @Test
+    void get_staleWhileCircuitOpen() {
+        //given
+        movieCache.put("abc", movie("Batman Begins"));
+        now.addAndGet(20 * SECONDS);
+
+        //when
+        for (var i = 0; i < 2; i++) {
+            StepVerifier.create(movieCache.get("abc", id -> Mono.error(new CircuitOpenException("Circuit for reviews is open"))))
+                    .assertNext(cachedMovie -> assertTrue(cachedMovie.isStale()))
+                    .verifyComplete();
+        }
+
+        //then
+        assertEquals(2, movieCache.stats().getRefreshFailures());
+        assertEquals(1, movieCache.stats().getSize());
+    }
+
+    @Test
+    void get_tooOldLoadsInRequest() {
+        //given
+        movieCache.put("abc", movie("Batman Begins"));
+        now.addAndGet(61 * SECONDS);
+
+        //when
+        //then
+        StepVerifier.create(movieCache.get("abc", id -> Mono.error(new CircuitOpenException("Circuit for reviews is open"))))
+                .expectError(CircuitOpenException.class)
+                .verify();
+        assertEquals(1, movieCache.stats().getExpirations());
+        assertEquals(0, movieCache.stats().getSize());
+    }
+
+    @Test
+    void refresh_clientErrorRemovesEntry() {
+        //given
+        movieCache.put("abc", movie("Batman Begins"));
+        now.addAndGet(20 * SECONDS);
+
+        //when
+        StepVerifier.create(movieCache.get("abc", id -> Mono.error(
+                        new MoviesInfoClientException("There is no MovieInfo available for the passed in Id : abc", 404))))
+                .assertNext(cachedMovie -> assertTrue(cachedMovie.isStale()))
+                .verifyComplete();
+
+        //then
+        assertEquals(0, movieCache.stats().getSize());
+    }
+
+    @Test
+    void put_evictsOldest() {
+        //when
+        movieCache.put("abc", movie("Batman Begins"));
+        movieCache.put("def", movie("The Dark Knight"));
+        movieCache.put("ghi", movie("Dark Knight Rises"));
+
+        //then
+        var loads = new AtomicInteger();
+        StepVerifier.create(movieCache.get("abc", id -> loader(loads, "Batman Begins")))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(1, loads.get());
+        assertTrue(movieCache.stats().getEvictions() >= 1);
+        assertTrue(movieCache.stats().getSize() <= 2);
+    }
+
+    private static Mono<Movie> loader(AtomicInteger loads, String name) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return movie(name);
+        });
+    }
+
+    private static Movie movie(String name) {
+        return new Movie(new MovieInfo("abc", name, 2005, List.of("Christian Bale"), LocalDate.parse("2005-06-15")), List.of());
+    }
+}
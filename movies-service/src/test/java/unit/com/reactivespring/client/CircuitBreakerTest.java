@@ -0,0 +1,147 @@
+package com.reactivespring.client;
+
+import com.reactivespring.config.DownstreamClientProperties;
+import com.reactivespring.exception.CircuitOpenException;
+import com.reactivespring.exception.ReviewsClientException;
+import com.reactivespring.exception.ReviewsServerException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CircuitBreakerTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    private AtomicLong now = new AtomicLong();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker("reviews", clientProperties(), now::get);
+
+    @Test
+    void opensOnFailureRate() {
+        //given
+        succeed(2);
+
+        //when
+        fail(1);
+        assertEquals(CircuitState.CLOSED, circuitBreaker.stats().getState());
+        fail(1);
+
+        //then
+        assertEquals(CircuitState.OPEN, circuitBreaker.stats().getState());
+        StepVerifier.create(circuitBreaker.protect(Mono.just("reviews")))
+                .expectErrorMessage("Circuit for reviews is open")
+                .verify();
+        assertEquals(1, circuitBreaker.stats().getNotPermitted());
+    }
+
+    @Test
+    void clientErrorsDoNotOpen() {
+        //when
+        for (var i = 0; i < 4; i++) {
+            StepVerifier.create(circuitBreaker.protect(Mono.error(new ReviewsClientException("rating : must be a positive value"))))
+                    .expectError(ReviewsClientException.class)
+                    .verify();
+        }
+
+        //then
+        assertEquals(CircuitState.CLOSED, circuitBreaker.stats().getState());
+        assertEquals(0.0, circuitBreaker.stats().getFailureRate());
+    }
+
+    @Test
+    void opensOnSlowCallRate() {
+        //when
+        for (var i = 0; i < 4; i++) {
+            var permit = circuitBreaker.tryAcquire();
+            circuitBreaker.onResult(permit, false, 600 * MILLIS);
+        }
+
+        //then
+        assertEquals(CircuitState.OPEN, circuitBreaker.stats().getState());
+    }
+
+    @Test
+    void halfOpenProbesClose() {
+        //given
+        fail(4);
+        now.addAndGet(1000 * MILLIS);
+
+        //when
+        var first = circuitBreaker.tryAcquire();
+        var second = circuitBreaker.tryAcquire();
+        var third = circuitBreaker.tryAcquire();
+
+        //then
+        assertEquals(CircuitState.HALF_OPEN, circuitBreaker.stats().getState());
+        assertEquals(-1, third);
+        circuitBreaker.onResult(first, false, MILLIS);
+        circuitBreaker.onResult(second, false, MILLIS);
+        assertEquals(CircuitState.CLOSED, circuitBreaker.stats().getState());
+    }
+
+    @Test
+    void halfOpenProbeFailureReopens() {
+        //given
+        fail(4);
+        now.addAndGet(1000 * MILLIS);
+
+        //when
+        fail(1);
+
+        //then
+        assertEquals(CircuitState.OPEN, circuitBreaker.stats().getState());
+        assertEquals(2, circuitBreaker.stats().getOpened());
+        StepVerifier.create(circuitBreaker.protect(Mono.just("reviews")))
+                .expectError(CircuitOpenException.class)
+                .verify();
+    }
+
+    @Test
+    void lateResultIgnoredAfterStateChange() {
+        //given
+        var late = circuitBreaker.tryAcquire();
+        fail(4);
+        now.addAndGet(1000 * MILLIS);
+        var probe = circuitBreaker.tryAcquire();
+
+        //when
+        circuitBreaker.onResult(late, true, MILLIS);
+
+        //then
+        assertEquals(CircuitState.HALF_OPEN, circuitBreaker.stats().getState());
+        circuitBreaker.onResult(probe, false, MILLIS);
+        assertEquals(CircuitState.HALF_OPEN, circuitBreaker.stats().getState());
+    }
+
+    private void succeed(int calls) {
+        for (var i = 0; i < calls; i++) {
+            StepVerifier.create(circuitBreaker.protect(Mono.just("reviews")))
+                    .expectNext("reviews")
+                    .verifyComplete();
+        }
+    }
+
+    private void fail(int calls) {
+        for (var i = 0; i < calls; i++) {
+            StepVerifier.create(circuitBreaker.protect(Mono.error(new ReviewsServerException("Server Exception in ReviewsService"))))
+                    .expectError(ReviewsServerException.class)
+                    .verify();
+        }
+    }
+
+    private static DownstreamClientProperties clientProperties() {
+        var clientProperties = new DownstreamClientProperties();
+        clientProperties.setCircuitWindowSize(4);
+        clientProperties.setCircuitMinimumCalls(4);
+        clientProperties.setCircuitFailureRateThreshold(50);
+        clientProperties.setCircuitSlowCallRateThreshold(75);
+        clientProperties.setCircuitSlowCallDuration(Duration.ofMillis(500));
+        clientProperties.setCircuitOpenDuration(Duration.ofSeconds(1));
+        clientProperties.setCircuitHalfOpenCalls(2);
+        return clientProperties;
+    }
+}
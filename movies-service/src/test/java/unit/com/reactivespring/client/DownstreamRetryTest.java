@@ -0,0 +1,127 @@
+package com.reactivespring.client;
+
+import com.reactivespring.config.DownstreamClientProperties;
+import com.reactivespring.exception.MoviesInfoClientException;
+import com.reactivespring.exception.MoviesInfoServerException;
+import com.reactivespring.exception.ReviewsServerException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DownstreamRetryTest {
+
+    private static final Supplier<Throwable> DEADLINE_EXCEEDED =
+            () -> new MoviesInfoServerException("MoviesInfoService did not answer within 2000ms");
+
+    private DownstreamClientProperties clientProperties = new DownstreamClientProperties();
+
+    @Test
+    void withRetry_serverErrorRetried() {
+        //given
+        var downstreamRetry = new DownstreamRetry(new RetryBudget(0.1, 10, Duration.ofSeconds(10), System::currentTimeMillis));
+        var attempts = new AtomicInteger();
+        var call = Mono.defer(() -> attempts.incrementAndGet() < 3
+                ? Mono.<String>error(new MoviesInfoServerException("Server Exception in MoviesInfoService"))
+                : Mono.just("movieInfo"));
+
+        //when
+        //then
+        StepVerifier.withVirtualTime(() -> downstreamRetry.withRetry("movies-info", clientProperties, call, DEADLINE_EXCEEDED))
+                .thenAwait(Duration.ofSeconds(5))
+                .expectNext("movieInfo")
+                .verifyComplete();
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void withRetry_clientErrorNotRetried() {
+        //given
+        var downstreamRetry = new DownstreamRetry(new RetryBudget(0.1, 10, Duration.ofSeconds(10), System::currentTimeMillis));
+        var attempts = new AtomicInteger();
+        var call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.<String>error(new MoviesInfoClientException("There is no MovieInfo available for the passed in Id : abc", 404));
+        });
+
+        //when
+        //then
+        StepVerifier.create(downstreamRetry.withRetry("movies-info", clientProperties, call, DEADLINE_EXCEEDED))
+                .expectError(MoviesInfoClientException.class)
+                .verify();
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void withRetry_budgetExhausted() {
+        //given
+        var retryBudget = new RetryBudget(0.1, 0, Duration.ofSeconds(10), System::currentTimeMillis);
+        var downstreamRetry = new DownstreamRetry(retryBudget);
+        var attempts = new AtomicInteger();
+        var call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.<String>error(new ReviewsServerException("ReviewsService did not answer within 2000ms"));
+        });
+
+        //when
+        //then
+        // a single request earns no retries at a 10% budget with no floor
+        StepVerifier.create(downstreamRetry.withRetry("reviews", clientProperties, call, DEADLINE_EXCEEDED))
+                .expectErrorMessage("ReviewsService did not answer within 2000ms")
+                .verify();
+        assertEquals(1, attempts.get());
+        assertEquals(1, retryBudget.stats().getRejected());
+    }
+
+    @Test
+    void withRetry_retriesExhausted() {
+        //given
+        var retryBudget = new RetryBudget(0.1, 10, Duration.ofSeconds(10), System::currentTimeMillis);
+        var downstreamRetry = new DownstreamRetry(retryBudget);
+        var attempts = new AtomicInteger();
+        var call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.<String>error(new MoviesInfoServerException("Server Exception in MoviesInfoService"));
+        });
+
+        //when
+        //then
+        StepVerifier.withVirtualTime(() -> downstreamRetry.withRetry("movies-info", clientProperties, call, DEADLINE_EXCEEDED))
+                .thenAwait(Duration.ofSeconds(5))
+                .expectErrorMessage("Server Exception in MoviesInfoService")
+                .verify();
+        assertEquals(3, attempts.get());
+        // the last failure is not retried, so it takes nothing from the budget
+        assertEquals(attempts.get() - 1, retryBudget.stats().getRetries());
+        assertEquals(0, retryBudget.stats().getRejected());
+    }
+
+    @Test
+    void withRetry_deadlineBoundsRetries() {
+        //given
+        var downstreamRetry = new DownstreamRetry(new RetryBudget(0.1, 10, Duration.ofSeconds(10), System::currentTimeMillis));
+        var attempts = new AtomicInteger();
+        var call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.<String>never()
+                    .timeout(clientProperties.getAttemptTimeout(), Mono.error(() -> new MoviesInfoServerException(
+                            "MoviesInfoService did not answer within 1000ms")));
+        });
+
+        //when
+        //then
+        // three hanging attempts plus backoff would take over 3s; the 2s deadline ends the call
+        StepVerifier.withVirtualTime(() -> downstreamRetry.withRetry("movies-info", clientProperties, call, DEADLINE_EXCEEDED))
+                .expectSubscription()
+                .expectNoEvent(clientProperties.getTimeout().minusMillis(1))
+                .thenAwait(Duration.ofMillis(1))
+                .expectErrorMessage("MoviesInfoService did not answer within 2000ms")
+                .verify();
+        assertEquals(2, attempts.get());
+    }
+}
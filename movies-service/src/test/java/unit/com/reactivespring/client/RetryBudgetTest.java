@@ -0,0 +1,80 @@
+package com.reactivespring.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBudgetTest {
+
+    private AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    void tryAcquireRetry_floorWithoutTraffic() {
+        //given
+        var retryBudget = new RetryBudget(0.1, 1, Duration.ofSeconds(2), now::get);
+
+        //when
+        //then
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertFalse(retryBudget.tryAcquireRetry());
+        assertEquals(1, retryBudget.stats().getRejected());
+    }
+
+    @Test
+    void tryAcquireRetry_shareOfTraffic() {
+        //given
+        var retryBudget = new RetryBudget(0.1, 0, Duration.ofSeconds(10), now::get);
+        for (var i = 0; i < 100; i++) {
+            retryBudget.recordRequest();
+        }
+
+        //when
+        var granted = 0;
+        for (var i = 0; i < 50; i++) {
+            if (retryBudget.tryAcquireRetry()) {
+                granted++;
+            }
+        }
+
+        //then
+        assertEquals(10, granted);
+        var stats = retryBudget.stats();
+        assertEquals(100, stats.getRequests());
+        assertEquals(10, stats.getRetries());
+        assertEquals(40, stats.getRejected());
+    }
+
+    @Test
+    void tryAcquireRetry_windowSlides() {
+        //given
+        var retryBudget = new RetryBudget(0.5, 0, Duration.ofSeconds(2), now::get);
+        retryBudget.recordRequest();
+        retryBudget.recordRequest();
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertFalse(retryBudget.tryAcquireRetry());
+
+        //when
+        now.addAndGet(1000);
+        retryBudget.recordRequest();
+        retryBudget.recordRequest();
+
+        //then
+        assertTrue(retryBudget.tryAcquireRetry());
+        assertFalse(retryBudget.tryAcquireRetry());
+
+        //when
+        now.addAndGet(1000);
+
+        //then
+        // the first second has aged out, leaving two requests and one retry
+        assertEquals(2, retryBudget.stats().getRequests());
+        assertEquals(1, retryBudget.stats().getRetries());
+        assertFalse(retryBudget.tryAcquireRetry());
+    }
+}
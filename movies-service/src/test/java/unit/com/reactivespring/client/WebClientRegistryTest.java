@@ -0,0 +1,87 @@
+package com.reactivespring.client;
+
+import com.reactivespring.config.DownstreamClientProperties;
+import com.reactivespring.config.MoviesClientsProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WebClientRegistryTest {
+
+    private WebClientRegistry webClientRegistry;
+
+    @AfterEach
+    void tearDown() {
+        if (webClientRegistry != null) {
+            webClientRegistry.destroy();
+        }
+    }
+
+    @Test
+    void registry_clientPerDownstream() {
+        //given
+        var moviesClientsProperties = new MoviesClientsProperties();
+        moviesClientsProperties.getClients().put("movies-info", clientProperties("http://localhost:8080/v1/movieinfos", 10));
+        moviesClientsProperties.getClients().put("reviews", clientProperties("http://localhost:8081/v1/reviews", 20));
+
+        //when
+        webClientRegistry = new WebClientRegistry(WebClient.builder(), moviesClientsProperties);
+
+        //then
+        assertNotSame(webClientRegistry.webClient("movies-info"), webClientRegistry.webClient("reviews"));
+        assertEquals("http://localhost:8081/v1/reviews", webClientRegistry.properties("reviews").getUrl());
+        var stats = webClientRegistry.stats();
+        assertEquals(2, stats.size());
+        assertEquals("movies-info", stats.get(0).getClient());
+        assertEquals(10, stats.get(0).getMaxConnections());
+        assertEquals(20, stats.get(1).getMaxConnections());
+        assertEquals(0, stats.get(1).getAcquired());
+    }
+
+    @Test
+    void registry_unknownClient() {
+        //given
+        webClientRegistry = new WebClientRegistry(WebClient.builder(), new MoviesClientsProperties());
+
+        //when
+        //then
+        assertThrows(IllegalStateException.class, () -> webClientRegistry.webClient("movies-info"));
+        assertThrows(IllegalStateException.class, () -> webClientRegistry.properties("movies-info"));
+    }
+
+    @Test
+    void recorder_timesAcquire() {
+        //given
+        var recorder = new ConnectionPoolRecorder("reviews", 10, 20);
+
+        //when
+        StepVerifier.create(recorder.timeAcquire(Mono.delay(Duration.ofMillis(20)).thenReturn("connection")))
+                .expectNext("connection")
+                .verifyComplete();
+        StepVerifier.create(recorder.timeAcquire(Mono.error(new IllegalStateException("Pool#acquire timed out"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        //then
+        var stats = recorder.stats();
+        assertEquals(1, stats.getAcquired());
+        assertEquals(1, stats.getAcquireErrors());
+        assert stats.getMaxAcquireMillis() >= 20 : "max acquire " + stats.getMaxAcquireMillis();
+        assertEquals(stats.getMaxAcquireMillis(), stats.getAverageAcquireMillis());
+    }
+
+    private static DownstreamClientProperties clientProperties(String url, int maxConnections) {
+        var clientProperties = new DownstreamClientProperties();
+        clientProperties.setUrl(url);
+        clientProperties.setMaxConnections(maxConnections);
+        return clientProperties;
+    }
+}
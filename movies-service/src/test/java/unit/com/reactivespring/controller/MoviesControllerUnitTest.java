@@ -1,4 +1,164 @@
 package com.reactivespring.controller;
 
+import com.reactivespring.cache.MovieCache;
+import com.reactivespring.client.MoviesInfoRestClient;
+import com.reactivespring.client.ReviewsRestClient;
+import com.reactivespring.domain.Movie;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieResult;
+import com.reactivespring.domain.Review;
+import com.reactivespring.exception.MoviesInfoClientException;
+import com.reactivespring.exception.ReviewsServerException;
+import com.reactivespring.service.MoviesService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(controllers = MoviesController.class)
+@Import({MoviesService.class, MovieCache.class})
+@TestPropertySource(properties = {"movies.cache.ttl=0s", "movies.cache.max-stale=0s"})
+@AutoConfigureWebTestClient
 public class MoviesControllerUnitTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private MoviesInfoRestClient moviesInfoRestClientMock;
+
+    @MockBean
+    private ReviewsRestClient reviewsRestClientMock;
+
+    static String MOVIES_URL = "/v1/movies";
+
+    @Test
+    void retrieveMovieById() {
+        //given
+        var movieId = "abc";
+        var movieInfo = new MovieInfo(movieId, "Batman Begins",
+                2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+        var reviews = List.of(new Review("1", 1L, "Awesome Movie", 9.0),
+                new Review("2", 1L, "Excellent Movie", 8.0));
+
+        when(moviesInfoRestClientMock.retrieveMovieInfo(movieId)).thenReturn(Mono.just(movieInfo));
+        when(reviewsRestClientMock.retrieveReviews(movieId)).thenReturn(Mono.just(reviews));
+
+        //when
+        webTestClient
+                .get()
+                .uri(MOVIES_URL + "/{id}", movieId)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody(Movie.class)
+                .consumeWith(movieEntityExchangeResult -> {
+                    var movie = movieEntityExchangeResult.getResponseBody();
+                    //then
+                    assert movie != null;
+                    assertEquals("Batman Begins", movie.getMovieInfo().getName());
+                    assertEquals(2, movie.getReviewList().size());
+                });
+    }
+
+    @Test
+    void retrieveMovieById_movieInfoNotFound() {
+        //given
+        var movieId = "def";
+        when(moviesInfoRestClientMock.retrieveMovieInfo(movieId)).thenReturn(Mono.error(
+                new MoviesInfoClientException("There is no MovieInfo available for the passed in Id : " + movieId, 404)));
+        when(reviewsRestClientMock.retrieveReviews(movieId)).thenReturn(Mono.just(List.of()));
+
+        //when
+        webTestClient
+                .get()
+                .uri(MOVIES_URL + "/{id}", movieId)
+                .exchange()
+                //then
+                .expectStatus()
+                .isNotFound()
+                .expectBody(String.class)
+                .isEqualTo("There is no MovieInfo available for the passed in Id : def");
+    }
+
+    @Test
+    void retrieveMovieById_reviewsServerError() {
+        //given
+        var movieId = "abc";
+        var movieInfo = new MovieInfo(movieId, "Batman Begins",
+                2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+        when(moviesInfoRestClientMock.retrieveMovieInfo(movieId)).thenReturn(Mono.just(movieInfo));
+        when(reviewsRestClientMock.retrieveReviews(movieId)).thenReturn(Mono.error(
+                new ReviewsServerException("ReviewsService did not answer within 2000ms")));
+
+        //when
+        webTestClient
+                .get()
+                .uri(MOVIES_URL + "/{id}", movieId)
+                .exchange()
+                //then
+                .expectStatus()
+                .is5xxServerError()
+                .expectBody(String.class)
+                .isEqualTo("ReviewsService did not answer within 2000ms");
+    }
+
+    @Test
+    void retrieveMovies() {
+        //given
+        var movieInfo = new MovieInfo("abc", "Batman Begins",
+                2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+        when(moviesInfoRestClientMock.retrieveMovieInfo("abc")).thenReturn(Mono.just(movieInfo));
+        when(moviesInfoRestClientMock.retrieveMovieInfo("def")).thenReturn(Mono.error(
+                new MoviesInfoClientException("There is no MovieInfo available for the passed in Id : def", 404)));
+        when(reviewsRestClientMock.retrieveReviews("abc")).thenReturn(Mono.just(List.of()));
+        when(reviewsRestClientMock.retrieveReviews("def")).thenReturn(Mono.just(List.of()));
+
+        //when
+        webTestClient
+                .get()
+                .uri(MOVIES_URL + "?ids=abc,def")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieResult.class)
+                .consumeWith(listEntityExchangeResult -> {
+                    var results = listEntityExchangeResult.getResponseBody();
+                    //then
+                    assert results != null;
+                    assertEquals(2, results.size());
+                    assertEquals("Batman Begins", results.get(0).getMovie().getMovieInfo().getName());
+                    assertEquals("def", results.get(1).getMovieId());
+                    assertEquals(404, results.get(1).getStatus());
+                    assertEquals("There is no MovieInfo available for the passed in Id : def", results.get(1).getError());
+                });
+    }
+
+    @Test
+    void retrieveMovies_invalidOrder() {
+        //when
+        webTestClient
+                .get()
+                .uri(MOVIES_URL + "?ids=abc&order=random")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                //then
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("order must be one of request, completion");
+    }
 }
@@ -0,0 +1,173 @@
+package com.reactivespring.service;
+
+import com.reactivespring.cache.MovieCache;
+import com.reactivespring.client.MoviesInfoRestClient;
+import com.reactivespring.client.ReviewsRestClient;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieResult;
+import com.reactivespring.domain.ResultOrder;
+import com.reactivespring.domain.Review;
+import com.reactivespring.exception.MoviesInfoClientException;
+import com.reactivespring.exception.MoviesInfoServerException;
+import com.reactivespring.exception.MoviesRequestException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MoviesServiceTest {
+
+    private MoviesInfoRestClient moviesInfoRestClient = mock(MoviesInfoRestClient.class);
+    private ReviewsRestClient reviewsRestClient = mock(ReviewsRestClient.class);
+    private MoviesService moviesService = new MoviesService(moviesInfoRestClient, reviewsRestClient,
+            new MovieCache(100, Duration.ZERO, Duration.ZERO), 2, 3);
+
+    private MovieInfo movieInfo = new MovieInfo("abc", "Batman Begins",
+            2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+
+    @Test
+    void getMovie_callsDependenciesConcurrently() {
+        //given
+        var reviews = List.of(new Review("1", 1L, "Awesome Movie", 9.0));
+        when(moviesInfoRestClient.retrieveMovieInfo("abc"))
+                .thenAnswer(invocation -> Mono.delay(Duration.ofMillis(300)).thenReturn(movieInfo));
+        when(reviewsRestClient.retrieveReviews("abc"))
+                .thenAnswer(invocation -> Mono.delay(Duration.ofMillis(500)).thenReturn(reviews));
+
+        //when
+        //then
+        StepVerifier.withVirtualTime(() -> moviesService.getMovie("abc"))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(499))
+                .thenAwait(Duration.ofMillis(1))
+                .assertNext(movie -> {
+                    assertEquals("Batman Begins", movie.getMovieInfo().getName());
+                    assertEquals(1, movie.getReviewList().size());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getMovie_failureCancelsOtherCall() {
+        //given
+        var reviewsCancelled = new AtomicBoolean();
+        when(moviesInfoRestClient.retrieveMovieInfo("abc"))
+                .thenAnswer(invocation -> Mono.delay(Duration.ofMillis(100))
+                        .then(Mono.error(new MoviesInfoServerException("MoviesInfoService did not answer within 100ms"))));
+        when(reviewsRestClient.retrieveReviews("abc"))
+                .thenAnswer(invocation -> Mono.delay(Duration.ofMillis(500)).thenReturn(List.<Review>of())
+                        .doOnCancel(() -> reviewsCancelled.set(true)));
+
+        //when
+        //then
+        StepVerifier.withVirtualTime(() -> moviesService.getMovie("abc"))
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(100))
+                .expectError(MoviesInfoServerException.class)
+                .verify();
+        assertTrue(reviewsCancelled.get());
+    }
+
+    @Test
+    void getMovies_requestOrder() {
+        //given
+        stubMovies(Map.of("1", 300L, "2", 100L, "3", 250L));
+
+        //when
+        //then
+        StepVerifier.withVirtualTime(() -> moviesService.getMovies(List.of("1", "2", "3"), ResultOrder.REQUEST))
+                .thenAwait(Duration.ofSeconds(1))
+                .assertNext(result -> assertEquals("1", result.getMovieId()))
+                .assertNext(result -> assertEquals("2", result.getMovieId()))
+                .assertNext(result -> assertEquals("3", result.getMovieId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getMovies_completionOrder() {
+        //given
+        stubMovies(Map.of("1", 300L, "2", 100L, "3", 250L));
+
+        //when
+        //then
+        // with two in flight, 3 starts when 2 completes at 100ms and finishes at 350ms, after 1
+        StepVerifier.withVirtualTime(() -> moviesService.getMovies(List.of("1", "2", "3"), ResultOrder.COMPLETION))
+                .thenAwait(Duration.ofSeconds(1))
+                .assertNext(result -> assertEquals("2", result.getMovieId()))
+                .assertNext(result -> assertEquals("1", result.getMovieId()))
+                .assertNext(result -> assertEquals("3", result.getMovieId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getMovies_boundedConcurrency() {
+        //given
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        when(moviesInfoRestClient.retrieveMovieInfo(anyString()))
+                .thenAnswer(invocation -> Mono.delay(Duration.ofMillis(100)).thenReturn(movieInfo)
+                        .doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                        .doOnNext(info -> inFlight.decrementAndGet()));
+        when(reviewsRestClient.retrieveReviews(anyString()))
+                .thenAnswer(invocation -> Mono.just(List.<Review>of()));
+
+        //when
+        //then
+        StepVerifier.withVirtualTime(() -> moviesService.getMovies(List.of("1", "2", "3"), ResultOrder.REQUEST))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNextCount(3)
+                .verifyComplete();
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    void getMovies_failuresInline() {
+        //given
+        when(moviesInfoRestClient.retrieveMovieInfo("1")).thenReturn(Mono.just(movieInfo));
+        when(moviesInfoRestClient.retrieveMovieInfo("2")).thenReturn(Mono.error(
+                new MoviesInfoClientException("There is no MovieInfo available for the passed in Id : 2", 404)));
+        when(moviesInfoRestClient.retrieveMovieInfo("3")).thenReturn(Mono.error(
+                new MoviesInfoServerException("Server Exception in MoviesInfoService")));
+        when(reviewsRestClient.retrieveReviews(anyString())).thenReturn(Mono.just(List.of()));
+
+        //when
+        var results = moviesService.getMovies(List.of("1", "2", "3"), ResultOrder.REQUEST);
+
+        //then
+        StepVerifier.create(results.map(MovieResult::getStatus))
+                .expectNext(200, 404, 500)
+                .verifyComplete();
+    }
+
+    @Test
+    void getMovies_tooManyIds() {
+        //when
+        var results = moviesService.getMovies(List.of("1", "2", "3", "4"), ResultOrder.REQUEST);
+
+        //then
+        StepVerifier.create(results)
+                .expectError(MoviesRequestException.class)
+                .verify();
+    }
+
+    private void stubMovies(Map<String, Long> delays) {
+        delays.forEach((movieId, delay) -> {
+            when(moviesInfoRestClient.retrieveMovieInfo(movieId))
+                    .thenAnswer(invocation -> Mono.delay(Duration.ofMillis(delay)).thenReturn(movieInfo));
+            when(reviewsRestClient.retrieveReviews(movieId))
+                    .thenAnswer(invocation -> Mono.just(List.<Review>of()));
+        });
+    }
+}